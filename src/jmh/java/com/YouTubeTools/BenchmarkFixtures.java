@@ -0,0 +1,120 @@
+package com.YouTubeTools;
+
+import com.YouTubeTools.Model.VideoTranscript;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Captured YouTube responses used by the benchmarks, plus scaled-up variants of them.
+ */
+public final class BenchmarkFixtures {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    /** Fixtures the warm-up already ships on the main classpath; read from there rather than copied. */
+    private static final Set<String> WARM_UP_FIXTURES = Set.of("timedtext-json3.json", "videos-list-response.json");
+
+    private BenchmarkFixtures() {
+    }
+
+    public static String load(String name) {
+        String path = (WARM_UP_FIXTURES.contains(name) ? "/warmup/" : "/fixtures/") + name;
+        try (InputStream in = BenchmarkFixtures.class.getResourceAsStream(path)) {
+            if (in == null) {
+                throw new IllegalArgumentException("Missing fixture " + name);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * The captured json3 transcript with its caption events repeated {@code copies} times,
+     * shifted in time so the result reads like one long video (e.g. a multi-hour stream).
+     */
+    public static String json3Transcript(int copies) {
+        try {
+            ObjectNode root = (ObjectNode) MAPPER.readTree(load("timedtext-json3.json"));
+            ArrayNode events = (ArrayNode) root.get("events");
+            long span = 0;
+            for (JsonNode event : events) {
+                span = Math.max(span, event.path("tStartMs").asLong() + event.path("dDurationMs").asLong());
+            }
+
+            ArrayNode scaled = MAPPER.createArrayNode();
+            for (int copy = 0; copy < copies; copy++) {
+                for (JsonNode event : events) {
+                    ObjectNode shifted = event.deepCopy();
+                    shifted.put("tStartMs", event.path("tStartMs").asLong() + copy * span);
+                    scaled.add(shifted);
+                }
+            }
+            root.set("events", scaled);
+            return MAPPER.writeValueAsString(root);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * The scaled json3 transcript as a {@link VideoTranscript}, one entry per caption event.
+     */
+    public static VideoTranscript transcript(int copies) {
+        try {
+            JsonNode events = MAPPER.readTree(json3Transcript(copies)).path("events");
+            List<VideoTranscript.TranscriptEntry> entries = new ArrayList<>();
+            for (JsonNode event : events) {
+                StringBuilder text = new StringBuilder();
+                for (JsonNode seg : event.path("segs")) {
+                    text.append(seg.path("utf8").asText());
+                }
+                if (!text.toString().isBlank()) {
+                    entries.add(VideoTranscript.TranscriptEntry.builder()
+                            .start(event.path("tStartMs").asDouble() / 1000.0)
+                            .duration(event.path("dDurationMs").asDouble() / 1000.0)
+                            .text(text.toString().trim())
+                            .build());
+                }
+            }
+            return VideoTranscript.builder()
+                    .videoId("dQw4w9WgXcQ")
+                    .language("en")
+                    .transcriptEntries(entries)
+                    .build();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * A watch page of realistic size (about 1 MB, mostly inline scripts) with the captured
+     * player response embedded the way YouTube does it.
+     */
+    public static String watchPage() {
+        String playerResponse = load("watch-page-player-response.json");
+        StringBuilder html = new StringBuilder(1_100_000);
+        html.append("<!DOCTYPE html><html><head><title>Watch</title>");
+        String filler = "<script nonce=\"abc\">var ytcfg={\"EXPERIMENT_FLAGS\":{\"flag_a\":true,\"flag_b\":false,\"flag_c\":\"value\"}};</script>\n";
+        while (html.length() < 500_000) {
+            html.append(filler);
+        }
+        html.append("<script nonce=\"abc\">var ytInitialPlayerResponse = ")
+                .append(playerResponse.trim())
+                .append(";var meta = document.createElement('meta');</script>\n");
+        while (html.length() < 1_000_000) {
+            html.append(filler);
+        }
+        html.append("</head><body></body></html>");
+        return html.toString();
+    }
+}
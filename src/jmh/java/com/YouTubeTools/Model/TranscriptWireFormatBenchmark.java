@@ -0,0 +1,53 @@
+package com.YouTubeTools.Model;
+
+import com.YouTubeTools.BenchmarkFixtures;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization cost of the transcript response views in each wire format. The payload
+ * size of every combination is printed once per fork during setup.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TranscriptWireFormatBenchmark {
+
+    @Param({"full", "entries", "compact"})
+    public String view;
+
+    @Param({"json", "smile", "cbor"})
+    public String format;
+
+    private ObjectMapper mapper;
+    private VideoTranscript transcript;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        mapper = switch (format) {
+            case "smile" -> new ObjectMapper(new SmileFactory());
+            case "cbor" -> new ObjectMapper(new CBORFactory());
+            default -> new ObjectMapper();
+        };
+        transcript = BenchmarkFixtures.transcript(50);
+        System.out.printf("%n%s/%s: %d bytes%n", view, format, serialize().length);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        Object body = switch (view) {
+            case "entries" -> TranscriptEntriesView.from(transcript);
+            case "compact" -> CompactTranscript.from(transcript);
+            default -> transcript;
+        };
+        return mapper.writeValueAsBytes(body);
+    }
+}
@@ -0,0 +1,51 @@
+package com.YouTubeTools.Model;
+
+import com.YouTubeTools.BenchmarkFixtures;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The text helpers on {@link VideoTranscript} that the transcript page and downloads call.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class VideoTranscriptBenchmark {
+
+    @Param({"small", "huge"})
+    public String transcriptSize;
+
+    private VideoTranscript transcript;
+
+    @Setup
+    public void setUp() {
+        transcript = BenchmarkFixtures.transcript(transcriptSize.equals("huge") ? 50 : 1);
+    }
+
+    @Benchmark
+    public String getPlainText() {
+        return transcript.getPlainText();
+    }
+
+    @Benchmark
+    public int getWordCount() {
+        // The count is memoised on the instance; reset it so every call does the work
+        transcript.setWordCount(0);
+        return transcript.getWordCount();
+    }
+
+    @Benchmark
+    public String toSrtFormat() {
+        return transcript.toSrtFormat();
+    }
+
+    @Benchmark
+    public List<VideoTranscript.TranscriptEntry> searchInTranscript() {
+        return transcript.searchInTranscript("Compiler");
+    }
+}
@@ -0,0 +1,30 @@
+package com.YouTubeTools.Service;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ThumbnailServiceBenchmark {
+
+    @Param({
+            "dQw4w9WgXcQ",
+            "https://www.youtube.com/watch?v=dQw4w9WgXcQ&t=42s",
+            "https://youtu.be/dQw4w9WgXcQ",
+            "https://www.youtube.com/v/dQw4w9WgXcQ",
+            "https://example.com/not-a-video"
+    })
+    public String input;
+
+    private final ThumbnailService thumbnailService = new ThumbnailService();
+
+    @Benchmark
+    public String extractVideoId() {
+        return thumbnailService.extractVideoId(input);
+    }
+}
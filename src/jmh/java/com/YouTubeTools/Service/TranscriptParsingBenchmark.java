@@ -0,0 +1,50 @@
+package com.YouTubeTools.Service;
+
+import com.YouTubeTools.BenchmarkFixtures;
+import com.YouTubeTools.Model.VideoTranscript;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing of what the transcript strategies download: json3 caption documents and the
+ * player response embedded in a watch page.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TranscriptParsingBenchmark {
+
+    /** small: the captured ~12 minute video; huge: the same captions repeated to ~10 hours. */
+    @Param({"small", "huge"})
+    public String transcriptSize;
+
+    private TranscriptService transcriptService;
+    private CaptionTrackService captionTrackService;
+    private String json3;
+    private String watchPage;
+
+    @Setup
+    public void setUp() {
+        transcriptService = new TranscriptService(null, null, null, null, null, new SimpleMeterRegistry());
+        captionTrackService = new CaptionTrackService(null, null, new SimpleMeterRegistry());
+        json3 = BenchmarkFixtures.json3Transcript(transcriptSize.equals("huge") ? 50 : 1);
+        watchPage = BenchmarkFixtures.watchPage();
+    }
+
+    @Benchmark
+    public VideoTranscript parseJson3Transcript() {
+        return transcriptService.parseJson3Transcript("dQw4w9WgXcQ", json3, "en");
+    }
+
+    @Benchmark
+    public JsonNode extractPlayerResponse() throws IOException {
+        return captionTrackService.extractPlayerResponse(watchPage);
+    }
+}
@@ -0,0 +1,42 @@
+package com.YouTubeTools.Service;
+
+import com.YouTubeTools.BenchmarkFixtures;
+import com.YouTubeTools.Util.JsonItemStream;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deserialisation of a captured videos.list response into the DTOs YouTubeService uses,
+ * through the same streaming item decoder.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class VideoApiResponseBenchmark {
+
+    private ObjectMapper objectMapper;
+    private byte[] body;
+
+    @Setup
+    public void setUp() {
+        // Same settings as Spring Boot's ObjectMapper: unknown fields are skipped
+        objectMapper = new ObjectMapper()
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        body = BenchmarkFixtures.load("videos-list-response.json").getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        return JsonItemStream.items(Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(body)), "items",
+                YouTubeService.VideoItem.class, objectMapper, Integer.MAX_VALUE).collectList().block();
+    }
+}
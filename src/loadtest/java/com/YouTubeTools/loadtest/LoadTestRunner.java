@@ -0,0 +1,277 @@
+package com.YouTubeTools.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load generator for the running app. Requests are started on a fixed schedule
+ * ({@code --rate} per second) whether or not earlier ones have finished, each on its own
+ * virtual thread, and latency is measured from the scheduled start. A slow server
+ * therefore shows up as latency instead of quietly lowering the offered load.
+ *
+ * <pre>
+ * --base-url     app to drive (default http://localhost:8080)
+ * --scenario     comma separated: video-details, transcript, download-links (default video-details)
+ * --rate         requests per second across all scenarios (default 50)
+ * --duration     measured seconds (default 30)
+ * --warmup       seconds sent before measuring (default 5)
+ * --video-ids    distinct video ids to cycle through; fewer ids means more cache hits (default 100)
+ * --cookie       Cookie header, e.g. a JSESSIONID for the signed-in transcript endpoint
+ * --label        name of the run in the report, e.g. "blocking-caffeine" (default "run")
+ * --report-dir   where the JSON report goes (default target/loadtest)
+ * --upstream     stand-in upstream to read peak in-flight requests from, e.g. http://127.0.0.1:8089
+ * </pre>
+ *
+ * With {@code --upstream} the report also shows how many upstream calls the app kept in
+ * flight at once, which is the number to compare between platform and virtual thread runs.
+ *
+ * A full run, using the loadtest profile:
+ * <pre>
+ * # 1. the stand-in YouTube upstream
+ * ./mvnw -Ploadtest test-compile exec:exec@stub -Dstub.args="--port 8089 --latency lognormal:80,0.5"
+ *
+ * # 2. the app pointed at it, with client rate limiting out of the way
+ * ./mvnw spring-boot:run -Dspring-boot.run.arguments="--youtube.api.base.url=http://127.0.0.1:8089/youtube/v3
+ *     --youtube.web.base.url=http://127.0.0.1:8089 --youtube.api.keys=load-test-key
+ *     --rate-limit.anonymous.requests-per-minute=1000000 --rate-limit.anonymous.burst=100000
+ *     --spring.threads.virtual.enabled=true"
+ *
+ * # 3. the load, writing target/loadtest/virtual.json
+ * ./mvnw -Ploadtest test-compile exec:exec@run -Dloadtest.args="--scenario video-details --rate 200
+ *     --duration 60 --upstream http://127.0.0.1:8089 --label virtual"
+ * </pre>
+ * Repeat steps 2 and 3 with {@code spring.threads.virtual.enabled=false} and another label
+ * to compare the modes.
+ */
+public class LoadTestRunner {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(2);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(60);
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseArgs(args);
+        String baseUrl = options.getOrDefault("base-url", "http://localhost:8080");
+        List<Scenario> scenarios = Arrays.stream(options.getOrDefault("scenario", "video-details").split(","))
+                .map(String::trim)
+                .map(Scenario::fromId)
+                .toList();
+        double rate = Double.parseDouble(options.getOrDefault("rate", "50"));
+        long durationSeconds = Long.parseLong(options.getOrDefault("duration", "30"));
+        long warmupSeconds = Long.parseLong(options.getOrDefault("warmup", "5"));
+        int videoIds = Integer.parseInt(options.getOrDefault("video-ids", "100"));
+        String cookie = options.get("cookie");
+        String label = options.getOrDefault("label", "run");
+        Path reportDir = Paths.get(options.getOrDefault("report-dir", "target/loadtest"));
+        String upstream = options.get("upstream");
+
+        LoadTestRunner runner = new LoadTestRunner(baseUrl, scenarios, cookie, videoIds);
+        if (upstream != null) {
+            runner.upstreamStats(upstream, true);
+        }
+        Map<String, Object> report = runner.run(rate, warmupSeconds, durationSeconds);
+        report.put("label", label);
+        if (upstream != null) {
+            Map<String, Object> upstreamStats = runner.upstreamStats(upstream, false);
+            report.put("upstream", upstreamStats);
+            System.out.println("Upstream peak in flight: " + upstreamStats.get("peakInFlight"));
+        }
+
+        Files.createDirectories(reportDir);
+        Path reportFile = reportDir.resolve(label + ".json");
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(reportFile.toFile(), report);
+        System.out.println();
+        System.out.println("Report written to " + reportFile.toAbsolutePath());
+    }
+
+    private final String baseUrl;
+    private final List<Scenario> scenarios;
+    private final String cookie;
+    private final List<String> videoIds;
+    private final HttpClient client;
+    private final Map<Scenario, ScenarioStats> stats = new EnumMap<>(Scenario.class);
+
+    LoadTestRunner(String baseUrl, List<Scenario> scenarios, String cookie, int videoIdCount) {
+        this.baseUrl = baseUrl;
+        this.scenarios = scenarios;
+        this.cookie = cookie;
+        this.videoIds = new ArrayList<>(videoIdCount);
+        for (int i = 0; i < videoIdCount; i++) {
+            videoIds.add(String.format("load%07d", i));
+        }
+        this.client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        for (Scenario scenario : scenarios) {
+            stats.put(scenario, new ScenarioStats());
+        }
+    }
+
+    Map<String, Object> run(double rate, long warmupSeconds, long durationSeconds) throws InterruptedException {
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(durationSeconds);
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+
+        System.out.printf("Driving %s at %.1f req/s: %ds warm-up, %ds measured, scenarios %s%n",
+                baseUrl, rate, warmupSeconds, durationSeconds, scenarios.stream().map(Scenario::getId).toList());
+
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long n = 0; ; n++) {
+                long scheduled = start + n * intervalNanos;
+                if (scheduled >= end) {
+                    break;
+                }
+                long wait = scheduled - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+
+                Scenario scenario = scenarios.get((int) (n % scenarios.size()));
+                String videoId = videoIds.get(ThreadLocalRandom.current().nextInt(videoIds.size()));
+                boolean measured = scheduled >= measureFrom;
+                workers.submit(() -> {
+                    maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                    try {
+                        execute(scenario, videoId, scheduled, measured);
+                    } finally {
+                        inFlight.decrementAndGet();
+                    }
+                });
+            }
+            // Closing the executor waits for the requests still in flight
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("timestamp", Instant.now().toString());
+        report.put("baseUrl", baseUrl);
+        report.put("targetRate", rate);
+        report.put("durationSeconds", durationSeconds);
+        report.put("maxInFlight", maxInFlight.get());
+        Map<String, Object> perScenario = new LinkedHashMap<>();
+        stats.forEach((scenario, scenarioStats) ->
+                perScenario.put(scenario.getId(), scenarioStats.summarize(scenario, durationSeconds)));
+        report.put("scenarios", perScenario);
+        return report;
+    }
+
+    private void execute(Scenario scenario, String videoId, long scheduledNanos, boolean measured) {
+        ScenarioStats scenarioStats = stats.get(scenario);
+        HttpRequest request = scenario.build(baseUrl, videoId, cookie, REQUEST_TIMEOUT);
+        int status;
+        try {
+            status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (IOException e) {
+            status = -1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        if (measured) {
+            long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - scheduledNanos);
+            scenarioStats.record(status, Math.min(micros, HIGHEST_TRACKABLE_MICROS));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> upstreamStats(String upstream, boolean reset) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(upstream + "/__stats" + (reset ? "?reset=true" : "")))
+                .timeout(Duration.ofSeconds(5))
+                .build();
+        String body = client.send(request, HttpResponse.BodyHandlers.ofString()).body();
+        return new ObjectMapper().readValue(body, Map.class);
+    }
+
+    private static Map<String, String> parseArgs(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--") || i + 1 >= args.length) {
+                throw new IllegalArgumentException("Expected --name value pairs, got " + String.join(" ", args));
+            }
+            options.put(args[i].substring(2), args[++i]);
+        }
+        return options;
+    }
+
+    private static final class ScenarioStats {
+        private final Histogram latencies = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+        private final AtomicLong success = new AtomicLong();
+        private final AtomicLong clientErrors = new AtomicLong();
+        private final AtomicLong throttled = new AtomicLong();
+        private final AtomicLong serverErrors = new AtomicLong();
+        private final AtomicLong ioErrors = new AtomicLong();
+
+        void record(int status, long micros) {
+            latencies.recordValue(micros);
+            if (status < 0) {
+                ioErrors.incrementAndGet();
+            } else if (status == 429) {
+                throttled.incrementAndGet();
+            } else if (status >= 500) {
+                serverErrors.incrementAndGet();
+            } else if (status >= 400) {
+                clientErrors.incrementAndGet();
+            } else {
+                success.incrementAndGet();
+            }
+        }
+
+        Map<String, Object> summarize(Scenario scenario, long durationSeconds) {
+            long total = latencies.getTotalCount();
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("requests", total);
+            summary.put("throughputPerSecond", round((double) total / durationSeconds));
+            summary.put("successPerSecond", round((double) success.get() / durationSeconds));
+            summary.put("p50Ms", millis(latencies.getValueAtPercentile(50)));
+            summary.put("p90Ms", millis(latencies.getValueAtPercentile(90)));
+            summary.put("p99Ms", millis(latencies.getValueAtPercentile(99)));
+            summary.put("p999Ms", millis(latencies.getValueAtPercentile(99.9)));
+            summary.put("maxMs", millis(latencies.getMaxValue()));
+            summary.put("meanMs", round(latencies.getMean() / 1000.0));
+            summary.put("success", success.get());
+            summary.put("clientErrors", clientErrors.get());
+            summary.put("throttled", throttled.get());
+            summary.put("serverErrors", serverErrors.get());
+            summary.put("ioErrors", ioErrors.get());
+
+            System.out.printf("%-15s %8d req %9.1f req/s   p50 %8.1f ms   p99 %8.1f ms   p99.9 %8.1f ms   "
+                            + "max %8.1f ms   2xx %d  4xx %d  429 %d  5xx %d  io %d%n",
+                    scenario.getId(), total, (double) total / durationSeconds,
+                    millis(latencies.getValueAtPercentile(50)), millis(latencies.getValueAtPercentile(99)),
+                    millis(latencies.getValueAtPercentile(99.9)), millis(latencies.getMaxValue()),
+                    success.get(), clientErrors.get(), throttled.get(), serverErrors.get(), ioErrors.get());
+            return summary;
+        }
+
+        private static double millis(long micros) {
+            return round(micros / 1000.0);
+        }
+
+        private static double round(double value) {
+            return Math.round(value * 100) / 100.0;
+        }
+    }
+}
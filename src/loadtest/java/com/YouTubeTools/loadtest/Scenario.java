@@ -0,0 +1,74 @@
+package com.YouTubeTools.loadtest;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+/**
+ * The controller endpoints the load test can drive.
+ */
+enum Scenario {
+
+    VIDEO_DETAILS("video-details") {
+        @Override
+        HttpRequest.Builder request(String baseUrl, String videoId) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + "/api/youtube/video-details"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"videoId\":\"" + videoId + "\"}"));
+        }
+    },
+
+    TRANSCRIPT("transcript") {
+        @Override
+        HttpRequest.Builder request(String baseUrl, String videoId) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + "/api/transcript/fetch"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(
+                            "{\"videoUrlOrId\":\"" + videoId + "\",\"language\":\"en\"}"));
+        }
+    },
+
+    DOWNLOAD_LINKS("download-links") {
+        @Override
+        HttpRequest.Builder request(String baseUrl, String videoId) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + "/get-download-links"))
+                    .header("Content-Type", "application/x-www-form-urlencoded")
+                    .POST(HttpRequest.BodyPublishers.ofString(
+                            "videoUrlOrId=" + URLEncoder.encode(videoId, StandardCharsets.UTF_8)));
+        }
+    };
+
+    private final String id;
+
+    Scenario(String id) {
+        this.id = id;
+    }
+
+    String getId() {
+        return id;
+    }
+
+    abstract HttpRequest.Builder request(String baseUrl, String videoId);
+
+    HttpRequest build(String baseUrl, String videoId, String cookie, Duration timeout) {
+        HttpRequest.Builder builder = request(baseUrl, videoId)
+                .header("Accept", "application/json")
+                .timeout(timeout);
+        if (cookie != null) {
+            builder.header("Cookie", cookie);
+        }
+        return builder.build();
+    }
+
+    static Scenario fromId(String id) {
+        for (Scenario scenario : values()) {
+            if (scenario.id.equals(id)) {
+                return scenario;
+            }
+        }
+        throw new IllegalArgumentException("Unknown scenario '" + id + "', expected one of video-details, "
+                + "transcript, download-links");
+    }
+}
@@ -0,0 +1,69 @@
+package com.YouTubeTools.loadtest;
+
+import com.YouTubeTools.support.FakeYouTubeServer;
+import com.YouTubeTools.support.FakeYouTubeServer.LatencyDistribution;
+import com.YouTubeTools.support.FakeYouTubeServer.Route;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Runs {@link FakeYouTubeServer} as a standalone process so the app under load can be
+ * pointed at it.
+ *
+ * <pre>
+ * --port          listen port (default 8089)
+ * --latency       none | fixed:MS | uniform:MIN-MAX | lognormal:MEDIAN,SIGMA (default lognormal:60,0.5)
+ * --error-rate    fraction of upstream requests to fail (default 0)
+ * --error-status  status used for injected failures (default 503)
+ * </pre>
+ */
+public class StubUpstreamMain {
+
+    public static void main(String[] args) throws InterruptedException {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            options.put(args[i].replaceFirst("^--", ""), args[i + 1]);
+        }
+        int port = Integer.parseInt(options.getOrDefault("port", "8089"));
+        double errorRate = Double.parseDouble(options.getOrDefault("error-rate", "0"));
+        int errorStatus = Integer.parseInt(options.getOrDefault("error-status", "503"));
+
+        FakeYouTubeServer server = FakeYouTubeServer.start(port)
+                .latency(parseLatency(options.getOrDefault("latency", "lognormal:60,0.5")));
+        if (errorRate > 0) {
+            for (Route route : Route.values()) {
+                server.failures(route, errorRate, errorStatus);
+            }
+        }
+
+        System.out.println("Stand-in YouTube listening. Start the app with:");
+        System.out.println("  --youtube.api.base.url=" + server.getDataApiBaseUrl());
+        System.out.println("  --youtube.web.base.url=" + server.getWebBaseUrl());
+
+        CountDownLatch stopped = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.close();
+            stopped.countDown();
+        }));
+        stopped.await();
+    }
+
+    static LatencyDistribution parseLatency(String spec) {
+        String[] parts = spec.split(":", 2);
+        return switch (parts[0]) {
+            case "none" -> LatencyDistribution.none();
+            case "fixed" -> LatencyDistribution.fixed(Long.parseLong(parts[1]));
+            case "uniform" -> {
+                String[] range = parts[1].split("-");
+                yield LatencyDistribution.uniform(Long.parseLong(range[0]), Long.parseLong(range[1]));
+            }
+            case "lognormal" -> {
+                String[] params = parts[1].split(",");
+                yield LatencyDistribution.logNormal(Long.parseLong(params[0]), Double.parseDouble(params[1]));
+            }
+            default -> throw new IllegalArgumentException("Unknown latency distribution " + spec);
+        };
+    }
+}
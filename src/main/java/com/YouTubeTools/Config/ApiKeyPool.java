@@ -0,0 +1,248 @@
+package com.YouTubeTools.Config;
+
+import com.YouTubeTools.Exception.QuotaExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Pool of YouTube Data API keys. Requests are spread over the keys with smooth weighted
+ * round robin, where each key's weight follows its recent success rate. A key that hits
+ * its daily quota or gets rate limited is quarantined for a while and skipped.
+ *
+ * Keys come from {@code youtube.api.keys} (comma separated) plus the single legacy
+ * {@code youtube.api.key}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ApiKeyPool {
+
+    private static final int MAX_WEIGHT = 10;
+    private static final double HEALTH_DECAY = 0.9;
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${youtube.api.keys:}")
+    private String apiKeys;
+
+    @Value("${youtube.api.key:}")
+    private String apiKey;
+
+    @Value("${youtube.api.key-pool.quota-quarantine-minutes:60}")
+    private long quotaQuarantineMinutes;
+
+    @Value("${youtube.api.key-pool.rate-limit-quarantine-seconds:60}")
+    private long rateLimitQuarantineSeconds;
+
+    private final List<KeyState> keys = new ArrayList<>();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    @PostConstruct
+    void init() {
+        Set<String> configured = new LinkedHashSet<>();
+        for (String key : (apiKeys + "," + apiKey).split(",")) {
+            String trimmed = key.trim();
+            if (!trimmed.isEmpty() && !trimmed.equalsIgnoreCase("your_youtube_api_key_here")) {
+                configured.add(trimmed);
+            }
+        }
+
+        for (String key : configured) {
+            KeyState state = new KeyState(key);
+            state.requests = meterRegistry.counter("youtube.api.key.requests", "key", state.label, "outcome", "success");
+            state.failures = meterRegistry.counter("youtube.api.key.requests", "key", state.label, "outcome", "failure");
+            state.throttled = meterRegistry.counter("youtube.api.key.requests", "key", state.label, "outcome", "throttled");
+            keys.add(state);
+        }
+        if (keys.isEmpty()) {
+            log.error("No YouTube API key configured (youtube.api.keys / youtube.api.key); Data API calls will fail");
+        } else {
+            log.info("YouTube API key pool initialised with {} key(s)", keys.size());
+        }
+    }
+
+    public int size() {
+        return keys.size();
+    }
+
+    public boolean hasKeys() {
+        return !keys.isEmpty();
+    }
+
+    public List<String> getKeys() {
+        return keys.stream().map(KeyState::getKey).toList();
+    }
+
+    /**
+     * The first configured key, or null if there is none. Unlike {@link #acquire()} it does
+     * not move the rotation on, so it is safe for validation and status checks.
+     */
+    public String getPrimaryKey() {
+        return keys.isEmpty() ? null : keys.get(0).getKey();
+    }
+
+    /**
+     * Picks the next key to use. Healthy keys are chosen proportionally more often.
+     *
+     * @throws QuotaExceededException if every key is quarantined
+     * @throws IllegalStateException   if no key is configured at all, which waiting cannot fix
+     */
+    public String acquire() {
+        if (keys.isEmpty()) {
+            throw new IllegalStateException("No YouTube API key is configured; set youtube.api.keys or youtube.api.key");
+        }
+        Instant now = Instant.now();
+        lock.lock();
+        try {
+            KeyState best = null;
+            int totalWeight = 0;
+
+            for (KeyState state : keys) {
+                if (state.quarantinedUntil != null && now.isBefore(state.quarantinedUntil)) {
+                    continue;
+                }
+                int weight = state.effectiveWeight();
+                state.currentWeight += weight;
+                totalWeight += weight;
+                if (best == null || state.currentWeight > best.currentWeight) {
+                    best = state;
+                }
+            }
+
+            if (best == null) {
+                Instant soonest = keys.stream()
+                        .map(KeyState::getQuarantinedUntil)
+                        .filter(Objects::nonNull)
+                        .min(Comparator.naturalOrder())
+                        .orElse(now.plusSeconds(60));
+                throw new QuotaExceededException("All YouTube API keys are temporarily exhausted. Please try again later.",
+                        Math.max(1, Duration.between(now, soonest).toSeconds()));
+            }
+
+            best.currentWeight -= totalWeight;
+            return best.key;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void reportSuccess(String key) {
+        KeyState state = find(key);
+        if (state != null) {
+            lock.lock();
+            try {
+                state.health = state.health * HEALTH_DECAY + (1 - HEALTH_DECAY);
+            } finally {
+                lock.unlock();
+            }
+            state.requests.increment();
+        }
+    }
+
+    public void reportFailure(String key) {
+        KeyState state = find(key);
+        if (state != null) {
+            lock.lock();
+            try {
+                state.health = state.health * HEALTH_DECAY;
+            } finally {
+                lock.unlock();
+            }
+            state.failures.increment();
+        }
+    }
+
+    /**
+     * The key has used up its daily quota; bench it for the configured quarantine.
+     */
+    public void reportQuotaExceeded(String key) {
+        quarantine(key, Duration.ofMinutes(quotaQuarantineMinutes), "quota exceeded");
+    }
+
+    /**
+     * The key is being rate limited (HTTP 429); bench it briefly.
+     */
+    public void reportRateLimited(String key) {
+        quarantine(key, Duration.ofSeconds(rateLimitQuarantineSeconds), "rate limited");
+    }
+
+    public List<Map<String, Object>> snapshot() {
+        Instant now = Instant.now();
+        List<Map<String, Object>> snapshot = new ArrayList<>();
+        lock.lock();
+        try {
+            for (KeyState state : keys) {
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("key", state.label);
+                entry.put("health", Math.round(state.health * 100) / 100.0);
+                entry.put("weight", state.effectiveWeight());
+                entry.put("requests", (long) state.requests.count());
+                entry.put("failures", (long) state.failures.count());
+                entry.put("throttled", (long) state.throttled.count());
+                entry.put("quarantined", state.quarantinedUntil != null && now.isBefore(state.quarantinedUntil));
+                snapshot.add(entry);
+            }
+        } finally {
+            lock.unlock();
+        }
+        return snapshot;
+    }
+
+    private void quarantine(String key, Duration duration, String reason) {
+        KeyState state = find(key);
+        if (state == null) {
+            return;
+        }
+        lock.lock();
+        try {
+            state.quarantinedUntil = Instant.now().plus(duration);
+            state.health = state.health * HEALTH_DECAY;
+            state.currentWeight = 0;
+        } finally {
+            lock.unlock();
+        }
+        state.throttled.increment();
+        log.warn("Quarantining YouTube API key {} for {}s: {}", state.label, duration.toSeconds(), reason);
+    }
+
+    private KeyState find(String key) {
+        for (KeyState state : keys) {
+            if (state.key.equals(key)) {
+                return state;
+            }
+        }
+        return null;
+    }
+
+    @Getter
+    static class KeyState {
+        private final String key;
+        private final String label;
+        private double health = 1.0;
+        private int currentWeight;
+        private Instant quarantinedUntil;
+        private Counter requests;
+        private Counter failures;
+        private Counter throttled;
+
+        KeyState(String key) {
+            this.key = key;
+            this.label = "..." + key.substring(Math.max(0, key.length() - 4));
+        }
+
+        int effectiveWeight() {
+            return Math.max(1, (int) Math.round(health * MAX_WEIGHT));
+        }
+    }
+}
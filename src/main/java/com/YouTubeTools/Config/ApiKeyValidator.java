@@ -1,43 +1,49 @@
 package com.YouTubeTools.Config;
 
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 @Slf4j
 @Component
+@RequiredArgsConstructor
 public class ApiKeyValidator {
 
-    @Value("${youtube.api.key}")
-    private String apiKey;
+    private final ApiKeyPool apiKeyPool;
 
     public boolean isApiKeyConfigured() {
-        boolean isValid = apiKey != null &&
-                !apiKey.isEmpty() &&
-                !apiKey.equals("your_youtube_api_key_here") &&
-                apiKey.startsWith("AIza");
+        List<String> keys = apiKeyPool.getKeys();
+        boolean isValid = !keys.isEmpty() && keys.stream().allMatch(key -> key.startsWith("AIza"));
 
         if (!isValid) {
-            log.warn("YouTube API key is not properly configured. Current value: {}",
-                    apiKey != null ? (apiKey.length() > 10 ? apiKey.substring(0, 10) + "..." : apiKey) : "null");
+            log.warn("YouTube API key is not properly configured. Configured keys: {}",
+                    keys.stream().map(this::mask).toList());
         }
 
         return isValid;
     }
 
+    // Calls to YouTube take their key from ApiKeyPool.acquire(); this one only inspects
     public String getApiKey() {
-        return apiKey;
+        return apiKeyPool.getPrimaryKey();
     }
 
     public String getApiKeyStatus() {
-        if (apiKey == null || apiKey.isEmpty()) {
+        List<String> keys = apiKeyPool.getKeys();
+        if (keys.isEmpty()) {
             return "API key is not set";
-        } else if (apiKey.equals("your_youtube_api_key_here")) {
-            return "API key is using default placeholder value";
-        } else if (!apiKey.startsWith("AIza")) {
+        } else if (keys.stream().anyMatch(key -> !key.startsWith("AIza"))) {
             return "API key format appears invalid (should start with 'AIza')";
-        } else {
+        } else if (keys.size() == 1) {
             return "API key appears to be configured correctly";
+        } else {
+            return keys.size() + " API keys appear to be configured correctly";
         }
     }
-}
\ No newline at end of file
+
+    private String mask(String key) {
+        return key.length() > 10 ? key.substring(0, 10) + "..." : key;
+    }
+}
@@ -1,25 +1,93 @@
 package com.YouTubeTools.Config;
 
+import com.YouTubeTools.Model.VideoDetails;
+import com.YouTubeTools.Model.VideoTranscript;
+import com.YouTubeTools.Service.ClusterService;
+import com.YouTubeTools.Service.PopularityTracker;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.cache.CacheManager;
 
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+
 @Configuration
 @EnableCaching
 public class CacheConfig {
 
+    // Caches whose hot keys HotKeyRefresher keeps warm
+    public static final Set<String> POPULARITY_TRACKED = Set.of("videoDetails", "transcripts");
+
+    // Caches split across instances in cluster mode, with the type peers send their values as
+    private static final Map<String, Class<?>> CLUSTERED = Map.of(
+            "videoDetails", VideoDetails.class,
+            "transcripts", VideoTranscript.class);
+
+    @Value("${cache.ttl-minutes:30}")
+    private long ttlMinutes;
+
+    @Value("${cache.max-entries:10000}")
+    private long maxEntries;
+
+    @Value("${cache.transcripts.ttl-minutes:360}")
+    private long transcriptTtlMinutes;
+
+    @Value("${cache.transcripts.max-kilobytes:65536}")
+    private long transcriptMaxKilobytes;
+
+    @Value("${cluster.mirror.max-entries:100}")
+    private long mirrorMaxEntries;
+
+    @Value("${cluster.mirror.ttl-seconds:60}")
+    private long mirrorTtlSeconds;
+
     @Bean
-    public CacheManager cacheManager() {
-        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager();
+    public CacheManager cacheManager(PopularityTracker popularityTracker, ClusterService clusterService) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager() {
+            @Override
+            protected Cache adaptCaffeineCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache) {
+                Cache adapted = super.adaptCaffeineCache(name, cache);
+                if (clusterService.isEnabled() && CLUSTERED.containsKey(name)) {
+                    adapted = new ClusteredCache(adapted, CLUSTERED.get(name), clusterService, popularityTracker,
+                            mirrorMaxEntries, Duration.ofSeconds(mirrorTtlSeconds));
+                }
+                // Outermost, so demand is counted whether the key is answered locally or by a peer
+                return POPULARITY_TRACKED.contains(name) ? new PopularityTrackingCache(adapted, popularityTracker) : adapted;
+            }
+        };
         cacheManager.setAllowNullValues(false);
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .maximumSize(maxEntries)
+                .recordStats());
         // Cache names for different operations
         cacheManager.setCacheNames(java.util.Arrays.asList(
                 "videoDetails",
                 "videoSearch",
                 "thumbnails"
         ));
+        // Transcripts vary from a few KB to several MB, so they are bounded by size, not count
+        cacheManager.registerCustomCache("transcripts", Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMinutes(transcriptTtlMinutes))
+                .maximumWeight(transcriptMaxKilobytes)
+                .weigher((Object key, Object value) -> approximateKilobytes((VideoTranscript) value))
+                .recordStats()
+                .build());
         return cacheManager;
     }
+
+    private static int approximateKilobytes(VideoTranscript transcript) {
+        long bytes = 0;
+        for (VideoTranscript.TranscriptEntry entry : transcript.getTranscriptEntries()) {
+            // Entry object, its formatted time and the text as UTF-16
+            bytes += 96 + 2L * entry.getText().length();
+        }
+        return (int) Math.max(1, bytes / 1024);
+    }
 }
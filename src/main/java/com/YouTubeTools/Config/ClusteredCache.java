@@ -0,0 +1,165 @@
+package com.YouTubeTools.Config;
+
+import com.YouTubeTools.Service.ClusterService;
+import com.YouTubeTools.Service.PopularityTracker;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Routes a cache to the key's owner in cluster mode (see {@link ClusterService}). Owned keys
+ * use the local cache as before. Keys owned elsewhere are fetched from the owner; hot ones
+ * are kept in a small, short-lived mirror so a viral video does not send every request
+ * across the network.
+ *
+ * If the owner cannot be reached the lookup misses, the caller loads the value from YouTube
+ * itself, and the result goes to the mirror. A dead peer degrades to a cold instance, not an
+ * outage.
+ */
+class ClusteredCache implements Cache {
+
+    private final Cache delegate;
+    private final Class<?> valueType;
+    private final ClusterService clusterService;
+    private final PopularityTracker popularityTracker;
+    private final com.github.benmanes.caffeine.cache.Cache<Object, Object> mirror;
+
+    ClusteredCache(Cache delegate, Class<?> valueType, ClusterService clusterService,
+                   PopularityTracker popularityTracker, long mirrorMaxEntries, Duration mirrorTtl) {
+        this.delegate = delegate;
+        this.valueType = valueType;
+        this.clusterService = clusterService;
+        this.popularityTracker = popularityTracker;
+        this.mirror = Caffeine.newBuilder()
+                .maximumSize(mirrorMaxEntries)
+                .expireAfterWrite(mirrorTtl)
+                .build();
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    // The owned entries only; HotKeyRefresher relies on this to refresh just what it owns
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        if (clusterService.isLocal(key)) {
+            return delegate.get(key);
+        }
+        Object mirrored = mirror.getIfPresent(key);
+        if (mirrored != null) {
+            clusterService.recordMirrorHit();
+            return new SimpleValueWrapper(mirrored);
+        }
+        ClusterService.PeerResult result = clusterService.fetchFromOwner(getName(), key, valueType);
+        return switch (result.status()) {
+            case FOUND -> {
+                if (popularityTracker.isHot(getName(), key)) {
+                    mirror.put(key, result.value());
+                }
+                yield new SimpleValueWrapper(result.value());
+            }
+            // The owner looked and found nothing; loading it here again would only repeat that
+            case NOT_FOUND -> new SimpleValueWrapper(null);
+            case FAILED -> null;
+        };
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        if (clusterService.isLocal(key)) {
+            return delegate.get(key, valueLoader);
+        }
+        ValueWrapper wrapper = get(key);
+        if (wrapper != null) {
+            return (T) wrapper.get();
+        }
+        try {
+            T value = valueLoader.call();
+            put(key, value);
+            return value;
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+    }
+
+    @Override
+    public CompletableFuture<?> retrieve(Object key) {
+        return delegate.retrieve(key);
+    }
+
+    @Override
+    public <T> CompletableFuture<T> retrieve(Object key, Supplier<CompletableFuture<T>> valueLoader) {
+        return delegate.retrieve(key, valueLoader);
+    }
+
+    /**
+     * Values for keys owned elsewhere come from a local fallback load; they go to the
+     * mirror so the next request retries the owner once the mirror entry expires.
+     */
+    @Override
+    public void put(Object key, Object value) {
+        if (clusterService.isLocal(key)) {
+            delegate.put(key, value);
+        } else if (value != null) {
+            mirror.put(key, value);
+        }
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        if (clusterService.isLocal(key)) {
+            return delegate.putIfAbsent(key, value);
+        }
+        Object existing = value != null ? mirror.asMap().putIfAbsent(key, value) : mirror.getIfPresent(key);
+        return existing != null ? new SimpleValueWrapper(existing) : null;
+    }
+
+    @Override
+    public void evict(Object key) {
+        mirror.invalidate(key);
+        delegate.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean mirrored = mirror.asMap().remove(key) != null;
+        return delegate.evictIfPresent(key) || mirrored;
+    }
+
+    @Override
+    public void clear() {
+        mirror.invalidateAll();
+        delegate.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean mirrored = !mirror.asMap().isEmpty();
+        mirror.invalidateAll();
+        return delegate.invalidate() || mirrored;
+    }
+}
@@ -0,0 +1,92 @@
+package com.YouTubeTools.Config;
+
+import com.YouTubeTools.Service.AuthTokenService;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.oauth2.client.web.AuthorizationRequestRepository;
+import org.springframework.security.oauth2.core.endpoint.OAuth2AuthorizationRequest;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.time.Duration;
+
+/**
+ * Keeps the in-flight OAuth2 authorization request (state, redirect URI, PKCE verifier) in
+ * a sealed cookie rather than the HttpSession. In stateless mode the callback from Google
+ * may reach a different instance than the one that started the login.
+ */
+@RequiredArgsConstructor
+class CookieAuthorizationRequestRepository implements AuthorizationRequestRepository<OAuth2AuthorizationRequest> {
+
+    static final String COOKIE = "YT_OAUTH2_REQUEST";
+    private static final Duration MAX_AGE = Duration.ofMinutes(5);
+
+    // Checked only after the HMAC, but deserialization is still limited to what the request holds
+    private static final ObjectInputFilter ALLOWED_CLASSES = ObjectInputFilter.Config.createFilter(
+            "org.springframework.security.oauth2.core.**;java.util.*;java.lang.*;!*");
+
+    private final AuthTokenService authTokenService;
+
+    @Override
+    public OAuth2AuthorizationRequest loadAuthorizationRequest(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return null;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE.equals(cookie.getName())) {
+                byte[] data = authTokenService.unseal(cookie.getValue());
+                return data != null ? deserialize(data) : null;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void saveAuthorizationRequest(OAuth2AuthorizationRequest authorizationRequest,
+                                         HttpServletRequest request, HttpServletResponse response) {
+        if (authorizationRequest == null) {
+            clear(response);
+            return;
+        }
+        String sealed = authTokenService.seal(serialize(authorizationRequest));
+        response.addHeader(HttpHeaders.SET_COOKIE, authTokenService.cookie(COOKIE, sealed, MAX_AGE).toString());
+    }
+
+    @Override
+    public OAuth2AuthorizationRequest removeAuthorizationRequest(HttpServletRequest request, HttpServletResponse response) {
+        OAuth2AuthorizationRequest authorizationRequest = loadAuthorizationRequest(request);
+        clear(response);
+        return authorizationRequest;
+    }
+
+    private void clear(HttpServletResponse response) {
+        response.addHeader(HttpHeaders.SET_COOKIE, authTokenService.cookie(COOKIE, "", Duration.ZERO).toString());
+    }
+
+    private static byte[] serialize(OAuth2AuthorizationRequest authorizationRequest) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(authorizationRequest);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot serialize the authorization request", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static OAuth2AuthorizationRequest deserialize(byte[] data) {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(data))) {
+            in.setObjectInputFilter(ALLOWED_CLASSES);
+            return in.readObject() instanceof OAuth2AuthorizationRequest authorizationRequest ? authorizationRequest : null;
+        } catch (IOException | ClassNotFoundException e) {
+            return null;
+        }
+    }
+}
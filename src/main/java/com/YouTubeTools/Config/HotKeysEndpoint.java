@@ -0,0 +1,33 @@
+package com.YouTubeTools.Config;
+
+import com.YouTubeTools.Service.PopularityTracker;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Exposes the most requested keys of each tracked cache at /actuator/hotkeys, and of one
+ * cache at /actuator/hotkeys/{cache}. Hit counts are decayed estimates, not exact totals.
+ */
+@Component
+@Endpoint(id = "hotkeys")
+@RequiredArgsConstructor
+public class HotKeysEndpoint {
+
+    private final PopularityTracker popularityTracker;
+
+    @ReadOperation
+    public Map<String, List<PopularityTracker.HotKey>> hotKeys() {
+        return popularityTracker.snapshot();
+    }
+
+    @ReadOperation
+    public List<PopularityTracker.HotKey> hotKeys(@Selector String cache) {
+        return popularityTracker.topK(cache);
+    }
+}
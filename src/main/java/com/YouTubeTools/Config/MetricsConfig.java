@@ -0,0 +1,13 @@
+package com.YouTubeTools.Config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+
+/**
+ * Default actuator and metrics settings (see metrics-defaults.properties). They sit below
+ * application.properties in precedence, so deployments can still override any of them.
+ */
+@Configuration
+@PropertySource("classpath:metrics-defaults.properties")
+public class MetricsConfig {
+}
@@ -0,0 +1,89 @@
+package com.YouTubeTools.Config;
+
+import com.YouTubeTools.Service.ClientRateLimiter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rate limits the endpoints that cost us YouTube quota or downloader processes.
+ * Anonymous routes are limited per client IP; transcript routes, which require sign-in,
+ * are limited per OAuth2 principal.
+ *
+ * Runs inside the security chain (see {@link SecurityConfig}) so the principal is known.
+ * The client IP is {@link HttpServletRequest#getRemoteAddr()}; behind a proxy, enable
+ * {@code server.forward-headers-strategy} so that it reflects the real client.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final List<String> LIMITED_PATHS = List.of(
+            "/get-download-links", "/download-video", "/download-stream", "/get-thumbnail",
+            "/youtube/video-details", "/api/youtube/**", "/api/youtube-tag/**", "/api/transcript/**",
+            "/api/download/**");
+
+    // Cheap reads that clients poll or call per keystroke; limiting them would only break the UI
+    private static final List<String> EXEMPT_PATHS = List.of(
+            "/api/transcript/status", "/api/download/jobs/*", "/api/download/jobs/*/events",
+            "/api/youtube-tag/suggest");
+
+    private static final String TRANSCRIPT_PATHS = "/api/transcript/**";
+
+    private final ClientRateLimiter rateLimiter;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getServletPath();
+        return matchesAny(EXEMPT_PATHS, path) || !matchesAny(LIMITED_PATHS, path);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        boolean signedIn = authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken);
+        boolean byPrincipal = signedIn && pathMatcher.match(TRANSCRIPT_PATHS, request.getServletPath());
+
+        String clientKey = byPrincipal ? authentication.getName() : request.getRemoteAddr();
+        long waitNanos = rateLimiter.tryAcquire(clientKey, byPrincipal);
+        if (waitNanos == 0) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        long retryAfter = Math.max(1, (long) Math.ceil(waitNanos / (double) TimeUnit.SECONDS.toNanos(1)));
+        log.debug("Rate limited {} on {} for {}s", clientKey, request.getServletPath(), retryAfter);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"error\":true,\"message\":\"Too many requests. Please try again in "
+                + retryAfter + " seconds.\"}");
+    }
+
+    private boolean matchesAny(List<String> patterns, String path) {
+        for (String pattern : patterns) {
+            if (pathMatcher.match(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -1,5 +1,7 @@
 package com.YouTubeTools.Config;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.http.client.ClientHttpRequestFactoryBuilder;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -10,9 +12,18 @@ import java.time.Duration;
 @Configuration
 public class RestTemplateConfig {
 
+    // HttpClient's default pool (5 per route) would cap concurrent transcript fetches long
+    // before request threads run out, virtual or not
+    @Value("${youtube.http.max-connections:200}")
+    private int maxConnections;
+
     @Bean
     public RestTemplate restTemplate(RestTemplateBuilder builder) {
         return builder
+                .requestFactoryBuilder(ClientHttpRequestFactoryBuilder.httpComponents()
+                        .withConnectionManagerCustomizer(connectionManager -> connectionManager
+                                .setMaxConnTotal(maxConnections)
+                                .setMaxConnPerRoute(maxConnections)))
                 .connectTimeout(Duration.ofSeconds(10))   // use connectTimeout()
                 .readTimeout(Duration.ofSeconds(30))      // use readTimeout()
                 .build();
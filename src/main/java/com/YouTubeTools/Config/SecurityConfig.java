@@ -1,10 +1,17 @@
 package com.YouTubeTools.Config;
 
+import com.YouTubeTools.Service.AuthTokenService;
+import com.YouTubeTools.Service.ClientRateLimiter;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.web.DefaultRedirectStrategy;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.AnonymousAuthenticationFilter;
+import org.springframework.security.web.context.RequestAttributeSecurityContextRepository;
+import org.springframework.security.web.savedrequest.NullRequestCache;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -16,15 +23,19 @@ import java.util.Arrays;
 public class SecurityConfig {
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, ClientRateLimiter rateLimiter,
+                                                   AuthTokenService authTokenService) throws Exception {
         http
+                .addFilterAfter(new RateLimitFilter(rateLimiter), AnonymousAuthenticationFilter.class)
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .csrf(csrf -> csrf.disable()) // Disable CSRF for API endpoints
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/", "/home", "/static/**", "/login**", "/error", "/oauth2/**", "/login/oauth2/**").permitAll()
-                        .requestMatchers("/thumbnail", "/download", "/get-thumbnail", "/get-download-links", "/download-video").permitAll()
+                        .requestMatchers("/thumbnail", "/download", "/get-thumbnail", "/get-download-links", "/download-video", "/download-stream", "/api/download/**").permitAll()
                         .requestMatchers("/video-details", "/youtube/video-details", "/api/youtube/**", "/tags").permitAll()
                         .requestMatchers("/api/transcript/status").permitAll() // Allow checking auth status
+                        .requestMatchers("/actuator/health", "/actuator/health/**", "/actuator/prometheus").permitAll() // Health checks and metrics scraping
+                        .requestMatchers("/internal/cluster/**").permitAll() // Peer cache lookups; ClusterPeerController checks the cluster secret
                         .requestMatchers("/transcript", "/api/transcript/**").authenticated() // Require auth for transcript features
                         .anyRequest().authenticated()
                 )
@@ -36,13 +47,39 @@ public class SecurityConfig {
                 .logout(logout -> logout
                         .logoutSuccessUrl("/")
                         .invalidateHttpSession(true)
-                        .deleteCookies("JSESSIONID")
+                        .deleteCookies("JSESSIONID", AuthTokenService.TOKEN_COOKIE)
                         .permitAll()
                 );
 
+        if (authTokenService.isEnabled()) {
+            configureStateless(http, authTokenService);
+        }
+
         return http.build();
     }
 
+    /**
+     * Stateless mode: no HttpSession at all. Identity lives in a signed cookie issued on login
+     * and checked on every request, and the OAuth2 handshake state lives in a sealed cookie.
+     * Any instance can then serve any request without sticky sessions.
+     */
+    private void configureStateless(HttpSecurity http, AuthTokenService authTokenService) throws Exception {
+        DefaultRedirectStrategy redirectStrategy = new DefaultRedirectStrategy();
+        http
+                .addFilterBefore(new SignedTokenAuthenticationFilter(authTokenService), AnonymousAuthenticationFilter.class)
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .securityContext(context -> context.securityContextRepository(new RequestAttributeSecurityContextRepository()))
+                .requestCache(cache -> cache.requestCache(new NullRequestCache()))
+                .oauth2Login(oauth2 -> oauth2
+                        .authorizationEndpoint(endpoint -> endpoint
+                                .authorizationRequestRepository(new CookieAuthorizationRequestRepository(authTokenService)))
+                        .successHandler((request, response, authentication) -> {
+                            authTokenService.issue(authentication, response);
+                            redirectStrategy.sendRedirect(request, response, "/transcript");
+                        })
+                );
+    }
+
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration configuration = new CorsConfiguration();
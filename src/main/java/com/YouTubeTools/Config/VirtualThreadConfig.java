@@ -0,0 +1,70 @@
+package com.YouTubeTools.Config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Threading mode for blocking upstream work. {@code spring.threads.virtual.enabled=true}
+ * switches Tomcat's request threads (and with them the blocking RestTemplate / WebClient
+ * calls and transcript fallbacks made on them) to virtual threads; this class puts the
+ * per-request fan-out and transcript streams on the same footing.
+ *
+ * State shared on these paths is guarded with ReentrantLock rather than
+ * {@code synchronized}, since a virtual thread blocked on a monitor pins its carrier;
+ * {@link VirtualThreadPinningMonitor} reports any pinning that remains.
+ */
+@Slf4j
+@Configuration
+public class VirtualThreadConfig {
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Value("${youtube.fan-out.platform-threads:16}")
+    private int platformThreads;
+
+    @Value("${transcript.stream.platform-threads:32}")
+    private int streamPlatformThreads;
+
+    /**
+     * Runs independent upstream calls for one request concurrently, e.g. the related
+     * videos of a search. A virtual thread per call in virtual mode; otherwise a fixed pool
+     * so a burst of searches cannot create an unbounded number of platform threads.
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService upstreamFanOutExecutor() {
+        if (virtualThreads) {
+            log.info("Running request handling and upstream fan-out on virtual threads");
+        } else {
+            log.info("Running upstream fan-out on {} platform threads", platformThreads);
+        }
+        return executor("upstream-fanout-", platformThreads);
+    }
+
+    /**
+     * Feeds transcript SSE streams, which outlive the request thread that opened them.
+     * Kept apart from the fan-out pool so long transcripts cannot starve searches.
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService transcriptStreamExecutor() {
+        return executor("transcript-stream-", streamPlatformThreads);
+    }
+
+    private ExecutorService executor(String namePrefix, int platformThreadCount) {
+        if (virtualThreads) {
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(namePrefix, 0).factory());
+        }
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newFixedThreadPool(platformThreadCount, runnable -> {
+            Thread thread = new Thread(runnable, namePrefix + counter.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
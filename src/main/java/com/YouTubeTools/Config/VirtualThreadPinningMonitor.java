@@ -0,0 +1,103 @@
+package com.YouTubeTools.Config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Watches for virtual threads that block while pinned to their carrier (inside a
+ * {@code synchronized} block or a native frame), which quietly turns a virtual thread
+ * back into a platform thread. Uses the JDK's own {@code jdk.VirtualThreadPinned} JFR
+ * event, so it costs nothing until a pin longer than the threshold happens.
+ *
+ * Every pin is timed in {@code jvm.threads.virtual.pinned}; each distinct stack is
+ * logged once at WARN so the offending lock can be found.
+ */
+@Slf4j
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+@RequiredArgsConstructor
+public class VirtualThreadPinningMonitor {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int MAX_REPORTED_STACKS = 500;
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${threads.virtual.pinned-threshold-ms:20}")
+    private long thresholdMs;
+
+    @Value("${threads.virtual.pinned-stack-depth:15}")
+    private int stackDepth;
+
+    private final Set<String> reportedStacks = ConcurrentHashMap.newKeySet();
+    private Timer pinned;
+    private RecordingStream stream;
+
+    @PostConstruct
+    void start() {
+        pinned = Timer.builder("jvm.threads.virtual.pinned")
+                .description("Virtual threads that blocked while pinned to their carrier thread")
+                .register(meterRegistry);
+        try {
+            stream = new RecordingStream();
+            stream.enable(PINNED_EVENT).withThreshold(Duration.ofMillis(thresholdMs)).withStackTrace();
+            stream.onEvent(PINNED_EVENT, this::onPinned);
+            stream.startAsync();
+            log.info("Reporting virtual thread pins longer than {}ms", thresholdMs);
+        } catch (RuntimeException e) {
+            // JFR can be missing or disabled in some runtimes; pinning then goes unreported
+            log.warn("Virtual thread pinning detection unavailable: {}", e.getMessage());
+            stream = null;
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinned.record(event.getDuration());
+        if (event.getStackTrace() == null) {
+            return;
+        }
+
+        List<RecordedFrame> frames = event.getStackTrace().getFrames();
+        StringBuilder stack = new StringBuilder();
+        for (int i = 0; i < Math.min(stackDepth, frames.size()); i++) {
+            RecordedFrame frame = frames.get(i);
+            stack.append("\n    at ")
+                    .append(frame.getMethod().getType().getName())
+                    .append('.')
+                    .append(frame.getMethod().getName())
+                    .append(':')
+                    .append(frame.getLineNumber());
+        }
+
+        String key = stack.toString();
+        if (reportedStacks.size() < MAX_REPORTED_STACKS && reportedStacks.add(key)) {
+            log.warn("Virtual thread {} pinned for {}ms{}", event.getThread() != null
+                    ? event.getThread().getJavaName() : "?", event.getDuration().toMillis(), key);
+        } else {
+            log.debug("Virtual thread pinned for {}ms{}", event.getDuration().toMillis(), key);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.YouTubeTools.Config;
+
+import com.YouTubeTools.Service.QuotaGovernor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Exposes the live YouTube API quota budget at /actuator/youtubequota.
+ */
+@Component
+@Endpoint(id = "youtubequota")
+@RequiredArgsConstructor
+public class YouTubeQuotaEndpoint {
+
+    private final QuotaGovernor quotaGovernor;
+    private final ApiKeyPool apiKeyPool;
+
+    @ReadOperation
+    public Map<String, Object> quota() {
+        Map<String, Object> quota = new LinkedHashMap<>(quotaGovernor.snapshot());
+        quota.put("keys", apiKeyPool.snapshot());
+        return quota;
+    }
+}
@@ -0,0 +1,61 @@
+package com.YouTubeTools.Controller;
+
+import com.YouTubeTools.Model.ContentHashed;
+import com.YouTubeTools.Service.ClusterService;
+import com.YouTubeTools.Service.TranscriptService;
+import com.YouTubeTools.Service.YouTubeService;
+import com.YouTubeTools.Util.ETagUtil;
+import com.YouTubeTools.Util.ValidationUtil;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Answers cache lookups from other instances in cluster mode. The value is loaded through
+ * this instance's own cache, so concurrent peers asking for the same video share one
+ * upstream call. Not for browsers: requests must carry the shared cluster secret.
+ */
+@RestController
+@RequestMapping("/internal/cluster/cache")
+@RequiredArgsConstructor
+public class ClusterPeerController {
+
+    private final ClusterService clusterService;
+    private final YouTubeService youTubeService;
+    private final TranscriptService transcriptService;
+
+    @GetMapping("/{cacheName}")
+    public ResponseEntity<?> get(@PathVariable String cacheName,
+                                 @RequestParam String key,
+                                 @RequestHeader(value = ClusterService.SECRET_HEADER, required = false) String secret) {
+        if (!clusterService.isEnabled()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (!clusterService.isPeerSecret(secret)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        String videoId = key.contains(":") ? key.substring(0, key.indexOf(':')) : key;
+        if (!ValidationUtil.isValidYouTubeVideoId(videoId)) {
+            return ResponseEntity.badRequest().build();
+        }
+        Object value = switch (cacheName) {
+            case "videoDetails" -> clusterService.serveAsOwner(() -> youTubeService.getVideoDetails(videoId));
+            case "transcripts" -> {
+                String language = key.substring(key.indexOf(':') + 1);
+                yield clusterService.serveAsOwner(() -> transcriptService.getTranscript(videoId, language));
+            }
+            default -> null;
+        };
+
+        if (value == null) {
+            return ResponseEntity.notFound().build();
+        }
+        // The hash is not in the JSON; the peer restores it from the ETag
+        if (value instanceof ContentHashed hashed && hashed.getContentHash() != null) {
+            return ResponseEntity.ok().eTag(ETagUtil.strongETag(hashed.getContentHash())).body(value);
+        }
+        return ResponseEntity.ok(value);
+    }
+}
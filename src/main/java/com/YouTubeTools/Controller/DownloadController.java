@@ -1,9 +1,19 @@
 package com.YouTubeTools.Controller;
 
+import com.YouTubeTools.Exception.DownloadLimitExceededException;
+import com.YouTubeTools.Exception.QuotaExceededException;
+import com.YouTubeTools.Exception.UpstreamUnavailableException;
+import com.YouTubeTools.Model.FormatManifest;
+import com.YouTubeTools.Model.ProcessStats;
+import com.YouTubeTools.Service.DownloaderCommandFactory;
+import com.YouTubeTools.Service.FormatManifestService;
+import com.YouTubeTools.Service.ProcessExecutionService;
 import com.YouTubeTools.Service.ThumbnailService;
 import com.YouTubeTools.Service.YouTubeService;
+import com.YouTubeTools.Util.ValidationUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.InputStreamResource;
 import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
@@ -12,10 +22,18 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.*;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @Controller
 @RequiredArgsConstructor
@@ -25,6 +43,15 @@ public class DownloadController {
     private final ThumbnailService thumbnailService;
     private final YouTubeService youTubeService;
     private final WebClient.Builder webClientBuilder;
+    private final ProcessExecutionService processExecutionService;
+    private final DownloaderCommandFactory commandFactory;
+    private final FormatManifestService formatManifestService;
+
+    // The only height YouTube reliably still serves as a single audio+video file
+    private static final String PROGRESSIVE_FALLBACK_QUALITY = "360p";
+
+    @Value("${download.stream.timeout-minutes:20}")
+    private long streamTimeoutMinutes;
 
     @GetMapping("/download")
     public String showDownloadPage() {
@@ -41,27 +68,45 @@ public class DownloadController {
                         .body(Map.of("error", "Invalid YouTube URL or video ID"));
             }
 
-            // Get video details
-            var videoDetails = youTubeService.getVideoDetails(videoId);
-            if (videoDetails == null) {
-                return ResponseEntity.badRequest()
-                        .body(Map.of("error", "Video not found or unavailable"));
-            }
-
-            // Generate safe download options (no external YouTube page parsing)
-            List<Map<String, Object>> downloadOptions = generateSafeDownloadOptions(videoId);
-
             Map<String, Object> response = new HashMap<>();
             response.put("videoId", videoId);
-            response.put("title", videoDetails.getTitle());
-            response.put("thumbnail", videoDetails.getThumbnailUrl());
-            response.put("channelTitle", videoDetails.getChannelTitle());
             response.put("youtubeUrl", "https://www.youtube.com/watch?v=" + videoId);
+
+            // Real stream list from the downloader backend (cached, refreshed in the background)
+            FormatManifest manifest = formatManifestService.getManifest(videoId);
+            List<Map<String, Object>> downloadOptions;
+
+            if (manifest != null && !manifest.getFormats().isEmpty()) {
+                downloadOptions = generateManifestDownloadOptions(manifest);
+                response.put("title", manifest.getTitle());
+                response.put("thumbnail", manifest.getThumbnailUrl());
+                response.put("channelTitle", manifest.getChannelTitle());
+            } else {
+                // Backend unavailable: fall back to API details and the generic option matrix
+                var videoDetails = youTubeService.getVideoDetails(videoId);
+                if (videoDetails == null) {
+                    return ResponseEntity.badRequest()
+                            .body(Map.of("error", "Video not found or unavailable"));
+                }
+                downloadOptions = generateSafeDownloadOptions(videoId);
+                response.put("title", videoDetails.getTitle());
+                response.put("thumbnail", videoDetails.getThumbnailUrl());
+                response.put("channelTitle", videoDetails.getChannelTitle());
+            }
+
             response.put("downloadOptions", downloadOptions);
 
-            log.info("Generated {} download options for video: {}", downloadOptions.size(), videoDetails.getTitle());
+            log.info("Generated {} download options for video: {}", downloadOptions.size(), response.get("title"));
             return ResponseEntity.ok(response);
 
+        } catch (QuotaExceededException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body(Map.of("error", e.getMessage()));
+        } catch (UpstreamUnavailableException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body(Map.of("error", "YouTube is not responding right now. Please try again shortly."));
         } catch (Exception e) {
             log.error("Error getting download links for: {}", videoUrlOrId, e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -107,6 +152,154 @@ public class DownloadController {
         }
     }
 
+    /**
+     * Pipes the downloader's stdout straight into the response while it is being produced,
+     * so nothing is staged on disk. Formats that need post-processing go through /api/download/jobs.
+     */
+    @GetMapping("/download-stream")
+    public ResponseEntity<StreamingResponseBody> streamVideo(
+            @RequestParam String videoId,
+            @RequestParam String quality,
+            @RequestParam String format,
+            WebRequest webRequest) {
+
+        if (!ValidationUtil.isValidYouTubeVideoId(videoId) || !quality.matches("[0-9]{2,4}(p|kbps)")
+                || !format.matches("[a-z0-9]{2,4}") || !commandFactory.isStreamable(format)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        List<String> command = commandFactory.streamDownload(videoId, quality, format);
+        // The slot is taken before anything is written, while a busy server can still answer 503
+        ProcessExecutionService.Slot slot;
+        try {
+            slot = processExecutionService.reserveSlot(command);
+        } catch (DownloadLimitExceededException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "30")
+                    .build();
+        }
+
+        // Whoever claims the slot releases it: the body by running, or the async completion
+        // callback if the request ends (client gone, timeout, rejected dispatch) before it ran
+        AtomicBoolean claimed = new AtomicBoolean();
+        WebAsyncUtils.getAsyncManager(webRequest).registerCallableInterceptor(slot, new CallableProcessingInterceptor() {
+            @Override
+            public <T> void afterCompletion(NativeWebRequest request, Callable<T> task) {
+                if (claimed.compareAndSet(false, true)) {
+                    slot.close();
+                }
+            }
+        });
+
+        StreamingResponseBody body = outputStream -> {
+            if (!claimed.compareAndSet(false, true)) {
+                return;
+            }
+            ProcessStats stats = processExecutionService.stream(slot, command, Duration.ofMinutes(streamTimeoutMinutes),
+                    outputStream, line -> log.debug("[{}] {}", videoId, line));
+            if (!stats.isSuccessful()) {
+                log.warn("Streaming {} {} {} ended early: exit={}, timedOut={}, aborted={}",
+                        videoId, quality, format, stats.getExitCode(), stats.isTimedOut(), stats.isAborted());
+            }
+        };
+
+        String filename = videoId + "_" + quality + "." + format;
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .contentType(MediaType.parseMediaType(getContentType(format)))
+                .body(body);
+    }
+
+    private List<Map<String, Object>> generateManifestDownloadOptions(FormatManifest manifest) {
+        Map<String, FormatManifest.StreamFormat> bestVideo = new LinkedHashMap<>();
+        Map<String, FormatManifest.StreamFormat> bestAudio = new LinkedHashMap<>();
+        Map<String, FormatManifest.StreamFormat> bestAudioByExt = new HashMap<>();
+
+        // Keep the highest bitrate stream per (quality, container)
+        for (FormatManifest.StreamFormat format : manifest.getFormats()) {
+            if (format.hasVideo() && format.getHeight() != null) {
+                bestVideo.merge(format.getHeight() + "p:" + format.getExt(), format, this::higherBitrate);
+            } else if (format.hasAudio() && !format.hasVideo() && audioQualityOf(format) != null) {
+                bestAudio.merge(audioQualityOf(format) + ":" + format.getExt(), format, this::higherBitrate);
+                bestAudioByExt.merge(format.getExt(), format, this::higherBitrate);
+            }
+        }
+
+        List<Map<String, Object>> options = new ArrayList<>();
+
+        for (FormatManifest.StreamFormat format : bestVideo.values()) {
+            Long sizeBytes = format.getSizeBytes();
+            boolean exact = format.isSizeExact();
+
+            // Video-only streams are merged with the best audio track of the matching container
+            if (!format.hasAudio()) {
+                FormatManifest.StreamFormat audio = bestAudioByExt.get(format.getExt().equals("mp4") ? "m4a" : format.getExt());
+                if (audio != null && audio.getSizeBytes() != null && sizeBytes != null) {
+                    sizeBytes += audio.getSizeBytes();
+                    exact &= audio.isSizeExact();
+                }
+            }
+
+            FormatManifest.StreamFormat merged = FormatManifest.StreamFormat.builder()
+                    .sizeBytes(sizeBytes)
+                    .sizeExact(exact)
+                    .build();
+            options.add(manifestOption("video", format.getHeight() + "p", format, merged, manifest.getVideoId(),
+                    format.hasAudio()));
+        }
+
+        for (FormatManifest.StreamFormat format : bestAudio.values()) {
+            options.add(manifestOption("audio", audioQualityOf(format), format, format, manifest.getVideoId(), true));
+        }
+
+        return options;
+    }
+
+    private Map<String, Object> manifestOption(String type, String quality, FormatManifest.StreamFormat format,
+                                               FormatManifest.StreamFormat size, String videoId, boolean singleFile) {
+        Map<String, Object> option = new HashMap<>();
+        option.put("type", type);
+        option.put("quality", quality);
+        option.put("format", format.getExt());
+        option.put("size", size.getFormattedSize());
+        option.put("sizeBytes", size.getSizeBytes());
+        option.put("bitrateKbps", format.getBitrateKbps());
+        option.put("videoCodec", format.getVideoCodec());
+        option.put("audioCodec", format.getAudioCodec());
+        option.put("fps", format.getFps());
+        option.put("videoId", videoId);
+        option.put("downloadUrl", singleFile ? downloadUrlFor(videoId, quality, format.getExt()) : null);
+        return option;
+    }
+
+    /**
+     * Direct link for an option: /download-stream for formats that can be piped as they are
+     * produced, null for those that need post-processing and are only offered through
+     * /api/download/jobs. Callers pass only options that exist as a single file; a
+     * video-only stream would otherwise be swapped for a lower progressive one.
+     */
+    private String downloadUrlFor(String videoId, String quality, String format) {
+        if (!commandFactory.isStreamable(format)) {
+            return null;
+        }
+        return "/download-stream?videoId=" + videoId + "&quality=" + quality + "&format=" + format;
+    }
+
+    // Null when the manifest has no bitrate, since /download-stream needs a real one
+    private String audioQualityOf(FormatManifest.StreamFormat format) {
+        Double bitrate = format.getAudioBitrateKbps() != null ? format.getAudioBitrateKbps() : format.getBitrateKbps();
+        if (bitrate == null || Math.round(bitrate) <= 0) {
+            return null;
+        }
+        return Math.round(bitrate) + "kbps";
+    }
+
+    private FormatManifest.StreamFormat higherBitrate(FormatManifest.StreamFormat a, FormatManifest.StreamFormat b) {
+        double rateA = a.getBitrateKbps() != null ? a.getBitrateKbps() : 0;
+        double rateB = b.getBitrateKbps() != null ? b.getBitrateKbps() : 0;
+        return rateB > rateA ? b : a;
+    }
+
     private List<Map<String, Object>> generateSafeDownloadOptions(String videoId) {
         List<Map<String, Object>> options = new ArrayList<>();
 
@@ -127,8 +320,9 @@ public class DownloadController {
             videoOption.put("format", option[1]);
             videoOption.put("size", option[2]);
             videoOption.put("videoId", videoId);
-            videoOption.put("downloadUrl", "/download-video?videoId=" + videoId +
-                    "&quality=" + option[0] + "&format=" + option[1]);
+            // Without a manifest the other heights may exist only as video-only streams that need merging
+            videoOption.put("downloadUrl", option[0].equals(PROGRESSIVE_FALLBACK_QUALITY)
+                    ? downloadUrlFor(videoId, option[0], option[1]) : null);
             options.add(videoOption);
         }
 
@@ -148,8 +342,7 @@ public class DownloadController {
             audioOption.put("format", option[1]);
             audioOption.put("size", option[2]);
             audioOption.put("videoId", videoId);
-            audioOption.put("downloadUrl", "/download-video?videoId=" + videoId +
-                    "&quality=" + option[0] + "&format=" + option[1]);
+            audioOption.put("downloadUrl", downloadUrlFor(videoId, option[0], option[1]));
             options.add(audioOption);
         }
 
@@ -0,0 +1,89 @@
+package com.YouTubeTools.Controller;
+
+import com.YouTubeTools.Exception.DownloadLimitExceededException;
+import com.YouTubeTools.Model.DownloadJob;
+import com.YouTubeTools.Service.DownloadJobService;
+import com.YouTubeTools.Util.ValidationUtil;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.nio.file.Path;
+import java.security.Principal;
+import java.util.Map;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/download/jobs")
+@RequiredArgsConstructor
+public class DownloadJobController {
+
+    private final DownloadJobService downloadJobService;
+
+    @PostMapping
+    public ResponseEntity<?> submitJob(@RequestBody Map<String, String> request,
+                                       Principal principal,
+                                       HttpServletRequest httpRequest) {
+        String videoId = request.get("videoId");
+        String quality = request.get("quality");
+        String format = request.get("format");
+
+        if (!ValidationUtil.isValidYouTubeVideoId(videoId) || quality == null || format == null
+                || !quality.matches("[0-9]{2,4}(p|kbps)") || !format.matches("[a-z0-9]{2,4}")) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "A valid videoId, quality and format are required"));
+        }
+
+        try {
+            String owner = principal != null ? principal.getName() : httpRequest.getRemoteAddr();
+            DownloadJob job = downloadJobService.submit(owner, videoId.trim(), quality, format);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+
+        } catch (DownloadLimitExceededException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/{jobId}")
+    public ResponseEntity<?> getJob(@PathVariable String jobId) {
+        DownloadJob job = downloadJobService.getJob(jobId);
+        if (job == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(job);
+    }
+
+    @GetMapping(path = "/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamJobEvents(@PathVariable String jobId) {
+        SseEmitter emitter = downloadJobService.subscribe(jobId);
+        if (emitter == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(emitter);
+    }
+
+    @GetMapping("/{jobId}/file")
+    public ResponseEntity<Resource> downloadJobFile(@PathVariable String jobId) {
+        DownloadJob job = downloadJobService.getJob(jobId);
+        Path file = downloadJobService.getCompletedFile(jobId);
+        if (job == null || file == null) {
+            return ResponseEntity.status(HttpStatus.GONE).build();
+        }
+
+        String filename = job.getVideoId() + "_" + job.getQuality() + "." + job.getFormat();
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .body(new FileSystemResource(file));
+    }
+}
@@ -1,19 +1,37 @@
 package com.YouTubeTools.Controller;
 
+import com.YouTubeTools.Model.CompactTranscript;
+import com.YouTubeTools.Model.TranscriptBundle;
+import com.YouTubeTools.Model.TranscriptEntriesView;
+import com.YouTubeTools.Model.TranscriptView;
 import com.YouTubeTools.Model.VideoTranscript;
 import com.YouTubeTools.Service.TranscriptService;
+import com.YouTubeTools.Util.ETagUtil;
+import com.YouTubeTools.Util.ValidationUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -22,8 +40,17 @@ import java.util.regex.Pattern;
 @RequiredArgsConstructor
 public class TranscriptController {
 
+    private static final long STREAM_TIMEOUT_MS = 120_000;
+    private static final String NO_TRANSCRIPT_MESSAGE = "No transcript available for this video. The video may not have captions enabled, may be private/restricted, or transcripts may be disabled.";
+
     private final TranscriptService transcriptService;
+    private final ExecutorService transcriptStreamExecutor;
+
+    @Value("${transcript.stream.chunk-size:50}")
+    private int chunkSize;
 
+    @Value("${transcript.bundle.max-languages:5}")
+    private int maxBundleLanguages;
 
     @GetMapping("/transcript")
     public String showTranscriptPage() {
@@ -66,9 +93,15 @@ public class TranscriptController {
         }
     }
 
+    /**
+     * Fetches a transcript in the shape given by {@code view} (body field or query
+     * parameter): full, summary, entries or compact; see {@link TranscriptView}. Responds
+     * in JSON, Smile or CBOR depending on the Accept header.
+     */
     @PostMapping("/api/transcript/fetch")
     @ResponseBody
-    public ResponseEntity<?> fetchTranscript(@RequestBody Map<String, String> request) {
+    public ResponseEntity<?> fetchTranscript(@RequestBody Map<String, String> request,
+                                             @RequestParam(name = "view", required = false) String viewParam) {
         try {
             // Check authentication first
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
@@ -85,6 +118,13 @@ public class TranscriptController {
 
             String videoUrlOrId = request.get("videoUrlOrId");
             String language = request.getOrDefault("language", "en");
+            TranscriptView view = TranscriptView.from(viewParam != null ? viewParam : request.get("view"));
+            if (view == null) {
+                return ResponseEntity.badRequest().body(Map.of(
+                        "success", false,
+                        "message", "view must be one of full, summary, entries or compact"
+                ));
+            }
 
             if (videoUrlOrId == null || videoUrlOrId.trim().isEmpty()) {
                 return ResponseEntity.badRequest().body(Map.of(
@@ -110,27 +150,14 @@ public class TranscriptController {
                     transcript.getTranscriptEntries().isEmpty()) {
                 return ResponseEntity.ok(Map.of(
                         "success", false,
-                        "message", "No transcript available for this video. The video may not have captions enabled, may be private/restricted, or transcripts may be disabled."
+                        "message", NO_TRANSCRIPT_MESSAGE
                 ));
             }
 
-            // Add full transcript text if not already present
-            if (transcript.getFullText() == null || transcript.getFullText().isEmpty()) {
-                String fullText = transcript.getTranscriptEntries().stream()
-                        .map(VideoTranscript.TranscriptEntry::getText)
-                        .reduce("", (a, b) -> a + " " + b)
-                        .trim();
-                transcript.setFullText(fullText);
-            }
-
             log.info("Successfully fetched transcript for video: {} with {} entries",
                     videoId, transcript.getTranscriptEntries().size());
 
-            return ResponseEntity.ok(Map.of(
-                    "success", true,
-                    "data", transcript,
-                    "videoId", videoId
-            ));
+            return ResponseEntity.ok(render(videoId, transcript, view));
 
         } catch (Exception e) {
             log.error("Error fetching transcript: ", e);
@@ -141,6 +168,247 @@ public class TranscriptController {
         }
     }
 
+    /**
+     * Cacheable variant of {@code POST /api/transcript/fetch} with the same body. Responses
+     * carry a strong ETag per view and wire format, taken from the hash stored with the
+     * cached transcript, so a client re-checking a transcript it already has gets a 304
+     * with nothing serialized. {@code no-cache} makes clients revalidate every time.
+     */
+    @GetMapping("/api/transcript/{videoId}")
+    @ResponseBody
+    public ResponseEntity<?> getTranscript(@PathVariable String videoId,
+                                           @RequestParam(defaultValue = "en") String language,
+                                           @RequestParam(required = false) String view,
+                                           @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                           Authentication authentication,
+                                           WebRequest webRequest) {
+        if (authentication == null || !authentication.isAuthenticated()
+                || "anonymousUser".equals(authentication.getName())) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of(
+                    "success", false,
+                    "message", "Authentication required. Please login with Google."
+            ));
+        }
+        TranscriptView transcriptView = TranscriptView.from(view);
+        if (!ValidationUtil.isValidYouTubeVideoId(videoId) || transcriptView == null
+                || !ValidationUtil.isValidLanguageCode(language)) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "success", false,
+                    "message", "A valid video ID, language and view are required"
+            ));
+        }
+
+        VideoTranscript transcript = transcriptService.getTranscript(videoId, language);
+        if (transcript == null || transcript.getContentHash() == null) {
+            return ResponseEntity.ok(Map.of(
+                    "success", false,
+                    "message", NO_TRANSCRIPT_MESSAGE
+            ));
+        }
+
+        String eTag = ETagUtil.strongETag(transcript.getContentHash(),
+                transcriptView.name().toLowerCase(), ETagUtil.wireFormat(accept));
+        // Answer If-None-Match before the view is built, so a revalidation costs nothing but the lookup
+        if (webRequest.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(eTag)
+                    .cacheControl(CacheControl.noCache().cachePrivate())
+                    .varyBy(HttpHeaders.ACCEPT)
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(render(videoId, transcript, transcriptView));
+    }
+
+    /**
+     * Several languages of one video side by side, e.g. {@code ?languages=ja,en} for the
+     * original next to the English captions. Rows follow the first language found; see
+     * {@link TranscriptBundle}.
+     */
+    @GetMapping("/api/transcript/{videoId}/bundle")
+    @ResponseBody
+    public ResponseEntity<?> getTranscriptBundle(@PathVariable String videoId,
+                                                 @RequestParam List<String> languages,
+                                                 Authentication authentication) {
+        if (authentication == null || !authentication.isAuthenticated()
+                || "anonymousUser".equals(authentication.getName())) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of(
+                    "success", false,
+                    "message", "Authentication required. Please login with Google."
+            ));
+        }
+        List<String> requested = languages.stream().map(String::trim).distinct().toList();
+        if (!ValidationUtil.isValidYouTubeVideoId(videoId) || requested.isEmpty()
+                || requested.size() > maxBundleLanguages
+                || !requested.stream().allMatch(ValidationUtil::isValidLanguageCode)) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "success", false,
+                    "message", "A valid video ID and 1 to " + maxBundleLanguages + " languages are required"
+            ));
+        }
+
+        TranscriptBundle bundle = transcriptService.getTranscriptBundle(videoId, requested);
+        if (bundle.getRows().isEmpty()) {
+            return ResponseEntity.ok(Map.of(
+                    "success", false,
+                    "message", NO_TRANSCRIPT_MESSAGE
+            ));
+        }
+        return ResponseEntity.ok(Map.of(
+                "success", true,
+                "data", bundle,
+                "videoId", videoId
+        ));
+    }
+
+    private Map<String, Object> render(String videoId, VideoTranscript transcript, TranscriptView view) {
+        Object data = switch (view) {
+            case FULL -> withFullText(transcript);
+            case SUMMARY -> transcript.getSummary();
+            case ENTRIES -> TranscriptEntriesView.from(transcript);
+            case COMPACT -> CompactTranscript.from(transcript);
+        };
+        return Map.of(
+                "success", true,
+                "data", data,
+                "videoId", videoId,
+                "view", view.name().toLowerCase()
+        );
+    }
+
+    /**
+     * A copy that builds fullText on serialization. The transcript itself is shared through
+     * the cache, whose weigher never counted fullText, so it is not written to.
+     */
+    private VideoTranscript withFullText(VideoTranscript transcript) {
+        return VideoTranscript.builder()
+                .videoId(transcript.getVideoId())
+                .videoTitle(transcript.getVideoTitle())
+                .language(transcript.getLanguage())
+                .transcriptEntries(transcript.getTranscriptEntries())
+                .totalDuration(transcript.getTotalDuration())
+                .wordCount(transcript.getWordCount())
+                .availableLanguages(transcript.getAvailableLanguages())
+                .contentHash(transcript.getContentHash())
+                .build();
+    }
+
+    /**
+     * Server-sent events version of {@code /api/transcript/fetch}. Emits {@code meta}
+     * (videoId, language, source) once the caption track starts arriving, then
+     * {@code entries} in chunks as they are parsed, then a {@code summary}. A
+     * {@code failure} event carries the message when there is nothing to show. Unlike the
+     * JSON endpoint it never sends fullText; the client joins the entries itself.
+     */
+    @GetMapping(path = "/api/transcript/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamTranscript(@RequestParam String videoUrlOrId,
+                                                       @RequestParam(defaultValue = "en") String language,
+                                                       Authentication authentication) {
+        if (authentication == null || !authentication.isAuthenticated()
+                || "anonymousUser".equals(authentication.getName())) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        String videoId = extractVideoId(videoUrlOrId);
+        if (videoId == null || !ValidationUtil.isValidLanguageCode(language)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        log.info("Streaming transcript for video: {} by user: {} with language: {}",
+                videoId, authentication.getName(), language);
+
+        SseEmitter emitter = new SseEmitter(STREAM_TIMEOUT_MS);
+        try {
+            transcriptStreamExecutor.execute(() -> stream(emitter, videoId, language));
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        return ResponseEntity.ok(emitter);
+    }
+
+    private void stream(SseEmitter emitter, String videoId, String language) {
+        TranscriptStream stream = new TranscriptStream(emitter);
+        try {
+            int entries = transcriptService.streamTranscript(videoId, language, stream);
+            if (stream.closed) {
+                return;
+            }
+            if (entries == 0) {
+                stream.send("failure", Map.of("message", NO_TRANSCRIPT_MESSAGE));
+            } else {
+                stream.flush();
+                stream.send("summary", Map.of(
+                        "entryCount", entries,
+                        "wordCount", stream.wordCount,
+                        "totalDuration", stream.totalDuration));
+            }
+            emitter.complete();
+        } catch (Exception e) {
+            log.error("Error streaming transcript for video: {}", videoId, e);
+            stream.send("failure", Map.of("message", "Error fetching transcript. Please try again later."));
+            emitter.complete();
+        }
+    }
+
+    /**
+     * Batches parsed entries into {@code entries} events. Stops the parse once the client
+     * has gone away.
+     */
+    private class TranscriptStream implements TranscriptService.TranscriptListener {
+
+        private final SseEmitter emitter;
+        private final List<VideoTranscript.TranscriptEntry> pending = new ArrayList<>(chunkSize);
+        private boolean closed;
+        private int wordCount;
+        private double totalDuration;
+
+        TranscriptStream(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        @Override
+        public void onTrack(String videoId, String language, String source) {
+            Map<String, Object> meta = new LinkedHashMap<>();
+            meta.put("videoId", videoId);
+            meta.put("language", language);
+            meta.put("source", source);
+            send("meta", meta);
+        }
+
+        @Override
+        public boolean onEntry(VideoTranscript.TranscriptEntry entry) {
+            String text = entry.getText().trim();
+            wordCount += text.isEmpty() ? 0 : text.split("\\s+").length;
+            totalDuration = Math.max(totalDuration, entry.getStart() + entry.getDuration());
+            pending.add(entry);
+            if (pending.size() >= chunkSize) {
+                flush();
+            }
+            return !closed;
+        }
+
+        void flush() {
+            if (!pending.isEmpty()) {
+                send("entries", List.copyOf(pending));
+                pending.clear();
+            }
+        }
+
+        void send(String event, Object data) {
+            if (closed) {
+                return;
+            }
+            try {
+                emitter.send(SseEmitter.event().name(event).data(data, MediaType.APPLICATION_JSON));
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Transcript stream closed by client: {}", e.getMessage());
+                closed = true;
+            }
+        }
+    }
+
     private String extractVideoId(String urlOrId) {
         if (urlOrId == null) return null;
 
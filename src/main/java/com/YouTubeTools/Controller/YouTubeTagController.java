@@ -1,13 +1,21 @@
 package com.YouTubeTools.Controller;
 
+import com.YouTubeTools.Config.ApiKeyPool;
+import com.YouTubeTools.Exception.QuotaExceededException;
+import com.YouTubeTools.Exception.UpstreamUnavailableException;
 import com.YouTubeTools.Model.SearchVideo;
+import com.YouTubeTools.Model.Video;
+import com.YouTubeTools.Service.TagAnalyticsService;
+import com.YouTubeTools.Service.TagCorpusService;
 import com.YouTubeTools.Service.YouTubeService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.Map;
 
 @Slf4j
@@ -17,16 +25,31 @@ import java.util.Map;
 public class YouTubeTagController {
 
     private final YouTubeService youTubeService;
+    private final ApiKeyPool apiKeyPool;
+    private final TagAnalyticsService tagAnalyticsService;
+    private final TagCorpusService tagCorpusService;
 
-    @Value("${youtube.api.key}")
-    private String apiKey;
+    /**
+     * Autocomplete from tags already seen on fetched videos. Never calls the YouTube API.
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<?> suggestTags(@RequestParam("q") String query,
+                                         @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        if (query.length() > 100) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Query is too long"));
+        }
+        return ResponseEntity.ok(Map.of(
+                "query", query,
+                "suggestions", tagCorpusService.suggest(query, Math.min(Math.max(limit, 1), 50))
+        ));
+    }
 
     @PostMapping("/search")
     public ResponseEntity<?> searchVideoTags(@RequestBody Map<String, String> request) {
         try {
             String videoTitle = request.get("videoTitle");
 
-            if (!isApiKeyConfigured()) {
+            if (!apiKeyPool.hasKeys()) {
                 log.error("YouTube API key is not configured");
                 return ResponseEntity.badRequest()
                         .body(Map.of("error", "YouTube API key is not configured"));
@@ -43,21 +66,40 @@ public class YouTubeTagController {
                     (result.getRelatedVideos() == null || result.getRelatedVideos().isEmpty())) {
                 return ResponseEntity.ok(Map.of(
                         "message", "No videos found with tags for this title",
-                        "primaryVideo", (Object) null,
                         "relatedVideos", result.getRelatedVideos()
                 ));
             }
 
-            return ResponseEntity.ok(result);
+            // Related videos are summarised by the analytics; their own tag lists are not sent
+            List<Video> relatedVideos = result.getRelatedVideos().stream()
+                    .map(video -> Video.builder()
+                            .id(video.getId())
+                            .title(video.getTitle())
+                            .channelTitle(video.getChannelTitle())
+                            .thumbnailUrl(video.getThumbnailUrl())
+                            .build())
+                    .toList();
+
+            return ResponseEntity.ok(SearchVideo.builder()
+                    .primaryVideo(result.getPrimaryVideo())
+                    .relatedVideos(relatedVideos)
+                    .searchQuery(result.getSearchQuery())
+                    .totalResults(result.getTotalResults())
+                    .tagAnalytics(tagAnalyticsService.analyze(result))
+                    .build());
 
+        } catch (QuotaExceededException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body(Map.of("error", e.getMessage()));
+        } catch (UpstreamUnavailableException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body(Map.of("error", "YouTube is not responding right now. Please try again shortly."));
         } catch (Exception e) {
             log.error("Error searching for video tags: {}", e.getMessage(), e);
             return ResponseEntity.internalServerError()
                     .body(Map.of("error", "Failed to search for video tags: " + e.getMessage()));
         }
     }
-
-    private boolean isApiKeyConfigured() {
-        return apiKey != null && !apiKey.trim().isEmpty() && !apiKey.equals("YOUR_YOUTUBE_API_KEY_HERE");
-    }
 }
@@ -1,22 +1,33 @@
 package com.YouTubeTools.Controller;
 
+import com.YouTubeTools.Exception.QuotaExceededException;
+import com.YouTubeTools.Exception.UpstreamUnavailableException;
 import com.YouTubeTools.Model.VideoDetails;
 import com.YouTubeTools.Service.ThumbnailService;
 import com.YouTubeTools.Service.YouTubeService;
+import com.YouTubeTools.Util.ETagUtil;
+import com.YouTubeTools.Util.ValidationUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @Controller
 @RequiredArgsConstructor
 public class YouTubeVideoController {
 
+    // Details change rarely; shared caches may keep them for a while and revalidate with the ETag
+    private static final CacheControl VIDEO_DETAILS_CACHING = CacheControl.maxAge(5, TimeUnit.MINUTES).cachePublic();
+
     private final YouTubeService youTubeService;
     private final ThumbnailService thumbnailService;
 
@@ -43,6 +54,14 @@ public class YouTubeVideoController {
             model.addAttribute("videoUrlOrId", videoUrlOrId);
             return "video-details";
 
+        } catch (QuotaExceededException e) {
+            model.addAttribute("error", e.getMessage());
+            model.addAttribute("videoUrlOrId", videoUrlOrId);
+            return "video-details";
+        } catch (UpstreamUnavailableException e) {
+            model.addAttribute("error", "YouTube is not responding right now. Please try again shortly.");
+            model.addAttribute("videoUrlOrId", videoUrlOrId);
+            return "video-details";
         } catch (Exception e) {
             log.error("Error fetching video details: {}", e.getMessage(), e);
             model.addAttribute("error", "An error occurred while fetching video details: " + e.getMessage());
@@ -51,6 +70,30 @@ public class YouTubeVideoController {
         }
     }
 
+    /**
+     * Cacheable variant of the POST endpoint below. Carries a strong ETag from the cached
+     * details; a matching {@code If-None-Match} gets a 304 without the body being written.
+     */
+    @GetMapping("/api/youtube/video-details/{videoId}")
+    @ResponseBody
+    public ResponseEntity<?> getVideoDetailsApi(@PathVariable String videoId,
+                                                @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        if (!ValidationUtil.isValidYouTubeVideoId(videoId)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "A valid video ID is required"));
+        }
+
+        ResponseEntity<?> response = fetchVideoDetailsApi(Map.of("videoId", videoId));
+        if (response.getBody() instanceof VideoDetails details && details.getContentHash() != null) {
+            // Spring answers If-None-Match from these headers before serializing the body
+            return ResponseEntity.ok()
+                    .eTag(ETagUtil.strongETag(details.getContentHash(), ETagUtil.wireFormat(accept)))
+                    .cacheControl(VIDEO_DETAILS_CACHING)
+                    .varyBy(HttpHeaders.ACCEPT)
+                    .body(details);
+        }
+        return response;
+    }
+
     // REST API endpoint for AJAX calls
     @PostMapping("/api/youtube/video-details")
     @ResponseBody
@@ -71,6 +114,14 @@ public class YouTubeVideoController {
 
             return ResponseEntity.ok(details);
 
+        } catch (QuotaExceededException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body(Map.of("error", e.getMessage()));
+        } catch (UpstreamUnavailableException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body(Map.of("error", "YouTube is not responding right now. Please try again shortly."));
         } catch (Exception e) {
             log.error("Error fetching video details via API: {}", e.getMessage(), e);
             return ResponseEntity.internalServerError()
@@ -0,0 +1,8 @@
+package com.YouTubeTools.Exception;
+
+public class DownloadLimitExceededException extends RuntimeException {
+
+    public DownloadLimitExceededException(String message) {
+        super(message);
+    }
+}
@@ -1,5 +1,7 @@
 package com.YouTubeTools.Exception;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -13,11 +15,15 @@ import java.util.Map;
 
 @Slf4j
 @ControllerAdvice
+@RequiredArgsConstructor
 public class GlobalExceptionHandler {
 
+    private final MeterRegistry meterRegistry;
+
     @ExceptionHandler(Exception.class)
     public Object handleException(Exception e, HttpServletRequest request) {
         log.error("Unhandled exception: ", e);
+        countError(e);
 
         // For API requests (JSON)
         if (request.getHeader("Content-Type") != null &&
@@ -43,6 +49,7 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(IllegalArgumentException.class)
     public Object handleIllegalArgumentException(IllegalArgumentException e, HttpServletRequest request) {
         log.warn("Invalid argument: ", e);
+        countError(e);
 
         if (request.getHeader("Content-Type") != null &&
                 request.getHeader("Content-Type").contains("application/json")) {
@@ -59,4 +66,8 @@ public class GlobalExceptionHandler {
         mav.addObject("status", HttpStatus.BAD_REQUEST.value());
         return mav;
     }
-}
\ No newline at end of file
+
+    private void countError(Exception e) {
+        meterRegistry.counter("app.errors", "type", e.getClass().getSimpleName()).increment();
+    }
+}
@@ -0,0 +1,12 @@
+package com.YouTubeTools.Exception;
+
+public class ProcessExecutionException extends RuntimeException {
+
+    public ProcessExecutionException(String message) {
+        super(message);
+    }
+
+    public ProcessExecutionException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
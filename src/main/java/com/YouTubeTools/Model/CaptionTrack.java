@@ -0,0 +1,32 @@
+package com.YouTubeTools.Model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * One caption track a video offers, as discovered by CaptionTrackService.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CaptionTrack {
+    private String languageCode;
+    private String name;
+    /** "asr" for YouTube's automatic captions, null for tracks uploaded by the creator. */
+    private String kind;
+    /** Where the json3 document of this track is downloaded from. */
+    private String url;
+    /** The strategy that discovered the track: timedtext or watch-page. */
+    private String source;
+
+    @JsonIgnore
+    public boolean isAutoGenerated() {
+        return "asr".equals(kind);
+    }
+}
@@ -0,0 +1,59 @@
+package com.YouTubeTools.Model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Columnar transcript response. Entry {@code i} starts at {@code startMs[i]}, lasts
+ * {@code durationMs[i]} and reads {@code texts[textIndex[i]]}. Each distinct line is sent
+ * once, which pays off for auto-generated captions that repeat "[Music]" and friends, and
+ * the arrays serialize without per-entry field names.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CompactTranscript {
+    private String videoId;
+    private String language;
+    private long[] startMs;
+    private long[] durationMs;
+    private int[] textIndex;
+    private List<String> texts;
+
+    public static CompactTranscript from(VideoTranscript transcript) {
+        List<VideoTranscript.TranscriptEntry> entries = transcript.getTranscriptEntries();
+        int size = entries.size();
+        long[] startMs = new long[size];
+        long[] durationMs = new long[size];
+        int[] textIndex = new int[size];
+        List<String> texts = new ArrayList<>();
+        Map<String, Integer> indexByText = new HashMap<>();
+
+        for (int i = 0; i < size; i++) {
+            VideoTranscript.TranscriptEntry entry = entries.get(i);
+            startMs[i] = Math.round(entry.getStart() * 1000);
+            durationMs[i] = Math.round(entry.getDuration() * 1000);
+            textIndex[i] = indexByText.computeIfAbsent(entry.getText(), text -> {
+                texts.add(text);
+                return texts.size() - 1;
+            });
+        }
+
+        return CompactTranscript.builder()
+                .videoId(transcript.getVideoId())
+                .language(transcript.getLanguage())
+                .startMs(startMs)
+                .durationMs(durationMs)
+                .textIndex(textIndex)
+                .texts(texts)
+                .build();
+    }
+}
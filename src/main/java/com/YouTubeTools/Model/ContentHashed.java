@@ -0,0 +1,12 @@
+package com.YouTubeTools.Model;
+
+/**
+ * A cached entity that carries the content hash its ETag is built from. The hash is not
+ * part of the JSON, so it travels separately wherever the entity is copied between caches.
+ */
+public interface ContentHashed {
+
+    String getContentHash();
+
+    void setContentHash(String contentHash);
+}
@@ -0,0 +1,88 @@
+package com.YouTubeTools.Model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Getter;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.UUID;
+
+@Getter
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DownloadJob {
+
+    public enum Status {
+        QUEUED, RUNNING, COMPLETED, FAILED;
+
+        public boolean isTerminal() {
+            return this == COMPLETED || this == FAILED;
+        }
+    }
+
+    private final String id;
+    private final String videoId;
+    private final String quality;
+    private final String format;
+    private final Instant createdAt;
+
+    @JsonIgnore
+    private final String key;
+
+    @JsonIgnore
+    private final String owner;
+
+    private volatile Status status = Status.QUEUED;
+    private volatile double progress;
+    private volatile long bytesWritten;
+    private volatile String error;
+    private volatile Instant finishedAt;
+
+    @JsonIgnore
+    private volatile Path outputFile;
+
+    public DownloadJob(String key, String owner, String videoId, String quality, String format) {
+        this.id = UUID.randomUUID().toString();
+        this.key = key;
+        this.owner = owner;
+        this.videoId = videoId;
+        this.quality = quality;
+        this.format = format;
+        this.createdAt = Instant.now();
+    }
+
+    public static String keyOf(String videoId, String quality, String format) {
+        return videoId + ":" + quality.toLowerCase() + ":" + format.toLowerCase();
+    }
+
+    public void markQueued() {
+        this.status = Status.QUEUED;
+    }
+
+    public void markRunning() {
+        this.status = Status.RUNNING;
+    }
+
+    public void updateProgress(double progress, long bytesWritten) {
+        this.progress = Math.min(100.0, Math.max(this.progress, progress));
+        this.bytesWritten = bytesWritten;
+    }
+
+    public void markCompleted(Path outputFile, long size) {
+        this.outputFile = outputFile;
+        this.bytesWritten = size;
+        this.progress = 100.0;
+        this.finishedAt = Instant.now();
+        this.status = Status.COMPLETED;
+    }
+
+    public void markFailed(String error) {
+        this.error = error;
+        this.finishedAt = Instant.now();
+        this.status = Status.FAILED;
+    }
+
+    public String getDownloadUrl() {
+        return status == Status.COMPLETED ? "/api/download/jobs/" + id + "/file" : null;
+    }
+}
@@ -0,0 +1,74 @@
+package com.YouTubeTools.Model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class FormatManifest {
+    private String videoId;
+    private String title;
+    private String channelTitle;
+    private String thumbnailUrl;
+    private Long durationSeconds;
+    private List<StreamFormat> formats;
+    private Instant fetchedAt;
+
+    public List<StreamFormat> getFormats() {
+        return formats != null ? formats : Collections.emptyList();
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class StreamFormat {
+        private String formatId;
+        private String ext;
+        private Integer height;
+        private Integer fps;
+        private String videoCodec;
+        private String audioCodec;
+        private Double bitrateKbps;
+        private Double audioBitrateKbps;
+        private Long sizeBytes;
+        private boolean sizeExact;
+
+        public boolean hasVideo() {
+            return videoCodec != null && !videoCodec.equals("none");
+        }
+
+        public boolean hasAudio() {
+            return audioCodec != null && !audioCodec.equals("none");
+        }
+
+        /**
+         * Human readable size, e.g. "148.3 MB". Approximate sizes are prefixed with "~".
+         */
+        public String getFormattedSize() {
+            if (sizeBytes == null || sizeBytes <= 0) {
+                return "Unknown size";
+            }
+            String prefix = sizeExact ? "" : "~";
+            double size = sizeBytes;
+            String[] units = {"B", "KB", "MB", "GB"};
+            int unit = 0;
+            while (size >= 1024 && unit < units.length - 1) {
+                size /= 1024;
+                unit++;
+            }
+            return prefix + String.format("%.1f %s", size, units[unit]);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.YouTubeTools.Model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Duration;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProcessStats {
+    private long pid;
+    private int exitCode;
+    private Duration wallTime;
+    private Duration cpuTime;
+    private long bytesStreamed;
+    private boolean timedOut;
+    private boolean aborted;
+
+    public boolean isSuccessful() {
+        return exitCode == 0 && !timedOut && !aborted;
+    }
+}
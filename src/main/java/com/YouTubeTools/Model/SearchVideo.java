@@ -19,6 +19,7 @@ public class SearchVideo {
     private List<Video> relatedVideos;
     private String searchQuery;
     private Integer totalResults;
+    private TagAnalytics tagAnalytics;
 
     // Utility methods
     public List<Video> getRelatedVideos() {
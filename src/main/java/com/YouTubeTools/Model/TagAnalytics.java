@@ -0,0 +1,55 @@
+package com.YouTubeTools.Model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Aggregated view of the tags across a search result: one entry per distinct tag instead
+ * of every video's full tag list.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TagAnalytics {
+    private int videosAnalyzed;
+    private int distinctTags;
+    private List<RankedTag> rankedTags;
+    private List<TagPair> coOccurrences;
+
+    public List<RankedTag> getRankedTags() {
+        return rankedTags != null ? rankedTags : Collections.emptyList();
+    }
+
+    public List<TagPair> getCoOccurrences() {
+        return coOccurrences != null ? coOccurrences : Collections.emptyList();
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class RankedTag {
+        private String tag;
+        /** Number of videos using the tag. */
+        private int videoCount;
+        /** Sum of the search-rank weights of those videos; higher ranked videos count more. */
+        private double score;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class TagPair {
+        private String first;
+        private String second;
+        /** Number of videos using both tags. */
+        private int videoCount;
+    }
+}
@@ -0,0 +1,94 @@
+package com.YouTubeTools.Model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Several languages of one video's transcript side by side. The first language served sets
+ * the timeline: each row is one of its entries, and every other language's entries are
+ * placed in the row that was showing at their midpoint. Captions in different languages
+ * are rarely cut at the same moments, so a row can hold two short lines of one language,
+ * or none.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TranscriptBundle {
+    private String videoId;
+    /** Languages in the bundle, in the order they were asked for. */
+    private List<String> languages;
+    /** Requested languages the video has no captions in. */
+    private List<String> missingLanguages;
+    private List<String> availableLanguages;
+    private List<Row> rows;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Row {
+        private double start;
+        private double duration;
+        private String formattedTime;
+        /** Text by language; a language is left out if nothing was said in it during the row. */
+        private Map<String, String> texts;
+    }
+
+    /**
+     * Aligns {@code transcripts} on the timeline of the first of them.
+     */
+    public static TranscriptBundle align(String videoId, List<VideoTranscript> transcripts,
+                                         List<String> missingLanguages, List<String> availableLanguages) {
+        List<Row> rows = new ArrayList<>();
+        if (!transcripts.isEmpty()) {
+            VideoTranscript timeline = transcripts.get(0);
+            List<VideoTranscript.TranscriptEntry> entries = timeline.getTranscriptEntries();
+            double[] starts = new double[entries.size()];
+            for (int i = 0; i < entries.size(); i++) {
+                VideoTranscript.TranscriptEntry entry = entries.get(i);
+                starts[i] = entry.getStart();
+                Map<String, String> texts = new LinkedHashMap<>();
+                texts.put(timeline.getLanguage(), entry.getText());
+                rows.add(Row.builder()
+                        .start(entry.getStart())
+                        .duration(entry.getDuration())
+                        .formattedTime(entry.getFormattedTime())
+                        .texts(texts)
+                        .build());
+            }
+
+            for (VideoTranscript transcript : transcripts.subList(1, transcripts.size())) {
+                for (VideoTranscript.TranscriptEntry entry : transcript.getTranscriptEntries()) {
+                    Row row = rows.get(rowAt(starts, entry.getStart() + entry.getDuration() / 2));
+                    row.getTexts().merge(transcript.getLanguage(), entry.getText(), (line, next) -> line + " " + next);
+                }
+            }
+        }
+
+        return TranscriptBundle.builder()
+                .videoId(videoId)
+                .languages(transcripts.stream().map(VideoTranscript::getLanguage).toList())
+                .missingLanguages(missingLanguages)
+                .availableLanguages(availableLanguages)
+                .rows(rows)
+                .build();
+    }
+
+    // The last row starting at or before the time; anything before the first row joins it
+    private static int rowAt(double[] starts, double time) {
+        int index = Arrays.binarySearch(starts, time);
+        if (index >= 0) {
+            return index;
+        }
+        return Math.max(0, -index - 2);
+    }
+}
@@ -0,0 +1,45 @@
+package com.YouTubeTools.Model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Entries-only transcript response. Plain fields, so serializing it runs none of the
+ * derived getters on {@link VideoTranscript}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TranscriptEntriesView {
+    private String videoId;
+    private String language;
+    private List<Entry> entries;
+
+    public static TranscriptEntriesView from(VideoTranscript transcript) {
+        List<VideoTranscript.TranscriptEntry> source = transcript.getTranscriptEntries();
+        List<Entry> entries = new ArrayList<>(source.size());
+        for (VideoTranscript.TranscriptEntry entry : source) {
+            entries.add(new Entry(entry.getStart(), entry.getDuration(), entry.getText()));
+        }
+        return TranscriptEntriesView.builder()
+                .videoId(transcript.getVideoId())
+                .language(transcript.getLanguage())
+                .entries(entries)
+                .build();
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Entry {
+        private double start;
+        private double duration;
+        private String text;
+    }
+}
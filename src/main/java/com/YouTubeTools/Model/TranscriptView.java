@@ -0,0 +1,28 @@
+package com.YouTubeTools.Model;
+
+import java.util.Locale;
+
+/**
+ * Shape of a transcript response, chosen per request with {@code view}.
+ */
+public enum TranscriptView {
+    /** The whole {@link VideoTranscript}, including fullText. What older clients expect. */
+    FULL,
+    /** {@link VideoTranscript.TranscriptSummary} only: counts and duration, no text. */
+    SUMMARY,
+    /** {@link TranscriptEntriesView}: start, duration and text per entry, nothing else. */
+    ENTRIES,
+    /** {@link CompactTranscript}: columnar entries with each distinct line of text sent once. */
+    COMPACT;
+
+    public static TranscriptView from(String value) {
+        if (value == null || value.isBlank()) {
+            return FULL;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -4,8 +4,10 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
@@ -17,7 +19,7 @@ import java.util.Collections;
 @AllArgsConstructor
 @Builder
 @JsonInclude(JsonInclude.Include.NON_NULL)
-public class VideoDetails {
+public class VideoDetails implements ContentHashed {
     private String id;
     private String title;
     private String description;
@@ -29,6 +31,10 @@ public class VideoDetails {
     private Long likeCount;
     private String duration;
 
+    /** Hash of the fields above, set when the details are cached; the basis of the ETag. */
+    @JsonIgnore
+    private String contentHash;
+
     // Utility methods
     public List<String> getTags() {
         return tags != null ? tags : Collections.emptyList();
@@ -61,6 +67,24 @@ public class VideoDetails {
         return desc;
     }
 
+    /**
+     * The ISO-8601 duration from the API (PT1H2M3S) as 1:02:03, or null if unknown.
+     */
+    public String getFormattedDuration() {
+        if (duration == null) {
+            return null;
+        }
+        try {
+            Duration length = Duration.parse(duration);
+            long hours = length.toHours();
+            return hours > 0
+                    ? String.format("%d:%02d:%02d", hours, length.toMinutesPart(), length.toSecondsPart())
+                    : String.format("%d:%02d", length.toMinutesPart(), length.toSecondsPart());
+        } catch (DateTimeParseException e) {
+            return duration;
+        }
+    }
+
     public String getFormattedPublishDate() {
         if (publishedAt == null) {
             return "Unknown date";
@@ -4,6 +4,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonInclude;
 
@@ -15,7 +16,7 @@ import java.util.List;
 @Builder
 @JsonIgnoreProperties(ignoreUnknown = true)
 @JsonInclude(JsonInclude.Include.NON_NULL)
-public class VideoTranscript {
+public class VideoTranscript implements ContentHashed {
     private String videoId;
     private String videoTitle;
     private String language;
@@ -25,6 +26,10 @@ public class VideoTranscript {
     private int wordCount;
     private List<String> availableLanguages;
 
+    /** Hash of the entries, set when the transcript is cached; the basis of the ETag. */
+    @JsonIgnore
+    private String contentHash;
+
     @Data
     @NoArgsConstructor
     @AllArgsConstructor
@@ -78,6 +83,7 @@ public class VideoTranscript {
     /**
      * Get plain text without timestamps
      */
+    @JsonIgnore
     public String getPlainText() {
         if (transcriptEntries == null || transcriptEntries.isEmpty()) {
             return "";
@@ -134,6 +140,7 @@ public class VideoTranscript {
     /**
      * Get formatted transcript with timestamps
      */
+    @JsonIgnore
     public String getFormattedTranscript() {
         if (transcriptEntries == null || transcriptEntries.isEmpty()) {
             return "No transcript available";
@@ -178,6 +185,7 @@ public class VideoTranscript {
     /**
      * Get transcript summary info
      */
+    @JsonIgnore
     public TranscriptSummary getSummary() {
         return TranscriptSummary.builder()
                 .videoId(videoId)
@@ -207,6 +215,7 @@ public class VideoTranscript {
     /**
      * Validate transcript data integrity
      */
+    @JsonIgnore
     public boolean isValid() {
         return videoId != null && !videoId.trim().isEmpty() &&
                 transcriptEntries != null && !transcriptEntries.isEmpty() &&
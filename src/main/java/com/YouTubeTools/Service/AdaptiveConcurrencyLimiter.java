@@ -0,0 +1,95 @@
+package com.YouTubeTools.Service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * AIMD concurrency limit for one upstream. Each fast successful call raises the limit by
+ * {@code 1/limit} (about +1 per round trip of a full window); a slow or failed call
+ * multiplies it by {@code backoffRatio}. Calls beyond the current limit are rejected
+ * instead of queueing behind a struggling upstream.
+ *
+ * Lock-free like the in-flight count: the fractional limit is kept as the bits of a double
+ * and updated by compare-and-set, so concurrent adjustments are never lost.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong limitBits;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit,
+                                      long latencyThresholdMillis, double backoffRatio) {
+        this.limitBits = new AtomicLong(Double.doubleToLongBits(initialLimit));
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = TimeUnit.MILLISECONDS.toNanos(latencyThresholdMillis);
+        this.backoffRatio = backoffRatio;
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= getLimit()) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Releases a slot for a call that completed; the latency decides whether the limit grows or shrinks.
+     */
+    public void onSuccess(long latencyNanos) {
+        int inFlightBefore = inFlight.getAndDecrement();
+        if (latencyNanos > latencyThresholdNanos) {
+            decrease();
+        } else if (inFlightBefore * 2 >= limit()) {
+            // Only grow while the limit is actually being used
+            increase();
+        }
+    }
+
+    public void onDropped() {
+        inFlight.decrementAndGet();
+        decrease();
+    }
+
+    /**
+     * Releases a slot without adjusting the limit, e.g. for calls that never reached the upstream.
+     */
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    public int getLimit() {
+        return (int) limit();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private void increase() {
+        update(limit -> Math.min(maxLimit, limit + 1.0 / limit));
+    }
+
+    private void decrease() {
+        update(limit -> Math.max(minLimit, limit * backoffRatio));
+    }
+
+    private double limit() {
+        return Double.longBitsToDouble(limitBits.get());
+    }
+
+    private void update(DoubleUnaryOperator adjustment) {
+        limitBits.updateAndGet(bits -> Double.doubleToLongBits(adjustment.applyAsDouble(Double.longBitsToDouble(bits))));
+    }
+}
@@ -0,0 +1,27 @@
+package com.YouTubeTools.Service;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * What each use of the Data API asks for: the resource parts to include and a {@code fields}
+ * filter that trims the response to what we map. Quota is charged per request, not per
+ * part, so asking for statistics alongside the snippet is free. Filtering leaves out long
+ * descriptions and localized blocks we would throw away after parsing.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum ApiFieldProfile {
+    /** Details page: snippet, counts and duration of one video in a single videos.list call. */
+    VIDEO_DETAILS("snippet,statistics,contentDetails",
+            "items(snippet(title,description,channelTitle,publishedAt,tags,"
+                    + "thumbnails(default(url),medium(url),high(url),standard(url),maxres(url))),"
+                    + "statistics(viewCount,likeCount),contentDetails(duration))"),
+    /** Tag search: title, channel and tags of each result, no description or thumbnails. */
+    VIDEO_TAGS("snippet", "items(snippet(title,channelTitle,tags))"),
+    /** search.list: only the ids of the matching videos. */
+    SEARCH_IDS("id", "items(id(videoId))");
+
+    private final String part;
+    private final String fields;
+}
@@ -0,0 +1,317 @@
+package com.YouTubeTools.Service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.security.oauth2.core.user.DefaultOAuth2User;
+import org.springframework.security.oauth2.core.user.OAuth2User;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Signed session tokens for stateless mode ({@code auth.stateless.enabled=true}). After the
+ * OAuth2 login the user's identity goes into a compact HS256 JWT in an HttpOnly cookie,
+ * instead of an HttpSession. Any instance holding the secret can then authenticate any
+ * request, so there is no need for sticky sessions or a shared session store.
+ *
+ * Verified tokens are cached by token until they expire, so repeat requests skip the JSON
+ * parsing and the HMAC. Tokens name their signing key ({@code kid}); tokens signed with
+ * {@code auth.token.previous-secret} stay valid while the secret is rotated. Values
+ * {@link #seal sealed} into short-lived cookies use a key derived from each secret rather
+ * than the signing key itself, and are accepted under the previous secret as well.
+ *
+ * Tokens cannot be revoked before they expire. Logging out deletes the cookie, and
+ * {@code auth.token.ttl-minutes} bounds how long a copied token stays usable.
+ */
+@Slf4j
+@Service
+public class AuthTokenService {
+
+    public static final String TOKEN_COOKIE = "YT_AUTH";
+
+    private static final String ISSUER = "youtube-tools";
+    private static final String HMAC = "HmacSHA256";
+    private static final String SEALING_KEY_LABEL = "oauth2-state";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+    private static final List<GrantedAuthority> AUTHORITIES = AuthorityUtils.createAuthorityList("OAUTH2_USER");
+
+    private record VerifiedToken(Authentication authentication, Instant expiresAt) {}
+
+    @Getter
+    @Value("${auth.stateless.enabled:false}")
+    private boolean enabled;
+
+    @Value("${auth.token.secret:}")
+    private String secret;
+
+    @Value("${auth.token.previous-secret:}")
+    private String previousSecret;
+
+    @Getter
+    @Value("${auth.token.ttl-minutes:720}")
+    private long ttlMinutes;
+
+    @Value("${auth.token.cookie-secure:true}")
+    private boolean cookieSecure;
+
+    @Value("${auth.token.cache-size:10000}")
+    private long cacheSize;
+
+    private final ObjectMapper objectMapper;
+    private final Counter cacheHits;
+    private final Counter verified;
+    private final Counter rejected;
+
+    private final Map<String, SecretKey> keysById = new LinkedHashMap<>();
+    /** Sealing keys, current secret's first. */
+    private final List<SecretKey> sealingKeys = new ArrayList<>();
+    private String currentKeyId;
+    private Cache<String, VerifiedToken> verifiedTokens;
+
+    public AuthTokenService(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.cacheHits = verificationCounter(meterRegistry, "cached");
+        this.verified = verificationCounter(meterRegistry, "verified");
+        this.rejected = verificationCounter(meterRegistry, "rejected");
+    }
+
+    @PostConstruct
+    void init() {
+        if (!enabled) {
+            return;
+        }
+        if (secret.getBytes(StandardCharsets.UTF_8).length < 32) {
+            throw new IllegalStateException("auth.token.secret must be at least 32 bytes when auth.stateless.enabled=true");
+        }
+        currentKeyId = addKey(secret);
+        if (!previousSecret.isBlank()) {
+            addKey(previousSecret);
+        }
+        verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String token, VerifiedToken value, long currentTime) {
+                        return Math.max(0, Duration.between(Instant.now(), value.expiresAt()).toNanos());
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String token, VerifiedToken value, long currentTime, long currentDuration) {
+                        return expireAfterCreate(token, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String token, VerifiedToken value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * Issues a token for a freshly logged-in user and sets it as the session cookie.
+     */
+    public void issue(Authentication authentication, HttpServletResponse response) {
+        Instant now = Instant.now();
+        ObjectNode claims = objectMapper.createObjectNode()
+                .put("iss", ISSUER)
+                .put("sub", authentication.getName())
+                .put("iat", now.getEpochSecond())
+                .put("exp", now.plus(Duration.ofMinutes(ttlMinutes)).getEpochSecond());
+        if (authentication instanceof OAuth2AuthenticationToken oauth2) {
+            claims.put("reg", oauth2.getAuthorizedClientRegistrationId());
+        }
+        if (authentication.getPrincipal() instanceof OAuth2User user) {
+            putIfPresent(claims, "name", user.getAttribute("name"));
+            putIfPresent(claims, "email", user.getAttribute("email"));
+        }
+
+        ObjectNode header = objectMapper.createObjectNode()
+                .put("alg", "HS256")
+                .put("typ", "JWT")
+                .put("kid", currentKeyId);
+        String signingInput = encodeJson(header) + "." + encodeJson(claims);
+        String token = signingInput + "." + ENCODER.encodeToString(hmac(keysById.get(currentKeyId), signingInput));
+
+        response.addHeader(HttpHeaders.SET_COOKIE, cookie(TOKEN_COOKIE, token, Duration.ofMinutes(ttlMinutes)).toString());
+    }
+
+    /**
+     * The authentication a token stands for, or null if it is malformed, forged, signed
+     * with an unknown key or expired.
+     */
+    public Authentication verify(String token) {
+        VerifiedToken cached = verifiedTokens.getIfPresent(token);
+        if (cached != null) {
+            cacheHits.increment();
+            return cached.authentication();
+        }
+
+        try {
+            String[] parts = token.split("\\.");
+            if (parts.length != 3) {
+                return reject("malformed");
+            }
+            JsonNode header = objectMapper.readTree(DECODER.decode(parts[0]));
+            SecretKey key = keysById.get(header.path("kid").asText());
+            if (key == null || !"HS256".equals(header.path("alg").asText())) {
+                return reject("unknown key or algorithm");
+            }
+            if (!MessageDigest.isEqual(hmac(key, parts[0] + "." + parts[1]), DECODER.decode(parts[2]))) {
+                return reject("bad signature");
+            }
+
+            JsonNode claims = objectMapper.readTree(DECODER.decode(parts[1]));
+            Instant expiresAt = Instant.ofEpochSecond(claims.path("exp").asLong());
+            if (!ISSUER.equals(claims.path("iss").asText()) || !expiresAt.isAfter(Instant.now())) {
+                return reject("expired");
+            }
+
+            Map<String, Object> attributes = new LinkedHashMap<>();
+            attributes.put("sub", claims.path("sub").asText());
+            if (claims.hasNonNull("name")) {
+                attributes.put("name", claims.get("name").asText());
+            }
+            if (claims.hasNonNull("email")) {
+                attributes.put("email", claims.get("email").asText());
+            }
+            // Same principal type as after an OAuth2 login, so controllers cannot tell the modes apart
+            Authentication authentication = new OAuth2AuthenticationToken(
+                    new DefaultOAuth2User(AUTHORITIES, attributes, "sub"),
+                    AUTHORITIES, claims.path("reg").asText("google"));
+
+            verifiedTokens.put(token, new VerifiedToken(authentication, expiresAt));
+            verified.increment();
+            return authentication;
+        } catch (IOException | IllegalArgumentException e) {
+            return reject("unreadable");
+        }
+    }
+
+    /**
+     * {@code data} with an HMAC appended, for short-lived cookies the browser must not alter.
+     */
+    public String seal(byte[] data) {
+        return ENCODER.encodeToString(data) + "." + ENCODER.encodeToString(hmac(sealingKeys.get(0), data));
+    }
+
+    /**
+     * The data of a value from {@link #seal}, or null if it was tampered with. Values sealed
+     * before a secret rotation are still accepted under the previous secret.
+     */
+    public byte[] unseal(String sealed) {
+        int dot = sealed.indexOf('.');
+        if (dot < 0) {
+            return null;
+        }
+        try {
+            byte[] data = DECODER.decode(sealed.substring(0, dot));
+            byte[] mac = DECODER.decode(sealed.substring(dot + 1));
+            for (SecretKey key : sealingKeys) {
+                if (MessageDigest.isEqual(hmac(key, data), mac)) {
+                    return data;
+                }
+            }
+            return null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    public ResponseCookie cookie(String name, String value, Duration maxAge) {
+        return ResponseCookie.from(name, value)
+                .httpOnly(true)
+                .secure(cookieSecure)
+                .sameSite("Lax")
+                .path("/")
+                .maxAge(maxAge)
+                .build();
+    }
+
+    private String addKey(String keySecret) {
+        byte[] bytes = keySecret.getBytes(StandardCharsets.UTF_8);
+        String keyId;
+        try {
+            keyId = ENCODER.encodeToString(MessageDigest.getInstance("SHA-256").digest(bytes)).substring(0, 8);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+        SecretKey signingKey = new SecretKeySpec(bytes, HMAC);
+        keysById.put(keyId, signingKey);
+        // Separate key for sealed cookies, so the signing key never MACs anything but tokens
+        sealingKeys.add(new SecretKeySpec(hmac(signingKey, SEALING_KEY_LABEL), HMAC));
+        return keyId;
+    }
+
+    private String encodeJson(JsonNode node) {
+        try {
+            return ENCODER.encodeToString(objectMapper.writeValueAsBytes(node));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] hmac(SecretKey key, String input) {
+        return hmac(key, input.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static byte[] hmac(SecretKey key, byte[] input) {
+        try {
+            Mac mac = Mac.getInstance(HMAC);
+            mac.init(key);
+            return mac.doFinal(input);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Authentication reject(String reason) {
+        rejected.increment();
+        log.debug("Rejected session token: {}", reason);
+        return null;
+    }
+
+    private static void putIfPresent(ObjectNode node, String field, Object value) {
+        if (value != null) {
+            node.put(field, value.toString());
+        }
+    }
+
+    private static Counter verificationCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("auth.token.verifications")
+                .description("Session token checks in stateless mode, by result")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
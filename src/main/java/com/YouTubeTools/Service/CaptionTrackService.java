@@ -0,0 +1,293 @@
+package com.YouTubeTools.Service;
+
+import com.YouTubeTools.Model.CaptionTrack;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Knows which caption tracks each video has. Tracks are discovered once per video from the
+ * cheapest source that lists them and cached, so switching language or refetching a
+ * transcript costs a single caption download.
+ *
+ * The timedtext list is a few hundred bytes of XML and is asked first. It leaves out
+ * automatic captions, so when it comes back empty the watch page is fetched instead; its
+ * player response advertises every track, automatic ones included. The Data API is never
+ * asked: captions.list costs 50 units and its tracks can only be downloaded with the
+ * owner's OAuth consent.
+ */
+@Slf4j
+@Service
+public class CaptionTrackService {
+
+    private static final Pattern PLAYER_RESPONSE =
+            Pattern.compile("var ytInitialPlayerResponse\\s*=\\s*(\\{.+?\\});", Pattern.DOTALL);
+    private static final Pattern LIST_TRACK = Pattern.compile("<track\\s([^>]*)/?>");
+    private static final Pattern ATTRIBUTE = Pattern.compile("(\\w+)=\"([^\"]*)\"");
+
+    private final RestTemplate restTemplate;
+    private final UpstreamResilienceService resilienceService;
+    private final ObjectMapper objectMapper;
+    private final Counter fromTimedTextList;
+    private final Counter fromWatchPage;
+    private final Counter noTracks;
+
+    /** youtube.com origin for watch pages and timedtext; pointed at a stand-in server in tests. */
+    @Value("${youtube.web.base.url:https://www.youtube.com}")
+    private String webBaseUrl;
+
+    // Watch page track URLs are signed and expire after some hours, so this stays well below that
+    @Value("${cache.caption-tracks.ttl-minutes:60}")
+    private long ttlMinutes;
+
+    @Value("${cache.caption-tracks.max-entries:10000}")
+    private long maxEntries;
+
+    // Holds the in-flight lookup too, so concurrent requests for a video share one discovery
+    private AsyncCache<String, List<CaptionTrack>> tracksByVideo;
+
+    public CaptionTrackService(RestTemplate restTemplate, UpstreamResilienceService resilienceService,
+                               MeterRegistry meterRegistry) {
+        this.restTemplate = restTemplate;
+        this.resilienceService = resilienceService;
+        this.objectMapper = new ObjectMapper();
+        this.fromTimedTextList = discoveryCounter(meterRegistry, UpstreamResilienceService.TIMEDTEXT);
+        this.fromWatchPage = discoveryCounter(meterRegistry, UpstreamResilienceService.WATCH_PAGE);
+        this.noTracks = discoveryCounter(meterRegistry, "none");
+    }
+
+    @PostConstruct
+    void init() {
+        tracksByVideo = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .maximumSize(maxEntries)
+                .buildAsync();
+    }
+
+    /**
+     * The caption tracks of a video, empty if it has none, or null if neither source could
+     * be read. Only definite answers are cached, so a failed lookup is retried next time.
+     *
+     * The upstream fetches run on the calling thread outside the cache's map, so a slow
+     * discovery holds no lock other lookups could be waiting on; callers asking for the
+     * same video meanwhile wait for its result instead of fetching again.
+     */
+    public List<CaptionTrack> getTracks(String videoId) {
+        CompletableFuture<List<CaptionTrack>> discovery = new CompletableFuture<>();
+        CompletableFuture<List<CaptionTrack>> existing = tracksByVideo.asMap().putIfAbsent(videoId, discovery);
+        if (existing != null) {
+            return existing.join();
+        }
+        try {
+            // A null result completes the future and drops the entry, so it is not cached
+            List<CaptionTrack> tracks = discover(videoId);
+            discovery.complete(tracks);
+            return tracks;
+        } catch (RuntimeException | Error e) {
+            discovery.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Forgets a video's tracks, e.g. after a download from one of them failed because its
+     * signed URL expired. The next lookup discovers them again.
+     */
+    public void evict(String videoId) {
+        tracksByVideo.synchronous().invalidate(videoId);
+    }
+
+    /**
+     * The track to serve for a requested language: its {@link #matchTrack match}, else
+     * English, else whatever there is. Null only if there are no tracks.
+     */
+    public static CaptionTrack selectTrack(List<CaptionTrack> tracks, String language) {
+        CaptionTrack track = matchTrack(tracks, language);
+        if (track == null) {
+            track = preferUploaded(tracks, t -> t.getLanguageCode().equals("en"));
+        }
+        if (track == null) {
+            track = preferUploaded(tracks, t -> true);
+        }
+        return track;
+    }
+
+    /**
+     * The track in the requested language: an exact match, else one of the same base
+     * language ("en" for "en-US"). Within each step uploaded captions win over automatic
+     * ones. Null if the video has no captions in that language.
+     */
+    public static CaptionTrack matchTrack(List<CaptionTrack> tracks, String language) {
+        String prefix = language.split("-")[0];
+        CaptionTrack track = preferUploaded(tracks, t -> t.getLanguageCode().equalsIgnoreCase(language));
+        if (track == null) {
+            track = preferUploaded(tracks, t -> t.getLanguageCode().startsWith(prefix));
+        }
+        return track;
+    }
+
+    private static CaptionTrack preferUploaded(List<CaptionTrack> tracks, Predicate<CaptionTrack> matches) {
+        CaptionTrack automatic = null;
+        for (CaptionTrack track : tracks) {
+            if (matches.test(track)) {
+                if (!track.isAutoGenerated()) {
+                    return track;
+                }
+                if (automatic == null) {
+                    automatic = track;
+                }
+            }
+        }
+        return automatic;
+    }
+
+    private List<CaptionTrack> discover(String videoId) {
+        List<CaptionTrack> listed = fromTimedTextList(videoId);
+        if (listed != null && !listed.isEmpty()) {
+            fromTimedTextList.increment();
+            return listed;
+        }
+        List<CaptionTrack> advertised = fromWatchPage(videoId);
+        if (advertised == null) {
+            return null;
+        }
+        (advertised.isEmpty() ? noTracks : fromWatchPage).increment();
+        log.debug("Discovered {} caption tracks for {} on the watch page", advertised.size(), videoId);
+        return List.copyOf(advertised);
+    }
+
+    private List<CaptionTrack> fromTimedTextList(String videoId) {
+        try {
+            String listUrl = String.format("%s/api/timedtext?v=%s&type=list", webBaseUrl, videoId);
+            ResponseEntity<String> response = resilienceService.execute(UpstreamResilienceService.TIMEDTEXT,
+                    () -> restTemplate.exchange(listUrl, HttpMethod.GET, browserRequest(), String.class));
+            if (response.getStatusCode() != HttpStatus.OK) {
+                return null;
+            }
+            List<CaptionTrack> tracks = new ArrayList<>();
+            Matcher trackMatcher = LIST_TRACK.matcher(response.getBody() != null ? response.getBody() : "");
+            while (trackMatcher.find()) {
+                Map<String, String> attributes = attributes(trackMatcher.group(1));
+                String language = attributes.get("lang_code");
+                if (language == null || language.isEmpty()) {
+                    continue;
+                }
+                String name = attributes.getOrDefault("name", "");
+                String url = String.format("%s/api/timedtext?v=%s&lang=%s&fmt=json3", webBaseUrl, videoId, language);
+                if (!name.isEmpty()) {
+                    // Several tracks can share a language; the name tells them apart
+                    url += "&name=" + URLEncoder.encode(name, StandardCharsets.UTF_8);
+                }
+                tracks.add(CaptionTrack.builder()
+                        .languageCode(language)
+                        .name(name.isEmpty() ? attributes.get("lang_original") : name)
+                        .url(url)
+                        .source(UpstreamResilienceService.TIMEDTEXT)
+                        .build());
+            }
+            return List.copyOf(tracks);
+        } catch (Exception e) {
+            log.debug("Timedtext track list for {} failed: {}", videoId, e.getMessage());
+            return null;
+        }
+    }
+
+    private List<CaptionTrack> fromWatchPage(String videoId) {
+        try {
+            String videoUrl = webBaseUrl + "/watch?v=" + videoId;
+            ResponseEntity<String> response = resilienceService.execute(UpstreamResilienceService.WATCH_PAGE,
+                    () -> restTemplate.exchange(videoUrl, HttpMethod.GET, browserRequest(), String.class));
+            if (response.getStatusCode() != HttpStatus.OK || response.getBody() == null) {
+                return null;
+            }
+            JsonNode playerJson = extractPlayerResponse(response.getBody());
+            if (playerJson == null) {
+                return null;
+            }
+
+            List<CaptionTrack> tracks = new ArrayList<>();
+            JsonNode captionTracks = playerJson.path("captions").path("playerCaptionsTracklistRenderer").path("captionTracks");
+            for (JsonNode track : captionTracks) {
+                String url = track.path("baseUrl").asText();
+                String language = track.path("languageCode").asText();
+                if (url.isEmpty() || language.isEmpty()) {
+                    continue;
+                }
+                if (!url.contains("fmt=")) {
+                    url += (url.contains("?") ? "&" : "?") + "fmt=json3";
+                }
+                tracks.add(CaptionTrack.builder()
+                        .languageCode(language)
+                        .name(track.path("name").path("simpleText").asText(null))
+                        .kind(track.path("kind").asText(null))
+                        .url(url)
+                        .source(UpstreamResilienceService.WATCH_PAGE)
+                        .build());
+            }
+            return tracks;
+        } catch (Exception e) {
+            log.debug("Watch page track lookup for {} failed: {}", videoId, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Pulls the embedded ytInitialPlayerResponse JSON out of a watch page, or null if the
+     * page does not contain one.
+     */
+    JsonNode extractPlayerResponse(String html) throws IOException {
+        Matcher matcher = PLAYER_RESPONSE.matcher(html);
+        if (!matcher.find()) {
+            return null;
+        }
+        return objectMapper.readTree(matcher.group(1));
+    }
+
+    private static HttpEntity<String> browserRequest() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("User-Agent", TranscriptService.USER_AGENT);
+        return new HttpEntity<>(headers);
+    }
+
+    private static Map<String, String> attributes(String tag) {
+        Map<String, String> attributes = new HashMap<>();
+        Matcher matcher = ATTRIBUTE.matcher(tag);
+        while (matcher.find()) {
+            attributes.put(matcher.group(1), matcher.group(2));
+        }
+        return attributes;
+    }
+
+    private static Counter discoveryCounter(MeterRegistry meterRegistry, String source) {
+        return Counter.builder("caption.tracks.discoveries")
+                .description("Caption track lookups that went upstream, by the source that answered")
+                .tag("source", source)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,181 @@
+package com.YouTubeTools.Service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-client token buckets for the request rate limit.
+ *
+ * Each bucket is a single {@link AtomicLong} holding the bucket's "theoretical arrival
+ * time" (GCRA), so taking a token is one CAS and never blocks. Buckets live in a fixed
+ * number of stripes, each bounded in size; a bucket that has refilled completely carries
+ * no state worth keeping and is dropped by a periodic sweep.
+ */
+@Slf4j
+@Service
+public class ClientRateLimiter {
+
+    private static final int STRIPES = 16;
+
+    @Value("${rate-limit.anonymous.requests-per-minute:60}")
+    private int anonymousPerMinute;
+
+    @Value("${rate-limit.anonymous.burst:20}")
+    private int anonymousBurst;
+
+    @Value("${rate-limit.authenticated.requests-per-minute:120}")
+    private int authenticatedPerMinute;
+
+    @Value("${rate-limit.authenticated.burst:30}")
+    private int authenticatedBurst;
+
+    @Value("${rate-limit.max-clients:100000}")
+    private int maxClients;
+
+    @Value("${rate-limit.sweep-interval-seconds:30}")
+    private long sweepIntervalSeconds;
+
+    @SuppressWarnings("unchecked")
+    private final Map<String, Bucket>[] stripes = new Map[STRIPES];
+
+    private Limit anonymous;
+    private Limit authenticated;
+    private int maxPerStripe;
+    private ScheduledExecutorService sweeper;
+
+    @PostConstruct
+    void init() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ConcurrentHashMap<>();
+        }
+        anonymous = new Limit(anonymousPerMinute, anonymousBurst);
+        authenticated = new Limit(authenticatedPerMinute, authenticatedBurst);
+        maxPerStripe = Math.max(1, maxClients / STRIPES);
+
+        sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "rate-limit-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sweeper.scheduleWithFixedDelay(this::sweep, sweepIntervalSeconds, sweepIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        sweeper.shutdownNow();
+    }
+
+    /**
+     * Takes one token for the client.
+     *
+     * @param clientKey     IP address or principal name
+     * @param authenticated whether the client is a signed-in user, who gets the larger allowance
+     * @return 0 if the request may proceed, otherwise the nanoseconds until it would be allowed
+     */
+    public long tryAcquire(String clientKey, boolean authenticated) {
+        Limit limit = authenticated ? this.authenticated : anonymous;
+        String key = (authenticated ? "user:" : "ip:") + clientKey;
+        long now = System.nanoTime();
+
+        Map<String, Bucket> stripe = stripes[(key.hashCode() & 0x7fffffff) % STRIPES];
+        Bucket bucket = stripe.get(key);
+        if (bucket == null) {
+            if (stripe.size() >= maxPerStripe) {
+                makeRoom(stripe, now);
+            }
+            bucket = stripe.computeIfAbsent(key, k -> new Bucket(now));
+        }
+        return bucket.take(limit, now);
+    }
+
+    public int getTrackedClients() {
+        int total = 0;
+        for (Map<String, Bucket> stripe : stripes) {
+            total += stripe.size();
+        }
+        return total;
+    }
+
+    void sweep() {
+        long now = System.nanoTime();
+        int removed = 0;
+        for (Map<String, Bucket> stripe : stripes) {
+            removed += sweep(stripe, now);
+        }
+        if (removed > 0) {
+            log.debug("Evicted {} idle rate-limit buckets", removed);
+        }
+    }
+
+    private int sweep(Map<String, Bucket> stripe, long now) {
+        int before = stripe.size();
+        // A full bucket behaves exactly like a fresh one, so dropping it loses nothing
+        stripe.values().removeIf(bucket -> bucket.isFull(now));
+        return before - stripe.size();
+    }
+
+    /**
+     * Called when a stripe is at capacity: drop idle buckets, and if every bucket is still
+     * in use, drop the one closest to full.
+     */
+    private void makeRoom(Map<String, Bucket> stripe, long now) {
+        if (sweep(stripe, now) > 0) {
+            return;
+        }
+        String victim = null;
+        long oldest = Long.MAX_VALUE;
+        for (Map.Entry<String, Bucket> entry : stripe.entrySet()) {
+            long tat = entry.getValue().theoreticalArrival.get();
+            if (tat < oldest) {
+                oldest = tat;
+                victim = entry.getKey();
+            }
+        }
+        if (victim != null) {
+            stripe.remove(victim);
+        }
+    }
+
+    private record Limit(long emissionIntervalNanos, long burstToleranceNanos) {
+        Limit(int perMinute, int burst) {
+            this(TimeUnit.MINUTES.toNanos(1) / Math.max(1, perMinute),
+                    TimeUnit.MINUTES.toNanos(1) / Math.max(1, perMinute) * Math.max(0, burst - 1));
+        }
+    }
+
+    private static final class Bucket {
+        private final AtomicLong theoreticalArrival;
+
+        Bucket(long now) {
+            this.theoreticalArrival = new AtomicLong(now);
+        }
+
+        long take(Limit limit, long now) {
+            while (true) {
+                long tat = theoreticalArrival.get();
+                long next = Math.max(tat, now) + limit.emissionIntervalNanos();
+                long earliest = next - limit.emissionIntervalNanos() - limit.burstToleranceNanos();
+                if (earliest > now) {
+                    return earliest - now;
+                }
+                if (theoreticalArrival.compareAndSet(tat, next)) {
+                    return 0;
+                }
+            }
+        }
+
+        boolean isFull(long now) {
+            return theoreticalArrival.get() <= now;
+        }
+    }
+}
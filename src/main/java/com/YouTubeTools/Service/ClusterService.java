@@ -0,0 +1,188 @@
+package com.YouTubeTools.Service;
+
+import com.YouTubeTools.Model.ContentHashed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Cluster mode in the style of groupcache. Every instance gets the same static peer list
+ * and builds the same {@link ConsistentHashRing}, so all of them agree on which one owns
+ * each videoId. Only the owner loads a key from YouTube and keeps it in its cache. The other
+ * instances ask the owner over HTTP, and N instances cost one upstream call per video
+ * instead of N.
+ *
+ * Off unless {@code cluster.enabled=true}; a single instance behaves exactly as before.
+ * To try it on one machine, start three instances with
+ * {@code --server.port=808X --cluster.enabled=true --cluster.self=http://localhost:808X}
+ * and the same {@code --cluster.peers=http://localhost:8081,http://localhost:8082,http://localhost:8083}
+ * and {@code --cluster.secret=...}.
+ */
+@Slf4j
+@Service
+public class ClusterService {
+
+    public static final String SECRET_HEADER = "X-Cluster-Secret";
+
+    public enum PeerStatus { FOUND, NOT_FOUND, FAILED }
+
+    public record PeerResult(PeerStatus status, Object value) {}
+
+    // Set while serving a peer request, so an owner never forwards a key it was asked for
+    private static final ThreadLocal<Boolean> SERVING_PEER = new ThreadLocal<>();
+
+    @Getter
+    @Value("${cluster.enabled:false}")
+    private boolean enabled;
+
+    @Value("${cluster.self:}")
+    private String self;
+
+    @Value("${cluster.peers:}")
+    private String peers;
+
+    @Value("${cluster.virtual-nodes:160}")
+    private int virtualNodes;
+
+    @Value("${cluster.secret:}")
+    private String secret;
+
+    private final RestTemplate peerClient;
+    private final Counter mirrorHits;
+    private final Counter peerHits;
+    private final Counter peerMisses;
+    private final Counter peerFailures;
+
+    private ConsistentHashRing ring;
+
+    public ClusterService(RestTemplateBuilder restTemplateBuilder, MeterRegistry meterRegistry,
+                          @Value("${cluster.peer-connect-timeout-ms:1000}") long connectTimeoutMs,
+                          @Value("${cluster.peer-read-timeout-ms:10000}") long readTimeoutMs) {
+        // Short connect timeout so a dead owner costs little before falling back to a local load
+        this.peerClient = restTemplateBuilder
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .readTimeout(Duration.ofMillis(readTimeoutMs))
+                .build();
+        this.mirrorHits = lookupCounter(meterRegistry, "mirror");
+        this.peerHits = lookupCounter(meterRegistry, "peer");
+        this.peerMisses = lookupCounter(meterRegistry, "peer_not_found");
+        this.peerFailures = lookupCounter(meterRegistry, "peer_failed");
+    }
+
+    @PostConstruct
+    void init() {
+        if (!enabled) {
+            return;
+        }
+        List<String> nodes = Arrays.stream(peers.split(","))
+                .map(ClusterService::normalize)
+                .filter(node -> !node.isEmpty())
+                .distinct()
+                .toList();
+        self = normalize(self);
+        if (!nodes.contains(self)) {
+            throw new IllegalStateException("cluster.self " + self + " is not one of cluster.peers " + nodes);
+        }
+        if (secret.isBlank()) {
+            throw new IllegalStateException("cluster.secret must be set when cluster.enabled=true");
+        }
+        ring = new ConsistentHashRing(nodes, virtualNodes);
+        log.info("Cluster mode on: {} of {} peers", self, nodes.size());
+    }
+
+    /**
+     * Whether this instance should load and cache {@code key} itself: always outside
+     * cluster mode, when it owns the key, and while answering a peer.
+     */
+    public boolean isLocal(Object key) {
+        return !enabled || Boolean.TRUE.equals(SERVING_PEER.get()) || self.equals(ownerOf(key));
+    }
+
+    /**
+     * Owner of a cache key. Keys are routed by videoId, the part before any ':', so all
+     * languages of one video's transcript live on the same instance.
+     */
+    public String ownerOf(Object key) {
+        String routingKey = key.toString();
+        int separator = routingKey.indexOf(':');
+        return ring.ownerOf(separator < 0 ? routingKey : routingKey.substring(0, separator));
+    }
+
+    public <T> T serveAsOwner(Supplier<T> loader) {
+        SERVING_PEER.set(Boolean.TRUE);
+        try {
+            return loader.get();
+        } finally {
+            SERVING_PEER.remove();
+        }
+    }
+
+    public boolean isPeerSecret(String candidate) {
+        // Constant-time, so the secret cannot be guessed byte by byte from response times
+        return enabled && candidate != null && MessageDigest.isEqual(
+                secret.getBytes(StandardCharsets.UTF_8), candidate.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Gets {@code key} from its owner, which loads it through its own cache if needed. The
+     * content hash comes back in the ETag header, since it is not part of the JSON.
+     */
+    public PeerResult fetchFromOwner(String cacheName, Object key, Class<?> type) {
+        String owner = ownerOf(key);
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(SECRET_HEADER, secret);
+        try {
+            ResponseEntity<?> response = peerClient.exchange(owner + "/internal/cluster/cache/{cache}?key={key}",
+                    HttpMethod.GET, new HttpEntity<>(headers), type, cacheName, key.toString());
+            Object value = response.getBody();
+            String eTag = response.getHeaders().getETag();
+            if (value instanceof ContentHashed hashed && eTag != null) {
+                hashed.setContentHash(eTag.replace("\"", ""));
+            }
+            peerHits.increment();
+            return new PeerResult(PeerStatus.FOUND, value);
+        } catch (HttpClientErrorException.NotFound e) {
+            peerMisses.increment();
+            return new PeerResult(PeerStatus.NOT_FOUND, null);
+        } catch (RestClientException e) {
+            peerFailures.increment();
+            log.warn("Peer {} could not serve {} {}: {}", owner, cacheName, key, e.getMessage());
+            return new PeerResult(PeerStatus.FAILED, null);
+        }
+    }
+
+    public void recordMirrorHit() {
+        mirrorHits.increment();
+    }
+
+    private static String normalize(String node) {
+        String trimmed = node.trim();
+        return trimmed.endsWith("/") ? trimmed.substring(0, trimmed.length() - 1) : trimmed;
+    }
+
+    private static Counter lookupCounter(MeterRegistry meterRegistry, String source) {
+        return Counter.builder("cluster.cache.remote.lookups")
+                .description("Lookups of keys owned by another instance, by where they were answered")
+                .tag("source", source)
+                .register(meterRegistry);
+    }
+}
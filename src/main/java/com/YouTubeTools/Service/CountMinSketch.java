@@ -0,0 +1,72 @@
+package com.YouTubeTools.Service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Count-min sketch: approximate per-key counts in fixed memory. Estimates never undercount
+ * and overcount by at most {@code total / width} with probability {@code 1 - 2^-depth}.
+ * Lock-free; {@link #halve()} ages every counter so the counts describe recent traffic.
+ */
+public class CountMinSketch {
+
+    private final int depth;
+    private final int mask;
+    private final AtomicLongArray counters;
+
+    /**
+     * @param width counters per row, rounded up to a power of two
+     */
+    public CountMinSketch(int depth, int width) {
+        this.depth = depth;
+        int rowWidth = Integer.highestOneBit(Math.max(2, width - 1)) << 1;
+        this.mask = rowWidth - 1;
+        this.counters = new AtomicLongArray(depth * rowWidth);
+    }
+
+    /**
+     * Counts one occurrence of {@code key} and returns its new estimate.
+     */
+    public long add(Object key) {
+        long mixed = mix(key.hashCode());
+        int h1 = (int) mixed;
+        int h2 = (int) (mixed >>> 32) | 1;
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.incrementAndGet(index(row, h1 + row * h2)));
+        }
+        return estimate;
+    }
+
+    public long estimate(Object key) {
+        long mixed = mix(key.hashCode());
+        int h1 = (int) mixed;
+        int h2 = (int) (mixed >>> 32) | 1;
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.get(index(row, h1 + row * h2)));
+        }
+        return estimate;
+    }
+
+    /**
+     * Halves every counter. Concurrent adds may land before or after their counter is
+     * halved, which only blurs the estimate by one.
+     */
+    public void halve() {
+        for (int i = 0; i < counters.length(); i++) {
+            counters.getAndUpdate(i, count -> count >>> 1);
+        }
+    }
+
+    private int index(int row, int hash) {
+        return row * (mask + 1) + (hash & mask);
+    }
+
+    // Spreads String/record hash codes, whose low bits correlate, over all 64 bits
+    private static long mix(int hash) {
+        long z = hash * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
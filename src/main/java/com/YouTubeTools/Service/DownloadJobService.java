@@ -0,0 +1,318 @@
+package com.YouTubeTools.Service;
+
+import com.YouTubeTools.Exception.DownloadLimitExceededException;
+import com.YouTubeTools.Model.DownloadJob;
+import com.YouTubeTools.Model.ProcessStats;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Runs video downloads as background jobs on a bounded worker pool.
+ * Identical (videoId, quality, format) requests share one job, each user may only
+ * have a limited number of jobs in flight, and progress is pushed to SSE subscribers.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DownloadJobService {
+
+    // "[download]  42.0% of ~ 10.50MiB at ..."; the size is missing while yt-dlp does not know it yet
+    private static final Pattern PROGRESS_PATTERN = Pattern.compile(
+            "\\[download\\]\\s+(\\d+(?:\\.\\d+)?)%(?:\\s+of\\s+~?\\s*(\\d+(?:\\.\\d+)?)(B|KiB|MiB|GiB|TiB))?");
+    private static final List<String> SIZE_UNITS = List.of("B", "KiB", "MiB", "GiB", "TiB");
+    private static final long SSE_TIMEOUT_MS = Duration.ofMinutes(30).toMillis();
+    private static final Duration FAILED_JOB_RETENTION = Duration.ofMinutes(15);
+
+    private final DownloadStorageService storageService;
+    private final ProcessExecutionService processExecutionService;
+    private final DownloaderCommandFactory commandFactory;
+
+    @Value("${download.jobs.timeout-minutes:30}")
+    private long timeoutMinutes;
+
+    @Value("${download.jobs.workers:4}")
+    private int workers;
+
+    @Value("${download.jobs.queue-capacity:32}")
+    private int queueCapacity;
+
+    @Value("${download.jobs.per-user-limit:2}")
+    private int perUserLimit;
+
+    // Pause before a job that found every process slot busy goes back on the queue
+    @Value("${download.jobs.slot-retry-ms:2000}")
+    private long slotRetryMs;
+
+    private final Map<String, DownloadJob> jobsByKey = new ConcurrentHashMap<>();
+    private final Map<String, DownloadJob> jobsById = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> activeJobsPerUser = new ConcurrentHashMap<>();
+    private final Map<String, List<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    void init() {
+        AtomicInteger threadCounter = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "download-worker-" + threadCounter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        storageService.addEvictionListener(this::forgetJobsFor);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Returns the job producing the requested file, starting a new one only when
+     * no reusable job for the same (videoId, quality, format) exists.
+     */
+    public DownloadJob submit(String owner, String videoId, String quality, String format) {
+        pruneFailedJobs();
+
+        String key = DownloadJob.keyOf(videoId, quality, format);
+        DownloadJob[] created = new DownloadJob[1];
+
+        DownloadJob job = jobsByKey.compute(key, (k, current) -> {
+            if (current != null && isReusable(current)) {
+                return current;
+            }
+            if (!tryAcquireSlot(owner)) {
+                throw new DownloadLimitExceededException(
+                        "You already have " + perUserLimit + " downloads in progress. Please wait for one to finish.");
+            }
+            created[0] = new DownloadJob(k, owner, videoId, quality, format);
+            return created[0];
+        });
+
+        if (created[0] == null) {
+            log.info("Reusing download job {} for {}", job.getId(), key);
+            return job;
+        }
+
+        jobsById.put(job.getId(), job);
+        try {
+            executor.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            releaseSlot(owner);
+            jobsByKey.remove(key, job);
+            jobsById.remove(job.getId());
+            throw new DownloadLimitExceededException("The download queue is full. Please try again in a few minutes.");
+        }
+
+        log.info("Queued download job {} for {} (queue size: {})", job.getId(), key, executor.getQueue().size());
+        return job;
+    }
+
+    public DownloadJob getJob(String jobId) {
+        return jobsById.get(jobId);
+    }
+
+    /**
+     * Returns the finished file for a job, or null if the job is not complete or its
+     * file has been evicted from the scratch directory.
+     */
+    public Path getCompletedFile(String jobId) {
+        DownloadJob job = jobsById.get(jobId);
+        if (job == null || job.getStatus() != DownloadJob.Status.COMPLETED) {
+            return null;
+        }
+        return storageService.touch(job.getOutputFile()) ? job.getOutputFile() : null;
+    }
+
+    public SseEmitter subscribe(String jobId) {
+        return subscribe(jobId, new SseEmitter(SSE_TIMEOUT_MS));
+    }
+
+    SseEmitter subscribe(String jobId, SseEmitter emitter) {
+        DownloadJob job = jobsById.get(jobId);
+        if (job == null) {
+            return null;
+        }
+
+        List<SseEmitter> emitters = subscribers.computeIfAbsent(jobId, id -> new CopyOnWriteArrayList<>());
+        emitters.add(emitter);
+        emitter.onCompletion(() -> emitters.remove(emitter));
+        emitter.onTimeout(() -> emitters.remove(emitter));
+        emitter.onError(e -> emitters.remove(emitter));
+
+        // Send the current state straight away. Checked after registering: a job finishing
+        // in between has already completed its subscribers and will not see this one
+        send(emitter, job);
+        if (job.getStatus().isTerminal()) {
+            subscribers.remove(jobId);
+            emitter.complete();
+        }
+        return emitter;
+    }
+
+    private void run(DownloadJob job) {
+        job.markRunning();
+        publish(job);
+
+        String baseName = job.getVideoId() + "_" + job.getQuality() + "_" + job.getId();
+        Path target = storageService.allocate(baseName + "." + job.getFormat());
+        boolean requeued = false;
+
+        try {
+            List<String> command = commandFactory.fileDownload(job.getVideoId(), job.getQuality(), job.getFormat(),
+                    storageService.allocate(baseName + ".%(ext)s"));
+
+            int[] lastPublished = {-1};
+            ProcessStats stats = processExecutionService.run(command, Duration.ofMinutes(timeoutMinutes), line -> {
+                Matcher matcher = PROGRESS_PATTERN.matcher(line);
+                if (matcher.find()) {
+                    double percent = Double.parseDouble(matcher.group(1));
+                    long total = sizeOf(matcher);
+                    job.updateProgress(percent, total > 0 ? (long) (total * percent / 100) : job.getBytesWritten());
+                    if ((int) percent != lastPublished[0]) {
+                        lastPublished[0] = (int) percent;
+                        publish(job);
+                    }
+                }
+            });
+
+            if (!stats.isSuccessful() || !Files.exists(target)) {
+                storageService.release(target);
+                fail(job, stats.isTimedOut()
+                        ? "Download timed out after " + timeoutMinutes + " minutes"
+                        : "Downloader exited with code " + stats.getExitCode());
+                return;
+            }
+
+            storageService.commit(target);
+            job.markCompleted(target, Files.size(target));
+            log.info("Download job {} completed: {} bytes", job.getId(), job.getBytesWritten());
+            publish(job);
+
+        } catch (DownloadLimitExceededException e) {
+            // Streams and manifest loads hold every process slot; wait for one instead of failing
+            storageService.release(target);
+            job.markQueued();
+            publish(job);
+            requeue(job);
+            requeued = true;
+        } catch (Exception e) {
+            log.error("Download job {} failed", job.getId(), e);
+            storageService.release(target);
+            fail(job, "Download failed: " + e.getMessage());
+        } finally {
+            if (!requeued) {
+                releaseSlot(job.getOwner());
+                completeSubscribers(job);
+            }
+        }
+    }
+
+    private void requeue(DownloadJob job) {
+        CompletableFuture.delayedExecutor(slotRetryMs, TimeUnit.MILLISECONDS).execute(() -> {
+            try {
+                executor.execute(() -> run(job));
+            } catch (RejectedExecutionException e) {
+                if (executor.isShutdown()) {
+                    fail(job, "The server is shutting down");
+                    releaseSlot(job.getOwner());
+                    completeSubscribers(job);
+                } else {
+                    requeue(job);
+                }
+            }
+        });
+    }
+
+    // Total size from a progress line, 0 when it has none
+    private static long sizeOf(Matcher progress) {
+        if (progress.group(2) == null) {
+            return 0L;
+        }
+        double multiplier = Math.pow(1024, SIZE_UNITS.indexOf(progress.group(3)));
+        return (long) (Double.parseDouble(progress.group(2)) * multiplier);
+    }
+
+    private boolean isReusable(DownloadJob job) {
+        return switch (job.getStatus()) {
+            case QUEUED, RUNNING -> true;
+            case COMPLETED -> storageService.touch(job.getOutputFile());
+            case FAILED -> false;
+        };
+    }
+
+    private boolean tryAcquireSlot(String owner) {
+        AtomicInteger active = activeJobsPerUser.computeIfAbsent(owner, o -> new AtomicInteger());
+        if (active.incrementAndGet() > perUserLimit) {
+            active.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    private void releaseSlot(String owner) {
+        activeJobsPerUser.computeIfPresent(owner, (o, active) -> active.decrementAndGet() <= 0 ? null : active);
+    }
+
+    private void fail(DownloadJob job, String error) {
+        job.markFailed(error);
+        jobsByKey.remove(job.getKey(), job);
+        log.warn("Download job {} failed: {}", job.getId(), error);
+        publish(job);
+    }
+
+    private void forgetJobsFor(Path evictedFile) {
+        jobsById.values().removeIf(job -> evictedFile.equals(job.getOutputFile()));
+        jobsByKey.values().removeIf(job -> evictedFile.equals(job.getOutputFile()));
+    }
+
+    private void pruneFailedJobs() {
+        Instant cutoff = Instant.now().minus(FAILED_JOB_RETENTION);
+        jobsById.values().removeIf(job -> job.getStatus() == DownloadJob.Status.FAILED
+                && job.getFinishedAt() != null && job.getFinishedAt().isBefore(cutoff));
+    }
+
+    private void publish(DownloadJob job) {
+        List<SseEmitter> emitters = subscribers.get(job.getId());
+        if (emitters != null) {
+            emitters.forEach(emitter -> send(emitter, job));
+        }
+    }
+
+    private void completeSubscribers(DownloadJob job) {
+        List<SseEmitter> emitters = subscribers.remove(job.getId());
+        if (emitters != null) {
+            emitters.forEach(SseEmitter::complete);
+        }
+    }
+
+    private void send(SseEmitter emitter, DownloadJob job) {
+        try {
+            emitter.send(SseEmitter.event()
+                    .name(job.getStatus().name().toLowerCase())
+                    .data(job));
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Dropping download subscriber for job {}: {}", job.getId(), e.getMessage());
+            emitter.completeWithError(e);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.YouTubeTools.Service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Owns the scratch directory that finished downloads are written to.
+ * Files are tracked in access order and the least recently served ones are
+ * deleted once the directory grows past its quota.
+ */
+@Slf4j
+@Service
+public class DownloadStorageService {
+
+    @Value("${download.scratch.dir:${java.io.tmpdir}/youtube-tools-downloads}")
+    private String scratchDir;
+
+    @Value("${download.scratch.quota-mb:2048}")
+    private long quotaMb;
+
+    private final LinkedHashMap<Path, Long> files = new LinkedHashMap<>(16, 0.75f, true);
+    private final List<Consumer<Path>> evictionListeners = new CopyOnWriteArrayList<>();
+    private Path root;
+    private long usedBytes;
+
+    @PostConstruct
+    void init() throws IOException {
+        root = Paths.get(scratchDir).toAbsolutePath().normalize();
+        Files.createDirectories(root);
+
+        // Anything left over from a previous run is not tracked by any job
+        try (Stream<Path> leftovers = Files.list(root)) {
+            leftovers.forEach(this::deleteQuietly);
+        }
+        log.info("Download scratch directory: {} (quota {} MB)", root, quotaMb);
+    }
+
+    public Path allocate(String fileName) {
+        return root.resolve(fileName).normalize();
+    }
+
+    public void addEvictionListener(Consumer<Path> listener) {
+        evictionListeners.add(listener);
+    }
+
+    /**
+     * Registers a finished file and evicts least recently used files until the
+     * scratch directory fits the quota again. The committed file itself is never evicted here.
+     */
+    public void commit(Path file) throws IOException {
+        long size = Files.size(file);
+        List<Path> evicted = new ArrayList<>();
+
+        synchronized (this) {
+            Long previous = files.put(file, size);
+            usedBytes += size - (previous != null ? previous : 0L);
+
+            long quotaBytes = quotaMb * 1024 * 1024;
+            Iterator<Map.Entry<Path, Long>> it = files.entrySet().iterator();
+            while (usedBytes > quotaBytes && it.hasNext()) {
+                Map.Entry<Path, Long> eldest = it.next();
+                if (eldest.getKey().equals(file)) {
+                    continue;
+                }
+                usedBytes -= eldest.getValue();
+                evicted.add(eldest.getKey());
+                it.remove();
+            }
+        }
+
+        for (Path path : evicted) {
+            log.info("Evicting {} from download scratch directory", path.getFileName());
+            deleteQuietly(path);
+            evictionListeners.forEach(listener -> listener.accept(path));
+        }
+    }
+
+    /**
+     * Marks a file as recently used. Returns false if it has already been evicted.
+     */
+    public synchronized boolean touch(Path file) {
+        return files.get(file) != null && Files.exists(file);
+    }
+
+    public void release(Path file) {
+        synchronized (this) {
+            Long size = files.remove(file);
+            if (size != null) {
+                usedBytes -= size;
+            }
+        }
+        deleteQuietly(file);
+    }
+
+    public synchronized long getUsedBytes() {
+        return usedBytes;
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete scratch file {}: {}", path, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.YouTubeTools.Service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds yt-dlp command lines for the different ways we invoke the downloader.
+ */
+@Component
+public class DownloaderCommandFactory {
+
+    @Value("${download.tool.path:yt-dlp}")
+    private String toolPath;
+
+    /**
+     * Download into a file, converting/merging as needed. Progress is printed one line per update.
+     */
+    public List<String> fileDownload(String videoId, String quality, String format, Path outputTemplate) {
+        List<String> command = baseCommand();
+        command.add("--newline");
+
+        if (format.equalsIgnoreCase("mp3")) {
+            command.add("-f");
+            command.add("bestaudio");
+            command.add("-x");
+            command.add("--audio-format");
+            command.add("mp3");
+            command.add("--audio-quality");
+            command.add(quality.replace("kbps", "K"));
+        } else if (isAudioRequest(quality, format)) {
+            command.add("-f");
+            command.add("bestaudio[ext=" + format.toLowerCase() + "]/bestaudio");
+        } else {
+            String height = heightOf(quality);
+            command.add("-f");
+            command.add("bestvideo[height<=" + height + "]+bestaudio/best[height<=" + height + "]");
+            command.add("--merge-output-format");
+            command.add(format.toLowerCase());
+        }
+
+        command.add("-o");
+        command.add(outputTemplate.toString());
+        command.add(watchUrl(videoId));
+        return command;
+    }
+
+    /**
+     * Download to stdout. Only single-file (progressive) streams can be written to a pipe,
+     * so no merging or audio conversion happens here.
+     */
+    public List<String> streamDownload(String videoId, String quality, String format) {
+        List<String> command = baseCommand();
+        String ext = format.toLowerCase();
+
+        command.add("-f");
+        if (isAudioRequest(quality, format)) {
+            command.add("bestaudio[ext=" + ext + "]/bestaudio");
+        } else {
+            String height = heightOf(quality);
+            command.add("best[height<=" + height + "][ext=" + ext + "]/best[height<=" + height + "]");
+        }
+
+        command.add("-o");
+        command.add("-");
+        command.add(watchUrl(videoId));
+        return command;
+    }
+
+    /**
+     * Dump the full format list as a single JSON document on stdout without downloading anything.
+     */
+    public List<String> formatManifest(String videoId) {
+        List<String> command = baseCommand();
+        command.add("--skip-download");
+        command.add("-J");
+        command.add(watchUrl(videoId));
+        return command;
+    }
+
+    public boolean isAudioRequest(String quality, String format) {
+        String ext = format.toLowerCase();
+        return quality.endsWith("kbps") || ext.equals("mp3") || ext.equals("m4a");
+    }
+
+    /**
+     * Whether the format can be produced without post-processing, i.e. streamed through a pipe.
+     */
+    public boolean isStreamable(String format) {
+        return !format.equalsIgnoreCase("mp3");
+    }
+
+    private List<String> baseCommand() {
+        List<String> command = new ArrayList<>();
+        command.add(toolPath);
+        command.add("--no-playlist");
+        command.add("--no-warnings");
+        return command;
+    }
+
+    private String heightOf(String quality) {
+        return quality.replaceAll("[^0-9]", "");
+    }
+
+    private String watchUrl(String videoId) {
+        return "https://www.youtube.com/watch?v=" + videoId;
+    }
+}
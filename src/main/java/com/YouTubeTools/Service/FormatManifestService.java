@@ -0,0 +1,187 @@
+package com.YouTubeTools.Service;
+
+import com.YouTubeTools.Model.FormatManifest;
+import com.YouTubeTools.Model.ProcessStats;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Produces the list of streams that are actually available for a video, with exact
+ * sizes, bitrates and codecs as reported by the downloader backend. Manifests are cached
+ * and refreshed in the background once they get old, so callers normally hit memory only.
+ * Failures are cached too, briefly, so a missing or rate-limited downloader is not asked
+ * again on every page load while real downloads wait for its process slots.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FormatManifestService {
+
+    private final ProcessExecutionService processExecutionService;
+    private final DownloaderCommandFactory commandFactory;
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Value("${download.manifest.ttl-minutes:180}")
+    private long ttlMinutes;
+
+    @Value("${download.manifest.refresh-minutes:60}")
+    private long refreshMinutes;
+
+    @Value("${download.manifest.max-entries:5000}")
+    private long maxEntries;
+
+    @Value("${download.manifest.timeout-seconds:30}")
+    private long timeoutSeconds;
+
+    @Value("${download.manifest.failure-ttl-seconds:45}")
+    private long failureTtlSeconds;
+
+    private ExecutorService refreshExecutor;
+    // Empty when the downloader could not describe the video
+    private LoadingCache<String, Optional<FormatManifest>> manifests;
+
+    @PostConstruct
+    void init() {
+        refreshExecutor = Executors.newFixedThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "manifest-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        manifests = Caffeine.newBuilder()
+                .expireAfter(new Expiry<String, Optional<FormatManifest>>() {
+                    @Override
+                    public long expireAfterCreate(String videoId, Optional<FormatManifest> manifest, long currentTime) {
+                        return manifest.isPresent()
+                                ? Duration.ofMinutes(ttlMinutes).toNanos()
+                                : Duration.ofSeconds(failureTtlSeconds).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String videoId, Optional<FormatManifest> manifest, long currentTime,
+                                                  long currentDuration) {
+                        return expireAfterCreate(videoId, manifest, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String videoId, Optional<FormatManifest> manifest, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .refreshAfterWrite(Duration.ofMinutes(refreshMinutes))
+                .maximumSize(maxEntries)
+                .executor(refreshExecutor)
+                .recordStats()
+                .build(this::loadManifest);
+        CaffeineCacheMetrics.monitor(meterRegistry, manifests, "formatManifests");
+    }
+
+    @PreDestroy
+    void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    /**
+     * Returns the cached manifest, loading it on first use. Returns null if the
+     * downloader backend cannot describe the video.
+     */
+    public FormatManifest getManifest(String videoId) {
+        try {
+            return manifests.get(videoId).orElse(null);
+        } catch (Exception e) {
+            log.warn("Could not load format manifest for {}: {}", videoId, e.getMessage());
+            return null;
+        }
+    }
+
+    private Optional<FormatManifest> loadManifest(String videoId) {
+        try {
+            return Optional.ofNullable(fetchManifest(videoId));
+        } catch (Exception e) {
+            log.warn("Could not load format manifest for {}: {}", videoId, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private FormatManifest fetchManifest(String videoId) throws Exception {
+        ByteArrayOutputStream json = new ByteArrayOutputStream();
+        ProcessStats stats = processExecutionService.stream(commandFactory.formatManifest(videoId),
+                Duration.ofSeconds(timeoutSeconds), json, line -> log.debug("[manifest {}] {}", videoId, line));
+
+        if (!stats.isSuccessful() || json.size() == 0) {
+            log.warn("Downloader could not list formats for {} (exit={}, timedOut={})",
+                    videoId, stats.getExitCode(), stats.isTimedOut());
+            return null;
+        }
+
+        FormatManifest manifest = parseManifest(videoId, objectMapper.readTree(json.toByteArray()));
+        log.info("Loaded format manifest for {}: {} streams in {}ms",
+                videoId, manifest.getFormats().size(), stats.getWallTime().toMillis());
+        return manifest;
+    }
+
+    FormatManifest parseManifest(String videoId, JsonNode root) {
+        List<FormatManifest.StreamFormat> formats = new ArrayList<>();
+
+        for (JsonNode format : root.path("formats")) {
+            String videoCodec = format.path("vcodec").asText("none");
+            String audioCodec = format.path("acodec").asText("none");
+            if (videoCodec.equals("none") && audioCodec.equals("none")) {
+                continue; // storyboards and other non-media entries
+            }
+
+            Long size = null;
+            boolean exact = false;
+            if (format.hasNonNull("filesize")) {
+                size = format.get("filesize").asLong();
+                exact = true;
+            } else if (format.hasNonNull("filesize_approx")) {
+                size = format.get("filesize_approx").asLong();
+            }
+
+            formats.add(FormatManifest.StreamFormat.builder()
+                    .formatId(format.path("format_id").asText())
+                    .ext(format.path("ext").asText())
+                    .height(format.hasNonNull("height") ? format.get("height").asInt() : null)
+                    .fps(format.hasNonNull("fps") ? format.get("fps").asInt() : null)
+                    .videoCodec(videoCodec)
+                    .audioCodec(audioCodec)
+                    .bitrateKbps(format.hasNonNull("tbr") ? format.get("tbr").asDouble() : null)
+                    .audioBitrateKbps(format.hasNonNull("abr") ? format.get("abr").asDouble() : null)
+                    .sizeBytes(size)
+                    .sizeExact(exact)
+                    .build());
+        }
+
+        return FormatManifest.builder()
+                .videoId(videoId)
+                .title(root.path("title").asText(null))
+                .channelTitle(root.path("channel").asText(root.path("uploader").asText(null)))
+                .thumbnailUrl(root.path("thumbnail").asText(null))
+                .durationSeconds(root.hasNonNull("duration") ? root.get("duration").asLong() : null)
+                .formats(formats)
+                .fetchedAt(Instant.now())
+                .build();
+    }
+}
@@ -0,0 +1,171 @@
+package com.YouTubeTools.Service;
+
+import com.YouTubeTools.Config.CacheConfig;
+import com.YouTubeTools.Model.VideoTranscript;
+import com.github.benmanes.caffeine.cache.Policy;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+/**
+ * Stale-while-revalidate for popular keys. Every {@code cache.popularity.refresh-scan-seconds}
+ * it walks the {@link PopularityTracker} top K of each tracked cache and reloads entries that
+ * have used up {@code cache.popularity.refresh-ahead} of their TTL. The reload replaces the
+ * entry in place, so a viral video never expires: readers keep getting the old value while
+ * the refresh runs and never wait on the upstream themselves.
+ *
+ * Cold keys are left to expire and reload on demand as before.
+ */
+@Slf4j
+@Service
+public class HotKeyRefresher {
+
+    private final PopularityTracker popularityTracker;
+    private final CacheManager cacheManager;
+    private final ClusterService clusterService;
+    // Reload one key through the service's @CachePut method; false when nothing was cached
+    private final Map<String, Predicate<Object>> reloaders;
+    private final Map<String, Counter> refreshed = new HashMap<>();
+    private final Map<String, Counter> failed = new HashMap<>();
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    @Value("${cache.popularity.refresh-scan-seconds:30}")
+    private long scanSeconds;
+
+    @Value("${cache.popularity.refresh-ahead:0.8}")
+    private double refreshAhead;
+
+    @Value("${cache.popularity.refresh-threads:2}")
+    private int refreshThreads;
+
+    private ScheduledExecutorService executor;
+
+    public HotKeyRefresher(PopularityTracker popularityTracker, CacheManager cacheManager,
+                           ClusterService clusterService, YouTubeService youTubeService,
+                           TranscriptService transcriptService, MeterRegistry meterRegistry) {
+        this.popularityTracker = popularityTracker;
+        this.cacheManager = cacheManager;
+        this.clusterService = clusterService;
+        this.reloaders = Map.of(
+                "videoDetails", key -> youTubeService.refreshVideoDetails((String) key) != null,
+                "transcripts", key -> {
+                    String[] parts = ((String) key).split(":", 2);
+                    VideoTranscript transcript = transcriptService.refreshTranscript(parts[0], parts[1]);
+                    return transcript != null && transcript.getContentHash() != null;
+                });
+        for (String cacheName : CacheConfig.POPULARITY_TRACKED) {
+            refreshed.put(cacheName, refreshCounter(meterRegistry, cacheName, "refreshed"));
+            failed.put(cacheName, refreshCounter(meterRegistry, cacheName, "failed"));
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        AtomicInteger threadCounter = new AtomicInteger();
+        executor = Executors.newScheduledThreadPool(refreshThreads, runnable -> {
+            Thread thread = new Thread(runnable, "hot-key-refresh-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::scan, scanSeconds, scanSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    void scan() {
+        for (String cacheName : CacheConfig.POPULARITY_TRACKED) {
+            Cache cache = cacheManager.getCache(cacheName);
+            if (cache == null || !(cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> nativeCache)) {
+                continue;
+            }
+            @SuppressWarnings("unchecked")
+            Optional<Policy.FixedExpiration<Object, Object>> expiry =
+                    ((com.github.benmanes.caffeine.cache.Cache<Object, Object>) nativeCache).policy().expireAfterWrite();
+            if (expiry.isEmpty()) {
+                continue;
+            }
+            Duration refreshAfter = Duration.ofMillis((long) (expiry.get().getExpiresAfter().toMillis() * refreshAhead));
+
+            for (PopularityTracker.HotKey hotKey : popularityTracker.topK(cacheName)) {
+                Optional<Duration> age = expiry.get().ageOf(hotKey.key());
+                // Absent keys expired or were evicted; the next request loads them as usual
+                if (age.isPresent() && age.get().compareTo(refreshAfter) >= 0) {
+                    refresh(cacheName, hotKey.key());
+                }
+            }
+        }
+    }
+
+    private void refresh(String cacheName, Object key) {
+        String flightKey = cacheName + "/" + key;
+        if (!inFlight.add(flightKey)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    if (reload(cacheName, key)) {
+                        log.debug("Refreshed hot {} entry {}", cacheName, key);
+                    }
+                } catch (Exception e) {
+                    // The stale entry stays until it expires; the next scan tries again
+                    log.warn("Could not refresh hot {} entry {}: {}", cacheName, key, e.getMessage());
+                } finally {
+                    inFlight.remove(flightKey);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(flightKey);
+        }
+    }
+
+    /**
+     * Loads one key of a tracked cache from upstream and puts it in the cache, replacing
+     * any current entry. Returns whether a value was cached. In cluster mode only the
+     * key's owner reloads it; the other instances get it from the owner on demand.
+     */
+    public boolean reload(String cacheName, Object key) {
+        Predicate<Object> reloader = reloaders.get(cacheName);
+        if (reloader == null || !clusterService.isLocal(key)) {
+            return false;
+        }
+        try {
+            boolean cached = reloader.test(key);
+            (cached ? refreshed : failed).get(cacheName).increment();
+            return cached;
+        } catch (RuntimeException e) {
+            failed.get(cacheName).increment();
+            throw e;
+        }
+    }
+
+    private static Counter refreshCounter(MeterRegistry meterRegistry, String cacheName, String outcome) {
+        return Counter.builder("cache.hot.refreshes")
+                .description("Background reloads of popular cache entries, ahead of expiry or from the startup snapshot")
+                .tag("cache", cacheName)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
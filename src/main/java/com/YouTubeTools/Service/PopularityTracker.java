@@ -0,0 +1,149 @@
+package com.YouTubeTools.Service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Tracks how often each cache key is requested, per cache: a {@link CountMinSketch} for the
+ * counts and a small min-heap of the current top K keys. Both are halved every
+ * {@code cache.popularity.decay-seconds}, so a video that went viral last week drops out
+ * once people stop asking for it.
+ *
+ * Recording is on the request path of every cached lookup. The common case, a key that is
+ * neither hot nor close to it, costs one sketch update and one volatile read.
+ */
+@Component
+public class PopularityTracker {
+
+    public record HotKey(Object key, long hits) {}
+
+    @Value("${cache.popularity.top-k:20}")
+    private int topK;
+
+    @Value("${cache.popularity.sketch-depth:4}")
+    private int sketchDepth;
+
+    @Value("${cache.popularity.sketch-width:4096}")
+    private int sketchWidth;
+
+    @Value("${cache.popularity.decay-seconds:300}")
+    private long decaySeconds;
+
+    private final Map<String, Tracker> trackers = new ConcurrentHashMap<>();
+    private final AtomicLong lastDecayNanos = new AtomicLong(System.nanoTime());
+
+    public void record(String cacheName, Object key) {
+        maybeDecay();
+        trackers.computeIfAbsent(cacheName, name -> new Tracker()).record(key);
+    }
+
+    public boolean isHot(String cacheName, Object key) {
+        Tracker tracker = trackers.get(cacheName);
+        return tracker != null && tracker.hits.containsKey(key);
+    }
+
+    /**
+     * Current hot keys of one cache, most requested first.
+     */
+    public List<HotKey> topK(String cacheName) {
+        Tracker tracker = trackers.get(cacheName);
+        return tracker != null ? tracker.snapshot() : List.of();
+    }
+
+    public Map<String, List<HotKey>> snapshot() {
+        Map<String, List<HotKey>> snapshot = new LinkedHashMap<>();
+        trackers.forEach((name, tracker) -> snapshot.put(name, tracker.snapshot()));
+        return snapshot;
+    }
+
+    /**
+     * Halves all counts now rather than waiting for the next decay period.
+     */
+    public void decay() {
+        lastDecayNanos.set(System.nanoTime());
+        trackers.values().forEach(Tracker::decay);
+    }
+
+    private void maybeDecay() {
+        long last = lastDecayNanos.get();
+        long now = System.nanoTime();
+        // Only the caller that wins the CAS pays for the decay
+        if (now - last >= TimeUnit.SECONDS.toNanos(decaySeconds) && lastDecayNanos.compareAndSet(last, now)) {
+            trackers.values().forEach(Tracker::decay);
+        }
+    }
+
+    private final class Tracker {
+        private final CountMinSketch sketch = new CountMinSketch(sketchDepth, sketchWidth);
+        private final ReentrantLock lock = new ReentrantLock();
+        // Heap members and their counts; concurrent so isHot and the fast path need no lock
+        private final Map<Object, Long> hits = new ConcurrentHashMap<>();
+        private final PriorityQueue<Object> heap = new PriorityQueue<>(Comparator.comparingLong(hits::get));
+        private volatile long admissionThreshold;
+
+        void record(Object key) {
+            long estimate = sketch.add(key);
+            if (estimate <= admissionThreshold && !hits.containsKey(key)) {
+                return;
+            }
+            lock.lock();
+            try {
+                if (hits.containsKey(key)) {
+                    // Re-insert so the heap sees the new count
+                    heap.remove(key);
+                    hits.put(key, estimate);
+                    heap.add(key);
+                } else if (heap.size() < topK) {
+                    hits.put(key, estimate);
+                    heap.add(key);
+                } else if (estimate > hits.get(heap.peek())) {
+                    hits.remove(heap.poll());
+                    hits.put(key, estimate);
+                    heap.add(key);
+                }
+                admissionThreshold = heap.size() < topK ? 0 : hits.get(heap.peek());
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void decay() {
+            sketch.halve();
+            lock.lock();
+            try {
+                Map<Object, Long> halved = new HashMap<>();
+                hits.forEach((key, count) -> {
+                    if (count > 1) {
+                        halved.put(key, count >>> 1);
+                    }
+                });
+                heap.clear();
+                hits.clear();
+                hits.putAll(halved);
+                heap.addAll(halved.keySet());
+                admissionThreshold = heap.size() < topK ? 0 : hits.get(heap.peek());
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        List<HotKey> snapshot() {
+            List<HotKey> snapshot = new ArrayList<>();
+            hits.forEach((key, count) -> snapshot.add(new HotKey(key, count)));
+            snapshot.sort(Comparator.comparingLong(HotKey::hits).reversed());
+            return snapshot;
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package com.YouTubeTools.Service;
+
+import com.YouTubeTools.Exception.DownloadLimitExceededException;
+import com.YouTubeTools.Exception.ProcessExecutionException;
+import com.YouTubeTools.Model.ProcessStats;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Runs external tools (yt-dlp and friends) with a cap on concurrent child processes.
+ * Output is either piped straight into a caller supplied stream as it is produced or
+ * consumed line by line. Every run is bounded by a timeout, the whole process tree is
+ * killed when the consumer goes away, and wall/CPU time is reported back.
+ */
+@Slf4j
+@Service
+public class ProcessExecutionService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final long CPU_SAMPLE_INTERVAL_MS = 500;
+
+    private final Semaphore slots;
+    private final int maxConcurrent;
+    private final long acquireTimeoutMs;
+    private final ScheduledExecutorService watchdog;
+    private final ExecutorService stderrPumps;
+
+    public ProcessExecutionService(@Value("${process.max-concurrent:4}") int maxConcurrent,
+                                   @Value("${process.acquire-timeout-ms:5000}") long acquireTimeoutMs) {
+        this.maxConcurrent = maxConcurrent;
+        this.acquireTimeoutMs = acquireTimeoutMs;
+        this.slots = new Semaphore(maxConcurrent, true);
+        this.watchdog = Executors.newSingleThreadScheduledExecutor(daemonThreads("process-watchdog"));
+        this.stderrPumps = Executors.newCachedThreadPool(daemonThreads("process-stderr"));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        watchdog.shutdownNow();
+        stderrPumps.shutdownNow();
+    }
+
+    /**
+     * Pipes the process stdout into {@code sink} chunk by chunk. Stderr lines go to
+     * {@code stderrListener}. If writing to the sink fails (client disconnected) the
+     * process tree is killed and the returned stats are marked as aborted.
+     */
+    public ProcessStats stream(List<String> command, Duration timeout, OutputStream sink, Consumer<String> stderrListener) {
+        return execute(reserveSlot(command), command, timeout, sink, stderrListener);
+    }
+
+    /**
+     * Like {@link #stream(List, Duration, OutputStream, Consumer)}, in a slot the caller
+     * reserved earlier, e.g. before committing an HTTP response it can still turn into a 503.
+     * The slot is released when the process is done.
+     */
+    public ProcessStats stream(Slot slot, List<String> command, Duration timeout, OutputStream sink,
+                               Consumer<String> stderrListener) {
+        return execute(slot, command, timeout, sink, stderrListener);
+    }
+
+    /**
+     * Runs the process with stderr merged into stdout and hands every output line to {@code outputListener}.
+     */
+    public ProcessStats run(List<String> command, Duration timeout, Consumer<String> outputListener) {
+        return execute(reserveSlot(command), command, timeout, null, outputListener);
+    }
+
+    /**
+     * Takes a process slot, waiting up to {@code process.acquire-timeout-ms} for one.
+     *
+     * @throws DownloadLimitExceededException if every slot stays busy
+     */
+    public Slot reserveSlot(List<String> command) {
+        try {
+            if (!slots.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+                log.warn("No free process slot for {} ({} running)", command.get(0), maxConcurrent);
+                throw new DownloadLimitExceededException("The server is busy with other downloads. Please try again shortly.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ProcessExecutionException("Interrupted while waiting for a process slot", e);
+        }
+        return new Slot();
+    }
+
+    public int getActiveProcesses() {
+        return maxConcurrent - slots.availablePermits();
+    }
+
+    private ProcessStats execute(Slot slot, List<String> command, Duration timeout, OutputStream sink,
+                                 Consumer<String> lineListener) {
+        long startNanos = System.nanoTime();
+        AtomicBoolean timedOut = new AtomicBoolean();
+        AtomicReference<Duration> cpuTime = new AtomicReference<>(Duration.ZERO);
+        boolean aborted = false;
+        long bytesStreamed = 0;
+        Process process = null;
+        ScheduledFuture<?> timeoutTask = null;
+        ScheduledFuture<?> cpuSampler = null;
+
+        try {
+            process = new ProcessBuilder(command)
+                    .redirectErrorStream(sink == null)
+                    .start();
+            Process running = process;
+
+            timeoutTask = watchdog.schedule(() -> {
+                timedOut.set(true);
+                log.warn("Process {} exceeded timeout of {}s, killing it", running.pid(), timeout.toSeconds());
+                destroyTree(running);
+            }, timeout.toMillis(), TimeUnit.MILLISECONDS);
+            cpuSampler = watchdog.scheduleAtFixedRate(() -> sampleCpu(running, cpuTime),
+                    CPU_SAMPLE_INTERVAL_MS, CPU_SAMPLE_INTERVAL_MS, TimeUnit.MILLISECONDS);
+
+            if (sink != null) {
+                stderrPumps.execute(() -> pumpLines(running.getErrorStream(), lineListener));
+                byte[] buffer = new byte[BUFFER_SIZE];
+                try (InputStream stdout = running.getInputStream()) {
+                    int read;
+                    while ((read = stdout.read(buffer)) != -1) {
+                        try {
+                            sink.write(buffer, 0, read);
+                            sink.flush();
+                        } catch (IOException e) {
+                            log.info("Consumer of process {} went away after {} bytes, killing it", running.pid(), bytesStreamed);
+                            aborted = true;
+                            destroyTree(running);
+                            break;
+                        }
+                        bytesStreamed += read;
+                    }
+                } catch (IOException e) {
+                    if (!timedOut.get()) {
+                        throw e;
+                    }
+                }
+            } else {
+                pumpLines(running.getInputStream(), lineListener);
+            }
+
+            sampleCpu(running, cpuTime);
+            int exitCode = running.waitFor();
+
+            ProcessStats stats = ProcessStats.builder()
+                    .pid(running.pid())
+                    .exitCode(exitCode)
+                    .wallTime(Duration.ofNanos(System.nanoTime() - startNanos))
+                    .cpuTime(cpuTime.get())
+                    .bytesStreamed(bytesStreamed)
+                    .timedOut(timedOut.get())
+                    .aborted(aborted)
+                    .build();
+
+            log.info("Process {} ({}) finished: exit={}, wall={}ms, cpu={}ms, bytes={}, timedOut={}, aborted={}",
+                    stats.getPid(), command.get(0), exitCode, stats.getWallTime().toMillis(),
+                    stats.getCpuTime().toMillis(), bytesStreamed, stats.isTimedOut(), aborted);
+            return stats;
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ProcessExecutionException("Interrupted while waiting for " + command.get(0), e);
+        } catch (IOException e) {
+            throw new ProcessExecutionException("Failed to run " + command.get(0) + ": " + e.getMessage(), e);
+        } finally {
+            if (timeoutTask != null) {
+                timeoutTask.cancel(false);
+            }
+            if (cpuSampler != null) {
+                cpuSampler.cancel(false);
+            }
+            if (process != null && process.isAlive()) {
+                destroyTree(process);
+            }
+            slot.close();
+        }
+    }
+
+    /**
+     * A reserved process slot. Closing it more than once releases it only once.
+     */
+    public final class Slot implements AutoCloseable {
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Slot() {
+        }
+
+        @Override
+        public void close() {
+            if (released.compareAndSet(false, true)) {
+                slots.release();
+            }
+        }
+    }
+
+    private void pumpLines(InputStream stream, Consumer<String> listener) {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (listener != null) {
+                    listener.accept(line);
+                }
+            }
+        } catch (IOException e) {
+            // Stream is closed when the process is killed
+            log.debug("Process output stream closed: {}", e.getMessage());
+        }
+    }
+
+    private void sampleCpu(Process process, AtomicReference<Duration> cpuTime) {
+        process.toHandle().info().totalCpuDuration().ifPresent(cpuTime::set);
+    }
+
+    private void destroyTree(Process process) {
+        process.descendants().forEach(ProcessHandle::destroyForcibly);
+        process.destroyForcibly();
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
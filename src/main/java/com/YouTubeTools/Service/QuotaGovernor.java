@@ -0,0 +1,202 @@
+package com.YouTubeTools.Service;
+
+import com.YouTubeTools.Config.ApiKeyPool;
+import com.YouTubeTools.Exception.QuotaExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Budget sized to the combined YouTube Data API daily quota of all pooled keys.
+ * Every API call has to take its cost in units out of the budget first. Like Google's
+ * own counter, the budget is refilled to capacity at midnight Pacific time, not
+ * gradually over the day.
+ * When the budget runs low, low priority calls are shed straight away while higher
+ * priority calls may wait a short while if the reset is that close.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class QuotaGovernor {
+
+    // The Data API quota resets at midnight in this zone
+    private static final ZoneId QUOTA_ZONE = ZoneId.of("America/Los_Angeles");
+
+    private final MeterRegistry meterRegistry;
+    private final ApiKeyPool apiKeyPool;
+
+    /** Daily quota of a single key; the bucket holds this times the number of pooled keys. */
+    @Value("${youtube.quota.daily-units:10000}")
+    private long dailyUnits;
+
+    @Value("${youtube.quota.max-wait-ms:2000}")
+    private long maxWaitMs;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    // Swapped for a fixed clock in tests
+    private Clock clock = Clock.systemUTC();
+    private final Map<YouTubeApiEndpoint, Counter> unitsSpent = new EnumMap<>(YouTubeApiEndpoint.class);
+    private final Map<YouTubeApiEndpoint, Counter> requestsShed = new EnumMap<>(YouTubeApiEndpoint.class);
+
+    private double capacity;
+    private double tokens;
+    private Instant nextReset;
+
+    @PostConstruct
+    void init() {
+        capacity = (double) dailyUnits * Math.max(1, apiKeyPool.size());
+        tokens = capacity;
+        nextReset = nextMidnight(clock.instant());
+
+        for (YouTubeApiEndpoint endpoint : YouTubeApiEndpoint.values()) {
+            unitsSpent.put(endpoint, Counter.builder("youtube.quota.units")
+                    .description("YouTube Data API quota units spent")
+                    .tag("endpoint", endpoint.getPath())
+                    .register(meterRegistry));
+            requestsShed.put(endpoint, Counter.builder("youtube.quota.shed")
+                    .description("YouTube Data API requests rejected because the quota budget was too low")
+                    .tag("endpoint", endpoint.getPath())
+                    .register(meterRegistry));
+        }
+        Gauge.builder("youtube.quota.remaining", this, QuotaGovernor::getRemainingUnits)
+                .description("Estimated YouTube Data API quota units left in the bucket")
+                .register(meterRegistry);
+        Gauge.builder("youtube.quota.capacity", this, QuotaGovernor::getCapacity)
+                .description("YouTube Data API daily quota units")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Takes the endpoint's cost out of the budget. If it does not fit and the priority
+     * allows waiting, waits for the daily reset when that is at most max-wait-ms away.
+     *
+     * @throws QuotaExceededException if the spend cannot be covered in time
+     */
+    public void acquire(YouTubeApiEndpoint endpoint, QuotaPriority priority) {
+        long deadline = System.nanoTime() + (priority.isMayQueue() ? TimeUnit.MILLISECONDS.toNanos(maxWaitMs) : 0);
+        double cost = endpoint.getCost();
+        double floor = capacity * priority.getReserveFraction();
+
+        while (true) {
+            long waitNanos;
+            lock.lock();
+            try {
+                refill();
+                if (tokens - cost >= floor) {
+                    tokens -= cost;
+                    unitsSpent.get(endpoint).increment(cost);
+                    return;
+                }
+
+                // Nothing comes back before the reset, so that is the only thing worth waiting for
+                waitNanos = Math.max(1, Duration.between(clock.instant(), nextReset).toNanos());
+                if (waitNanos > deadline - System.nanoTime()) {
+                    requestsShed.get(endpoint).increment();
+                    long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos));
+                    log.warn("Shedding {} {} call: {} units left, {} needed above reserve",
+                            priority, endpoint.getPath(), (long) tokens, (long) (cost + floor));
+                    throw new QuotaExceededException(
+                            "YouTube API quota budget is exhausted. Please try again later.", retryAfter);
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            try {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new QuotaExceededException("Interrupted while waiting for YouTube API quota", 1);
+            }
+        }
+    }
+
+    /**
+     * Called when the API reports a key's daily quota as exceeded. That key's share is
+     * taken out of the bucket so our estimate never stays more optimistic than Google's.
+     */
+    public void markExhausted() {
+        lock.lock();
+        try {
+            refill();
+            if (tokens > 0) {
+                log.warn("YouTube API reported quotaExceeded with {} units still estimated; removing one key's share",
+                        (long) tokens);
+                tokens = Math.max(0, tokens - dailyUnits);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public double getRemainingUnits() {
+        lock.lock();
+        try {
+            refill();
+            return tokens;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public double getCapacity() {
+        return capacity;
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        double remaining = getRemainingUnits();
+        snapshot.put("capacity", (long) capacity);
+        snapshot.put("remaining", (long) remaining);
+        snapshot.put("resetsAt", nextReset().toString());
+
+        Map<String, Object> perEndpoint = new LinkedHashMap<>();
+        for (YouTubeApiEndpoint endpoint : YouTubeApiEndpoint.values()) {
+            perEndpoint.put(endpoint.getPath(), Map.of(
+                    "cost", endpoint.getCost(),
+                    "unitsSpent", (long) unitsSpent.get(endpoint).count(),
+                    "shed", (long) requestsShed.get(endpoint).count()));
+        }
+        snapshot.put("endpoints", perEndpoint);
+        return snapshot;
+    }
+
+    public Instant nextReset() {
+        lock.lock();
+        try {
+            refill();
+            return nextReset;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void refill() {
+        Instant now = clock.instant();
+        if (!now.isBefore(nextReset)) {
+            tokens = capacity;
+            nextReset = nextMidnight(now);
+        }
+    }
+
+    private static Instant nextMidnight(Instant now) {
+        ZonedDateTime local = now.atZone(QUOTA_ZONE);
+        return local.toLocalDate().plusDays(1).atStartOfDay(QUOTA_ZONE).toInstant();
+    }
+}
@@ -0,0 +1,22 @@
+package com.YouTubeTools.Service;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * How important a quota spend is. Lower priorities stop being served earlier,
+ * keeping a share of the daily budget in reserve for user-facing lookups.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum QuotaPriority {
+    HIGH(0.0, true),
+    NORMAL(0.10, true),
+    LOW(0.50, false);
+
+    /** Fraction of the daily quota that must remain after this spend. */
+    private final double reserveFraction;
+
+    /** Whether the request may wait for the bucket to refill instead of being shed at once. */
+    private final boolean mayQueue;
+}
@@ -0,0 +1,257 @@
+package com.YouTubeTools.Service;
+
+import com.YouTubeTools.Model.SearchVideo;
+import com.YouTubeTools.Model.TagAnalytics;
+import com.YouTubeTools.Model.Video;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.text.Normalizer;
+import java.util.*;
+
+/**
+ * Aggregates the tags of a search result server side.
+ *
+ * Tags are normalised (case, whitespace, leading '#', Unicode form) and interned to int
+ * ids, so per-tag counters are plain arrays and co-occurrence counts live in a long-keyed
+ * open addressing table instead of boxed maps. Each video contributes a weight that
+ * decays with its position in the search results; a tag's score is the sum of the
+ * weights of the videos using it.
+ */
+@Service
+public class TagAnalyticsService {
+
+    @Value("${youtube.tags.max-ranked:60}")
+    private int maxRankedTags;
+
+    @Value("${youtube.tags.max-pairs:20}")
+    private int maxPairs;
+
+    /** Only the first tags of each video take part in pair counting; creators list the important ones first. */
+    @Value("${youtube.tags.max-tags-per-video-for-pairs:40}")
+    private int maxTagsPerVideoForPairs;
+
+    public TagAnalytics analyze(SearchVideo result) {
+        List<Video> videos = new ArrayList<>();
+        if (result.getPrimaryVideo() != null) {
+            videos.add(result.getPrimaryVideo());
+        }
+        videos.addAll(result.getRelatedVideos());
+
+        Map<String, Integer> ids = new HashMap<>();
+        List<String> tagNames = new ArrayList<>();
+        int[] counts = new int[64];
+        double[] scores = new double[64];
+        LongIntCounter pairs = new LongIntCounter(256);
+
+        for (int rank = 0; rank < videos.size(); rank++) {
+            double weight = rankWeight(rank);
+            int[] videoTags = distinctTagIds(videos.get(rank).getTags(), ids, tagNames);
+
+            if (tagNames.size() > counts.length) {
+                int newLength = Math.max(counts.length * 2, tagNames.size());
+                counts = Arrays.copyOf(counts, newLength);
+                scores = Arrays.copyOf(scores, newLength);
+            }
+            for (int id : videoTags) {
+                counts[id]++;
+                scores[id] += weight;
+            }
+
+            int pairLimit = Math.min(videoTags.length, maxTagsPerVideoForPairs);
+            int[] pairTags = Arrays.copyOf(videoTags, pairLimit);
+            Arrays.sort(pairTags);
+            for (int i = 0; i < pairLimit; i++) {
+                for (int j = i + 1; j < pairLimit; j++) {
+                    pairs.increment(pairKey(pairTags[i], pairTags[j]));
+                }
+            }
+        }
+
+        return TagAnalytics.builder()
+                .videosAnalyzed(videos.size())
+                .distinctTags(tagNames.size())
+                .rankedTags(rankTags(tagNames, counts, scores))
+                .coOccurrences(topPairs(pairs, tagNames, scores))
+                .build();
+    }
+
+    /**
+     * Canonical form used to decide whether two tags are the same: "#Java  Tutorial" and
+     * "java tutorial" collapse to one entry.
+     */
+    static String normalize(String tag) {
+        if (tag == null) {
+            return "";
+        }
+        String normalized = Normalizer.normalize(tag, Normalizer.Form.NFKC)
+                .trim()
+                .replaceAll("\\s+", " ")
+                .toLowerCase(Locale.ROOT);
+        while (normalized.startsWith("#")) {
+            normalized = normalized.substring(1).trim();
+        }
+        return normalized;
+    }
+
+    /**
+     * DCG-style discount: the top result counts fully, lower results progressively less.
+     */
+    static double rankWeight(int rank) {
+        return 1.0 / (Math.log(rank + 2) / Math.log(2));
+    }
+
+    private int[] distinctTagIds(List<String> tags, Map<String, Integer> ids, List<String> tagNames) {
+        int[] videoTags = new int[tags.size()];
+        int size = 0;
+        BitSet seen = new BitSet();
+        for (String tag : tags) {
+            String normalized = normalize(tag);
+            if (normalized.isEmpty()) {
+                continue;
+            }
+            Integer id = ids.get(normalized);
+            if (id == null) {
+                id = tagNames.size();
+                ids.put(normalized, id);
+                tagNames.add(normalized);
+            }
+            if (!seen.get(id)) {
+                seen.set(id);
+                videoTags[size++] = id;
+            }
+        }
+        return Arrays.copyOf(videoTags, size);
+    }
+
+    private List<TagAnalytics.RankedTag> rankTags(List<String> tagNames, int[] counts, double[] scores) {
+        Integer[] order = new Integer[tagNames.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> scores[a] != scores[b]
+                ? Double.compare(scores[b], scores[a])
+                : Integer.compare(counts[b], counts[a]));
+
+        List<TagAnalytics.RankedTag> ranked = new ArrayList<>(Math.min(order.length, maxRankedTags));
+        for (int i = 0; i < order.length && i < maxRankedTags; i++) {
+            int id = order[i];
+            ranked.add(TagAnalytics.RankedTag.builder()
+                    .tag(tagNames.get(id))
+                    .videoCount(counts[id])
+                    .score(Math.round(scores[id] * 1000) / 1000.0)
+                    .build());
+        }
+        return ranked;
+    }
+
+    private List<TagAnalytics.TagPair> topPairs(LongIntCounter pairs, List<String> tagNames, double[] scores) {
+        // Min-heap on (count, combined score) so the weakest of the current top pairs is evicted first
+        Comparator<long[]> strength = Comparator.<long[]>comparingLong(entry -> entry[1])
+                .thenComparingDouble(entry -> scores[first(entry[0])] + scores[second(entry[0])]);
+        PriorityQueue<long[]> top = new PriorityQueue<>(strength);
+
+        pairs.forEach((key, count) -> {
+            // A pair seen in a single video says nothing beyond that video's tag list
+            if (count < 2) {
+                return;
+            }
+            long[] entry = {key, count};
+            if (top.size() < maxPairs) {
+                top.add(entry);
+            } else if (strength.compare(entry, top.peek()) > 0) {
+                top.poll();
+                top.add(entry);
+            }
+        });
+
+        List<long[]> sorted = new ArrayList<>(top);
+        sorted.sort(strength.reversed());
+        List<TagAnalytics.TagPair> result = new ArrayList<>(sorted.size());
+        for (long[] entry : sorted) {
+            result.add(TagAnalytics.TagPair.builder()
+                    .first(tagNames.get(first(entry[0])))
+                    .second(tagNames.get(second(entry[0])))
+                    .videoCount((int) entry[1])
+                    .build());
+        }
+        return result;
+    }
+
+    private static long pairKey(int lower, int higher) {
+        return ((long) lower << 32) | higher;
+    }
+
+    private static int first(long key) {
+        return (int) (key >>> 32);
+    }
+
+    private static int second(long key) {
+        return (int) key;
+    }
+
+    /**
+     * Minimal open addressing long -> int counter. Key 0 marks an empty slot, which is safe
+     * because a pair key always has a non-zero higher id.
+     */
+    static final class LongIntCounter {
+        private long[] keys;
+        private int[] values;
+        private int size;
+
+        LongIntCounter(int expected) {
+            int capacity = Integer.highestOneBit(Math.max(16, expected * 2) - 1) << 1;
+            keys = new long[capacity];
+            values = new int[capacity];
+        }
+
+        void increment(long key) {
+            int slot = slot(keys, key);
+            if (keys[slot] == 0) {
+                keys[slot] = key;
+                if (++size * 2 > keys.length) {
+                    grow();
+                    slot = slot(keys, key);
+                }
+            }
+            values[slot]++;
+        }
+
+        void forEach(LongIntConsumer consumer) {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != 0) {
+                    consumer.accept(keys[i], values[i]);
+                }
+            }
+        }
+
+        private void grow() {
+            long[] oldKeys = keys;
+            int[] oldValues = values;
+            keys = new long[oldKeys.length * 2];
+            values = new int[oldValues.length * 2];
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != 0) {
+                    int slot = slot(keys, oldKeys[i]);
+                    keys[slot] = oldKeys[i];
+                    values[slot] = oldValues[i];
+                }
+            }
+        }
+
+        private static int slot(long[] keys, long key) {
+            int mask = keys.length - 1;
+            long hash = key * 0x9E3779B97F4A7C15L;
+            int slot = (int) (hash ^ (hash >>> 32)) & mask;
+            while (keys[slot] != 0 && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+    }
+
+    @FunctionalInterface
+    interface LongIntConsumer {
+        void accept(long key, int value);
+    }
+}
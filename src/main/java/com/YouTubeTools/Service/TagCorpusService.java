@@ -0,0 +1,330 @@
+package com.YouTubeTools.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * In-process corpus of every tag we have seen on a fetched video, kept in a prefix trie
+ * weighted by how many videos used the tag. Each node records the highest weight in its
+ * subtree, so a top-k prefix lookup is a best-first walk that only visits branches that
+ * can still make the list.
+ *
+ * The corpus is snapshotted to disk periodically and reloaded on startup. When it grows
+ * past {@code tags.corpus.max-tags}, every weight is halved and tags that drop to zero are
+ * discarded, which lets stale tags fade out. If that still leaves more than 90% of the cap,
+ * the lightest tags are dropped too, so the trie stays bounded and compaction does not run
+ * again on the next few ingests.
+ */
+@Slf4j
+@Service
+public class TagCorpusService {
+
+    private static final double COMPACTION_TARGET = 0.9;
+
+    @Value("${tags.corpus.snapshot-path:${java.io.tmpdir}/youtube-tools-tag-corpus.tsv.gz}")
+    private String snapshotPath;
+
+    @Value("${tags.corpus.snapshot-interval-minutes:10}")
+    private long snapshotIntervalMinutes;
+
+    @Value("${tags.corpus.max-tags:200000}")
+    private int maxTags;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // A video's tags are only counted once per day, however often it is fetched
+    private final Cache<String, Boolean> ingestedVideos = Caffeine.newBuilder()
+            .maximumSize(100_000)
+            .expireAfterWrite(Duration.ofDays(1))
+            .build();
+
+    private Node root = new Node();
+    private int size;
+    private volatile boolean dirty;
+    private ScheduledExecutorService snapshotter;
+
+    @PostConstruct
+    void init() {
+        load();
+        snapshotter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "tag-corpus-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        snapshotter.scheduleWithFixedDelay(this::snapshot, snapshotIntervalMinutes, snapshotIntervalMinutes,
+                TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        snapshotter.shutdownNow();
+        snapshot();
+    }
+
+    /**
+     * Adds one video's tags to the corpus. Repeat calls for the same video are ignored.
+     */
+    public void ingest(String videoId, List<String> tags) {
+        if (tags == null || tags.isEmpty() || ingestedVideos.asMap().putIfAbsent(videoId, Boolean.TRUE) != null) {
+            return;
+        }
+
+        Set<String> distinct = new LinkedHashSet<>();
+        for (String tag : tags) {
+            String normalized = TagAnalyticsService.normalize(tag);
+            if (!normalized.isEmpty()) {
+                distinct.add(normalized);
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            for (String tag : distinct) {
+                add(tag, 1);
+            }
+            if (size > maxTags) {
+                compact();
+            }
+            dirty = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Most used tags starting with {@code prefix}, heaviest first.
+     */
+    public List<Suggestion> suggest(String prefix, int limit) {
+        String normalized = TagAnalyticsService.normalize(prefix);
+        if (normalized.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            for (int i = 0; i < normalized.length() && node != null; i++) {
+                node = node.child(normalized.charAt(i));
+            }
+            if (node == null) {
+                return Collections.emptyList();
+            }
+            return topK(node, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    void snapshot() {
+        if (!dirty) {
+            return;
+        }
+        Map<String, Integer> entries = new LinkedHashMap<>();
+        lock.readLock().lock();
+        try {
+            collect(root, entries);
+            dirty = false;
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        Path target = Paths.get(snapshotPath);
+        try {
+            Path parent = target.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temp = Files.createTempFile(parent, "tag-corpus", ".tmp");
+            try (Writer writer = new OutputStreamWriter(
+                    new GZIPOutputStream(new BufferedOutputStream(Files.newOutputStream(temp))), StandardCharsets.UTF_8)) {
+                for (Map.Entry<String, Integer> entry : entries.entrySet()) {
+                    writer.write(entry.getValue() + "\t" + entry.getKey() + "\n");
+                }
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.debug("Wrote tag corpus snapshot with {} tags to {}", entries.size(), target);
+        } catch (IOException e) {
+            dirty = true;
+            log.warn("Could not write tag corpus snapshot to {}: {}", target, e.getMessage());
+        }
+    }
+
+    private void load() {
+        Path source = Paths.get(snapshotPath);
+        if (!Files.isRegularFile(source)) {
+            return;
+        }
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(source)), StandardCharsets.UTF_8))) {
+            lock.writeLock().lock();
+            try {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    int tab = line.indexOf('\t');
+                    if (tab > 0 && tab < line.length() - 1) {
+                        add(line.substring(tab + 1), Integer.parseInt(line.substring(0, tab)));
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("Loaded tag corpus with {} tags from {}", size, source);
+        } catch (IOException | NumberFormatException e) {
+            log.warn("Ignoring unreadable tag corpus snapshot {}: {}", source, e.getMessage());
+            root = new Node();
+            size = 0;
+        }
+    }
+
+    private void add(String tag, int weight) {
+        Node node = root;
+        for (int i = 0; i < tag.length(); i++) {
+            node = node.childOrCreate(tag.charAt(i));
+        }
+        if (node.term == null) {
+            node.term = tag;
+            size++;
+        }
+        node.count += weight;
+
+        // Weights only grow between compactions, so raising the maxima along the path is enough
+        int count = node.count;
+        Node current = root;
+        current.maxCount = Math.max(current.maxCount, count);
+        for (int i = 0; i < tag.length(); i++) {
+            current = current.child(tag.charAt(i));
+            current.maxCount = Math.max(current.maxCount, count);
+        }
+    }
+
+    private void compact() {
+        Map<String, Integer> entries = new HashMap<>();
+        collect(root, entries);
+
+        List<Map.Entry<String, Integer>> kept = new ArrayList<>();
+        entries.forEach((tag, count) -> {
+            if (count / 2 > 0) {
+                kept.add(Map.entry(tag, count / 2));
+            }
+        });
+        int target = (int) (maxTags * COMPACTION_TARGET);
+        if (kept.size() > target) {
+            kept.sort(Map.Entry.<String, Integer>comparingByValue().reversed()
+                    .thenComparing(Map.Entry.comparingByKey()));
+            kept.subList(target, kept.size()).clear();
+        }
+
+        root = new Node();
+        size = 0;
+        kept.forEach(entry -> add(entry.getKey(), entry.getValue()));
+        log.info("Compacted tag corpus from {} to {} tags", entries.size(), size);
+    }
+
+    private void collect(Node node, Map<String, Integer> entries) {
+        if (node.term != null) {
+            entries.put(node.term, node.count);
+        }
+        for (int i = 0; i < node.childCount; i++) {
+            collect(node.children[i], entries);
+        }
+    }
+
+    private List<Suggestion> topK(Node start, int limit) {
+        // Nodes are queued by their subtree maximum, terms by their own count; when a term
+        // comes out first, nothing left in the queue can beat it
+        PriorityQueue<Candidate> queue = new PriorityQueue<>(
+                Comparator.comparingInt(Candidate::weight).reversed());
+        queue.add(new Candidate(start, null, start.maxCount));
+
+        List<Suggestion> suggestions = new ArrayList<>(limit);
+        while (!queue.isEmpty() && suggestions.size() < limit) {
+            Candidate candidate = queue.poll();
+            if (candidate.term() != null) {
+                suggestions.add(new Suggestion(candidate.term(), candidate.weight()));
+                continue;
+            }
+            Node node = candidate.node();
+            if (node.term != null) {
+                queue.add(new Candidate(null, node.term, node.count));
+            }
+            for (int i = 0; i < node.childCount; i++) {
+                Node child = node.children[i];
+                queue.add(new Candidate(child, null, child.maxCount));
+            }
+        }
+        return suggestions;
+    }
+
+    public record Suggestion(String tag, int count) {
+    }
+
+    private record Candidate(Node node, String term, int weight) {
+    }
+
+    /**
+     * Trie node with children kept in parallel arrays sorted by character, which is far
+     * smaller than a map per node and still a binary search away.
+     */
+    private static final class Node {
+        private static final char[] NO_LABELS = new char[0];
+        private static final Node[] NO_CHILDREN = new Node[0];
+
+        private char[] labels = NO_LABELS;
+        private Node[] children = NO_CHILDREN;
+        private int childCount;
+        private int count;
+        private int maxCount;
+        private String term;
+
+        Node child(char label) {
+            int index = Arrays.binarySearch(labels, 0, childCount, label);
+            return index >= 0 ? children[index] : null;
+        }
+
+        Node childOrCreate(char label) {
+            int index = Arrays.binarySearch(labels, 0, childCount, label);
+            if (index >= 0) {
+                return children[index];
+            }
+            int insertAt = -index - 1;
+            if (childCount == labels.length) {
+                int capacity = Math.max(2, childCount * 2);
+                labels = Arrays.copyOf(labels, capacity);
+                children = Arrays.copyOf(children, capacity);
+            }
+            System.arraycopy(labels, insertAt, labels, insertAt + 1, childCount - insertAt);
+            System.arraycopy(children, insertAt, children, insertAt + 1, childCount - insertAt);
+            Node child = new Node();
+            labels[insertAt] = label;
+            children[insertAt] = child;
+            childCount++;
+            return child;
+        }
+    }
+}
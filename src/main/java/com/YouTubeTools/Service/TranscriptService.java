@@ -1,68 +1,117 @@
 package com.YouTubeTools.Service;
 
+import com.YouTubeTools.Model.CaptionTrack;
+import com.YouTubeTools.Model.TranscriptBundle;
+import com.YouTubeTools.Model.TranscriptEntriesView;
 import com.YouTubeTools.Model.VideoTranscript;
+import com.YouTubeTools.Util.ETagUtil;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
-import org.springframework.web.reactive.function.client.WebClient;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 public class TranscriptService {
 
-    @Value("${youtube.api.key:}")
-    private String apiKey;
+    static final String USER_AGENT = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36";
+    // Source reported to stream listeners for a transcript replayed from the cache
+    static final String CACHED = "cache";
 
     private final RestTemplate restTemplate;
-    private final WebClient.Builder webClientBuilder;
+    private final CaptionTrackService captionTrackService;
     private final ObjectMapper objectMapper;
-
-    public TranscriptService(RestTemplate restTemplate, WebClient.Builder webClientBuilder) {
+    private final UpstreamResilienceService resilienceService;
+    private final ExecutorService upstreamFanOutExecutor;
+    private final CacheManager cacheManager;
+
+    // Which strategy found the track the transcript came from; "none" when there was nothing to read
+    private final Counter fromTimedText;
+    private final Counter fromWatchPage;
+    private final Counter notFound;
+    private final DistributionSummary transcriptEntries;
+    private final DistributionSummary transcriptCharacters;
+
+    public TranscriptService(RestTemplate restTemplate, CaptionTrackService captionTrackService,
+                             UpstreamResilienceService resilienceService, ExecutorService upstreamFanOutExecutor,
+                             CacheManager cacheManager, MeterRegistry meterRegistry) {
         this.restTemplate = restTemplate;
-        this.webClientBuilder = webClientBuilder;
+        this.captionTrackService = captionTrackService;
+        this.resilienceService = resilienceService;
+        this.upstreamFanOutExecutor = upstreamFanOutExecutor;
+        this.cacheManager = cacheManager;
         this.objectMapper = new ObjectMapper();
+
+        this.fromTimedText = transcriptCounter(meterRegistry, UpstreamResilienceService.TIMEDTEXT);
+        this.fromWatchPage = transcriptCounter(meterRegistry, UpstreamResilienceService.WATCH_PAGE);
+        this.notFound = transcriptCounter(meterRegistry, "none");
+        this.transcriptEntries = DistributionSummary.builder("transcript.entries")
+                .description("Caption segments per fetched transcript")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.transcriptCharacters = DistributionSummary.builder("transcript.characters")
+                .description("Length of the full transcript text")
+                .baseUnit("characters")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
     }
 
+    // Keyed "videoId:language" so HotKeyRefresher can turn a hot key back into arguments
+    @Cacheable(value = "transcripts", key = "#videoId + ':' + #language",
+            unless = "#result == null || #result.contentHash == null")
     public VideoTranscript getTranscript(String videoId, String language) {
-        try {
-            log.info("Fetching transcript for video: {} with language: {}", videoId, language);
-
-            // Try multiple methods to get transcript
-            VideoTranscript transcript = null;
+        return loadTranscript(videoId, language);
+    }
 
-            // Method 1: Try using YouTube's timedtext API
-            transcript = fetchTranscriptFromTimedText(videoId, language);
-            if (transcript != null && !transcript.getTranscriptEntries().isEmpty()) {
-                log.info("Successfully fetched transcript using timedtext API");
-                return transcript;
-            }
+    /**
+     * Reloads a cached transcript ahead of expiry for {@link HotKeyRefresher}. A failed
+     * reload has no content hash and is not cached, so the old entry keeps being served.
+     */
+    @CachePut(value = "transcripts", key = "#videoId + ':' + #language",
+            unless = "#result == null || #result.contentHash == null")
+    public VideoTranscript refreshTranscript(String videoId, String language) {
+        return loadTranscript(videoId, language);
+    }
 
-            // Method 2: Try fetching from YouTube page with captions data
-            transcript = fetchTranscriptFromYouTubePage(videoId, language);
-            if (transcript != null && !transcript.getTranscriptEntries().isEmpty()) {
-                log.info("Successfully fetched transcript from YouTube page");
-                return transcript;
-            }
+    private VideoTranscript loadTranscript(String videoId, String language) {
+        try {
+            log.info("Fetching transcript for video: {} with language: {}", videoId, language);
 
-            // Method 3: Try using YouTube Data API v3 with captions
-            transcript = fetchTranscriptUsingDataAPI(videoId, language);
-            if (transcript != null && !transcript.getTranscriptEntries().isEmpty()) {
-                log.info("Successfully fetched transcript using Data API");
-                return transcript;
+            List<CaptionTrack> tracks = captionTrackService.getTracks(videoId);
+            CaptionTrack track = tracks != null ? CaptionTrackService.selectTrack(tracks, language) : null;
+            if (track != null) {
+                VideoTranscript transcript = readTranscript(videoId, track, tracks);
+                if (transcript != null) {
+                    log.info("Successfully fetched {} transcript found via {}", track.getLanguageCode(), track.getSource());
+                    return recordFetched(transcript, strategyOf(track));
+                }
+                // A listed track that reads empty most likely has an expired signed URL
+                captionTrackService.evict(videoId);
             }
 
             log.warn("No transcript found for video: {}", videoId);
+            notFound.increment();
             return createEmptyTranscript(videoId, language);
 
         } catch (Exception e) {
@@ -71,185 +120,241 @@ public class TranscriptService {
         }
     }
 
-    private VideoTranscript fetchTranscriptFromTimedText(String videoId, String language) {
-        try {
-            // First, get available caption tracks
-            String listUrl = String.format("https://www.youtube.com/api/timedtext?v=%s&type=list", videoId);
+    /**
+     * Several languages of one video, aligned on the timeline of the first one that has
+     * captions. The tracks are discovered once and every caption download runs
+     * concurrently, so N languages cost one discovery and N parallel downloads. Languages
+     * the video has no captions in are reported as missing, not replaced by another one.
+     */
+    public TranscriptBundle getTranscriptBundle(String videoId, List<String> languages) {
+        log.info("Fetching transcript bundle for video: {} with languages: {}", videoId, languages);
+        List<CaptionTrack> tracks = captionTrackService.getTracks(videoId);
+        if (tracks == null || tracks.isEmpty()) {
+            notFound.increment();
+            return TranscriptBundle.align(videoId, List.of(), languages, List.of());
+        }
 
-            HttpHeaders headers = new HttpHeaders();
-            headers.set("User-Agent", "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36");
-            HttpEntity<String> entity = new HttpEntity<>(headers);
+        // "en" and "en-US" can resolve to the same track; it is downloaded once
+        Map<String, CaptionTrack> selected = new LinkedHashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String language : languages) {
+            CaptionTrack track = CaptionTrackService.matchTrack(tracks, language);
+            if (track == null) {
+                missing.add(language);
+            } else {
+                selected.putIfAbsent(track.getUrl(), track);
+            }
+        }
 
-            ResponseEntity<String> listResponse = restTemplate.exchange(listUrl, HttpMethod.GET, entity, String.class);
+        // Every track but the first is read on the fan-out pool while this thread reads the first
+        List<CaptionTrack> toRead = new ArrayList<>(selected.values());
+        List<Future<VideoTranscript>> pending = new ArrayList<>();
+        for (CaptionTrack track : toRead.subList(Math.min(1, toRead.size()), toRead.size())) {
+            pending.add(upstreamFanOutExecutor.submit(() -> readTranscript(videoId, track, tracks)));
+        }
 
-            if (listResponse.getStatusCode() == HttpStatus.OK && listResponse.getBody() != null) {
-                // Parse available languages
-                String targetLang = findBestLanguageMatch(listResponse.getBody(), language);
+        List<VideoTranscript> transcripts = new ArrayList<>();
+        boolean failed = false;
+        for (int i = 0; i < toRead.size(); i++) {
+            CaptionTrack track = toRead.get(i);
+            VideoTranscript transcript = null;
+            try {
+                transcript = i == 0 ? readTranscript(videoId, track, tracks) : pending.get(i - 1).get();
+            } catch (ExecutionException e) {
+                log.error("Error fetching {} captions for video: {}", track.getLanguageCode(), videoId, e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                pending.forEach(remaining -> remaining.cancel(true));
+                break;
+            }
+            if (transcript != null) {
+                transcripts.add(recordFetched(transcript, strategyOf(track)));
+            } else {
+                failed = true;
+                missing.add(track.getLanguageCode());
+            }
+        }
+        if (failed) {
+            captionTrackService.evict(videoId);
+        }
 
-                if (targetLang != null) {
-                    // Fetch the actual transcript
-                    String transcriptUrl = String.format(
-                            "https://www.youtube.com/api/timedtext?v=%s&lang=%s&fmt=json3",
-                            videoId, targetLang
-                    );
+        return TranscriptBundle.align(videoId, transcripts, missing,
+                tracks.stream().map(CaptionTrack::getLanguageCode).distinct().toList());
+    }
 
-                    ResponseEntity<String> transcriptResponse = restTemplate.exchange(
-                            transcriptUrl, HttpMethod.GET, entity, String.class
-                    );
+    private VideoTranscript recordFetched(VideoTranscript transcript, Counter strategy) {
+        prepareForCache(transcript);
+        strategy.increment();
+        transcriptEntries.record(transcript.getTranscriptEntries().size());
+        // Summed over the entries like streamTranscript does; fullText is not built at this point
+        transcriptCharacters.record(transcript.getTranscriptEntries().stream()
+                .mapToInt(entry -> entry.getText().length())
+                .sum());
+        return transcript;
+    }
 
-                    if (transcriptResponse.getStatusCode() == HttpStatus.OK && transcriptResponse.getBody() != null) {
-                        return parseJson3Transcript(videoId, transcriptResponse.getBody(), targetLang);
-                    }
-                }
-            }
-        } catch (Exception e) {
-            log.debug("Timedtext API method failed: {}", e.getMessage());
-        }
-        return null;
+    private static void prepareForCache(VideoTranscript transcript) {
+        transcript.setContentHash(ETagUtil.contentHash(TranscriptEntriesView.from(transcript)));
+        // The lazy getters fill these in; settle them before the transcript is shared through the cache
+        transcript.setWordCount(transcript.getWordCount());
+        transcript.setTotalDuration(transcript.getTotalDuration());
     }
 
-    private VideoTranscript fetchTranscriptFromYouTubePage(String videoId, String language) {
-        try {
-            String videoUrl = "https://www.youtube.com/watch?v=" + videoId;
-
-            HttpHeaders headers = new HttpHeaders();
-            headers.set("User-Agent", "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36");
-            headers.set("Accept-Language", language + ",en;q=0.9");
-            HttpEntity<String> entity = new HttpEntity<>(headers);
-
-            ResponseEntity<String> response = restTemplate.exchange(videoUrl, HttpMethod.GET, entity, String.class);
-
-            if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
-                String html = response.getBody();
-
-                // Extract player response from YouTube page
-                Pattern pattern = Pattern.compile("var ytInitialPlayerResponse\\s*=\\s*(\\{.+?\\});", Pattern.DOTALL);
-                Matcher matcher = pattern.matcher(html);
-
-                if (matcher.find()) {
-                    String playerResponse = matcher.group(1);
-                    JsonNode playerJson = objectMapper.readTree(playerResponse);
-
-                    // Check for captions
-                    JsonNode captionsNode = playerJson.path("captions").path("playerCaptionsTracklistRenderer");
-                    if (!captionsNode.isMissingNode()) {
-                        JsonNode captionTracks = captionsNode.path("captionTracks");
-                        if (captionTracks.isArray() && captionTracks.size() > 0) {
-                            // Find the best matching caption track
-                            JsonNode selectedTrack = selectBestCaptionTrack(captionTracks, language);
-                            if (selectedTrack != null) {
-                                String captionUrl = selectedTrack.path("baseUrl").asText();
-                                if (!captionUrl.isEmpty()) {
-                                    return fetchAndParseTranscriptFromUrl(videoId, captionUrl, language);
-                                }
-                            }
-                        }
-                    }
-                }
-            }
-        } catch (Exception e) {
-            log.debug("YouTube page parsing failed: {}", e.getMessage());
-        }
-        return null;
+    private Counter strategyOf(CaptionTrack track) {
+        return UpstreamResilienceService.WATCH_PAGE.equals(track.getSource()) ? fromWatchPage : fromTimedText;
     }
 
-    private VideoTranscript fetchTranscriptUsingDataAPI(String videoId, String language) {
-        if (apiKey == null || apiKey.isEmpty() || apiKey.equals("YOUR_YOUTUBE_API_KEY_HERE")) {
-            log.debug("YouTube API key not configured, skipping Data API method");
-            return null;
-        }
+    private static Counter transcriptCounter(MeterRegistry meterRegistry, String strategy) {
+        return Counter.builder("transcript.fetches")
+                .description("Transcripts served, by the strategy that produced them")
+                .tag("strategy", strategy)
+                .register(meterRegistry);
+    }
 
-        try {
-            // Note: YouTube Data API v3 doesn't directly provide transcript content
-            // This method would require OAuth2 authentication and caption download permission
-            // For now, we'll use this as a fallback to check if captions exist
+    /**
+     * Receives a transcript while its caption response is still being read: the track
+     * first, then each entry in order.
+     */
+    public interface TranscriptListener {
 
-            String apiUrl = String.format(
-                    "https://www.googleapis.com/youtube/v3/captions?videoId=%s&part=snippet&key=%s",
-                    videoId, apiKey
-            );
+        void onTrack(String videoId, String language, String source);
 
-            ResponseEntity<String> response = restTemplate.getForEntity(apiUrl, String.class);
+        /**
+         * @return false to stop reading, e.g. because the client went away
+         */
+        boolean onEntry(VideoTranscript.TranscriptEntry entry);
+    }
 
-            if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
-                JsonNode root = objectMapper.readTree(response.getBody());
-                JsonNode items = root.path("items");
+    /**
+     * Streaming counterpart of {@link #getTranscript}: entries reach the listener as the
+     * caption JSON is parsed, so the first of them arrive long before a large transcript
+     * has been read. Reads the same track {@link #getTranscript} would, and shares its
+     * cache: a cached transcript is replayed with source {@code cache}, and one streamed
+     * to the end is cached for both.
+     *
+     * @return the number of entries emitted, 0 if no captions were found
+     */
+    public int streamTranscript(String videoId, String language, TranscriptListener listener) {
+        log.info("Streaming transcript for video: {} with language: {}", videoId, language);
+        Cache cache = cacheManager.getCache("transcripts");
+        String key = videoId + ":" + language;
+        VideoTranscript cached = cache != null ? cache.get(key, VideoTranscript.class) : null;
+        if (cached != null && cached.getContentHash() != null) {
+            return replay(cached, listener);
+        }
 
-                if (items.isArray() && items.size() > 0) {
-                    // Captions exist but we can't download them without OAuth
-                    log.info("Captions exist for video {} but require OAuth to download", videoId);
-                }
+        int[] characters = {0};
+        List<VideoTranscript.TranscriptEntry> entries = new ArrayList<>();
+        boolean[] stopped = {false};
+        TranscriptListener counting = new TranscriptListener() {
+            @Override
+            public void onTrack(String id, String trackLanguage, String source) {
+                listener.onTrack(id, trackLanguage, source);
             }
-        } catch (Exception e) {
-            log.debug("Data API method failed: {}", e.getMessage());
-        }
-        return null;
-    }
 
-    private VideoTranscript fetchAndParseTranscriptFromUrl(String videoId, String captionUrl, String language) {
-        try {
-            // Add format parameter if not present
-            if (!captionUrl.contains("fmt=")) {
-                captionUrl += (captionUrl.contains("?") ? "&" : "?") + "fmt=json3";
+            @Override
+            public boolean onEntry(VideoTranscript.TranscriptEntry entry) {
+                characters[0] += entry.getText().length();
+                entries.add(entry);
+                stopped[0] = !listener.onEntry(entry);
+                return !stopped[0];
             }
+        };
+
+        List<CaptionTrack> tracks = captionTrackService.getTracks(videoId);
+        CaptionTrack track = tracks != null ? CaptionTrackService.selectTrack(tracks, language) : null;
+        int emitted = streamFrom(track, videoId, counting);
+        if (track != null && emitted == 0) {
+            captionTrackService.evict(videoId);
+        }
 
-            HttpHeaders headers = new HttpHeaders();
-            headers.set("User-Agent", "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36");
-            HttpEntity<String> entity = new HttpEntity<>(headers);
+        if (emitted == 0) {
+            log.warn("No transcript found for video: {}", videoId);
+            notFound.increment();
+        } else {
+            transcriptEntries.record(emitted);
+            transcriptCharacters.record(characters[0]);
+            // A stream the client abandoned is incomplete and not worth keeping
+            if (!stopped[0] && cache != null) {
+                VideoTranscript transcript = buildTranscript(videoId, track.getLanguageCode(), entries);
+                transcript.setAvailableLanguages(tracks.stream().map(CaptionTrack::getLanguageCode).distinct().toList());
+                prepareForCache(transcript);
+                cache.put(key, transcript);
+            }
+        }
+        return emitted;
+    }
 
-            ResponseEntity<String> response = restTemplate.exchange(captionUrl, HttpMethod.GET, entity, String.class);
+    private int replay(VideoTranscript transcript, TranscriptListener listener) {
+        listener.onTrack(transcript.getVideoId(), transcript.getLanguage(), CACHED);
+        int emitted = 0;
+        for (VideoTranscript.TranscriptEntry entry : transcript.getTranscriptEntries()) {
+            emitted++;
+            if (!listener.onEntry(entry)) {
+                break;
+            }
+        }
+        return emitted;
+    }
 
-            if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
-                return parseJson3Transcript(videoId, response.getBody(), language);
+    private int streamFrom(CaptionTrack track, String videoId, TranscriptListener listener) {
+        if (track == null) {
+            return 0;
+        }
+        try {
+            boolean[] announced = {false};
+            int emitted = readCaptions(track, entry -> {
+                if (!announced[0]) {
+                    announced[0] = true;
+                    listener.onTrack(videoId, track.getLanguageCode(), track.getSource());
+                }
+                return listener.onEntry(entry);
+            });
+            if (emitted > 0) {
+                strategyOf(track).increment();
             }
+            return emitted;
         } catch (Exception e) {
-            log.error("Failed to fetch transcript from URL: {}", e.getMessage());
+            log.debug("Streaming captions from {} failed: {}", track.getSource(), e.getMessage());
+            return 0;
         }
-        return null;
     }
 
-    private VideoTranscript parseJson3Transcript(String videoId, String jsonContent, String language) {
+    private VideoTranscript readTranscript(String videoId, CaptionTrack track, List<CaptionTrack> tracks) {
+        List<VideoTranscript.TranscriptEntry> entries = new ArrayList<>();
         try {
-            JsonNode root = objectMapper.readTree(jsonContent);
-            JsonNode events = root.path("events");
-
-            if (events.isArray()) {
-                List<VideoTranscript.TranscriptEntry> entries = new ArrayList<>();
-
-                for (JsonNode event : events) {
-                    JsonNode segs = event.path("segs");
-                    if (segs.isArray() && segs.size() > 0) {
-                        double startTime = event.path("tStartMs").asDouble() / 1000.0;
-                        double duration = event.path("dDurationMs").asDouble() / 1000.0;
-
-                        StringBuilder text = new StringBuilder();
-                        for (JsonNode seg : segs) {
-                            String segText = seg.path("utf8").asText();
-                            if (!segText.isEmpty()) {
-                                text.append(segText);
-                            }
-                        }
-
-                        String finalText = text.toString().trim();
-                        if (!finalText.isEmpty()) {
-                            entries.add(VideoTranscript.TranscriptEntry.builder()
-                                    .start(startTime)
-                                    .duration(duration)
-                                    .text(finalText)
-                                    .formattedTime(formatTime(startTime))
-                                    .build());
-                        }
-                    }
-                }
+            readCaptions(track, entries::add);
+        } catch (Exception e) {
+            log.debug("Reading {} captions from {} failed: {}", track.getLanguageCode(), track.getSource(), e.getMessage());
+        }
+        if (entries.isEmpty()) {
+            return null;
+        }
+        VideoTranscript transcript = buildTranscript(videoId, track.getLanguageCode(), entries);
+        transcript.setAvailableLanguages(tracks.stream().map(CaptionTrack::getLanguageCode).distinct().toList());
+        return transcript;
+    }
 
-                if (!entries.isEmpty()) {
-                    return VideoTranscript.builder()
-                            .videoId(videoId)
-                            .language(language)
-                            .transcriptEntries(entries)
-                            .availableLanguages(Arrays.asList(language))
-                            .build();
-                }
+    /**
+     * Downloads a json3 caption track and parses it straight off the response stream,
+     * handing each entry to {@code sink} as soon as its event has been read.
+     */
+    private int readCaptions(CaptionTrack track, EntrySink sink) {
+        Integer emitted = resilienceService.execute(UpstreamResilienceService.TIMEDTEXT,
+                () -> restTemplate.execute(track.getUrl(), HttpMethod.GET,
+                        request -> request.getHeaders().set("User-Agent", USER_AGENT),
+                        response -> response.getStatusCode() == HttpStatus.OK
+                                ? parseJson3Entries(response.getBody(), sink)
+                                : 0));
+        return emitted != null ? emitted : 0;
+    }
+
+    VideoTranscript parseJson3Transcript(String videoId, String jsonContent, String language) {
+        try (JsonParser parser = objectMapper.createParser(jsonContent)) {
+            List<VideoTranscript.TranscriptEntry> entries = new ArrayList<>();
+            parseJson3Entries(parser, entries::add);
+            if (!entries.isEmpty()) {
+                return buildTranscript(videoId, language, entries);
             }
         } catch (Exception e) {
             log.error("Failed to parse JSON3 transcript: {}", e.getMessage());
@@ -257,81 +362,84 @@ public class TranscriptService {
         return null;
     }
 
-    private JsonNode selectBestCaptionTrack(JsonNode captionTracks, String preferredLanguage) {
-        JsonNode selectedTrack = null;
+    int parseJson3Entries(InputStream json, EntrySink sink) throws IOException {
+        try (JsonParser parser = objectMapper.createParser(json)) {
+            return parseJson3Entries(parser, sink);
+        }
+    }
 
-        // First try to find exact language match
-        for (JsonNode track : captionTracks) {
-            String trackLang = track.path("languageCode").asText();
-            if (trackLang.equalsIgnoreCase(preferredLanguage)) {
-                // Prefer non-auto-generated captions
-                if (!track.path("kind").asText().equals("asr")) {
-                    return track;
+    /**
+     * Walks the json3 document token by token and materialises one caption event at a
+     * time, so memory stays flat however long the transcript is.
+     */
+    private int parseJson3Entries(JsonParser parser, EntrySink sink) throws IOException {
+        int emitted = 0;
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            return 0;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            if (parser.nextToken() != JsonToken.START_ARRAY || !"events".equals(field)) {
+                parser.skipChildren();
+                continue;
+            }
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                VideoTranscript.TranscriptEntry entry = toEntry(objectMapper.readTree(parser));
+                if (entry != null) {
+                    emitted++;
+                    if (!sink.accept(entry)) {
+                        return emitted;
+                    }
                 }
-                selectedTrack = track;
             }
         }
+        return emitted;
+    }
 
-        // If exact match found, return it
-        if (selectedTrack != null) {
-            return selectedTrack;
+    private VideoTranscript.TranscriptEntry toEntry(JsonNode event) {
+        JsonNode segs = event.path("segs");
+        if (!segs.isArray() || segs.isEmpty()) {
+            return null;
         }
-
-        // Try to find language with same prefix (e.g., "en" for "en-US")
-        String langPrefix = preferredLanguage.split("-")[0];
-        for (JsonNode track : captionTracks) {
-            String trackLang = track.path("languageCode").asText();
-            if (trackLang.startsWith(langPrefix)) {
-                if (!track.path("kind").asText().equals("asr")) {
-                    return track;
-                }
-                selectedTrack = track;
+        double startTime = event.path("tStartMs").asDouble() / 1000.0;
+        double duration = event.path("dDurationMs").asDouble() / 1000.0;
+
+        StringBuilder text = new StringBuilder();
+        for (JsonNode seg : segs) {
+            String segText = seg.path("utf8").asText();
+            if (!segText.isEmpty()) {
+                text.append(segText);
             }
         }
 
-        // If still no match, return first available track
-        if (selectedTrack == null && captionTracks.size() > 0) {
-            selectedTrack = captionTracks.get(0);
+        String finalText = text.toString().trim();
+        if (finalText.isEmpty()) {
+            return null;
         }
-
-        return selectedTrack;
+        return VideoTranscript.TranscriptEntry.builder()
+                .start(startTime)
+                .duration(duration)
+                .text(finalText)
+                .formattedTime(formatTime(startTime))
+                .build();
     }
 
-    private String findBestLanguageMatch(String xmlContent, String preferredLanguage) {
-        try {
-            // Parse XML to find available languages
-            Pattern pattern = Pattern.compile("lang_code=\"([^\"]+)\"");
-            Matcher matcher = pattern.matcher(xmlContent);
-
-            List<String> availableLanguages = new ArrayList<>();
-            while (matcher.find()) {
-                availableLanguages.add(matcher.group(1));
-            }
-
-            // Try exact match
-            if (availableLanguages.contains(preferredLanguage)) {
-                return preferredLanguage;
-            }
-
-            // Try prefix match
-            String prefix = preferredLanguage.split("-")[0];
-            for (String lang : availableLanguages) {
-                if (lang.startsWith(prefix)) {
-                    return lang;
-                }
-            }
-
-            // Default to first available or "en"
-            if (availableLanguages.contains("en")) {
-                return "en";
-            }
-
-            return availableLanguages.isEmpty() ? null : availableLanguages.get(0);
+    private VideoTranscript buildTranscript(String videoId, String language,
+                                            List<VideoTranscript.TranscriptEntry> entries) {
+        return VideoTranscript.builder()
+                .videoId(videoId)
+                .language(language)
+                .transcriptEntries(entries)
+                .availableLanguages(Arrays.asList(language))
+                .build();
+    }
 
-        } catch (Exception e) {
-            log.debug("Failed to find language match: {}", e.getMessage());
-            return "en";
-        }
+    /**
+     * Like {@link java.util.function.Predicate}, named for what the parser does with it.
+     */
+    @FunctionalInterface
+    interface EntrySink {
+        boolean accept(VideoTranscript.TranscriptEntry entry);
     }
 
     private String formatTime(double seconds) {
@@ -0,0 +1,221 @@
+package com.YouTubeTools.Service;
+
+import com.YouTubeTools.Exception.UpstreamUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Guards every upstream call (YouTube Data API, timedtext, watch page) with a circuit
+ * breaker and an adaptive concurrency limit per endpoint. While an endpoint is unhealthy,
+ * calls fail fast with {@link UpstreamUnavailableException} instead of each holding a
+ * thread for the full client timeout.
+ *
+ * Every call is timed into {@code youtube.upstream.calls}, tagged by endpoint and outcome.
+ * The meters are created once per endpoint, so recording a call allocates nothing.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UpstreamResilienceService {
+
+    public static final String YOUTUBE_DATA_API = "youtube-data-api";
+    public static final String TIMEDTEXT = "timedtext";
+    public static final String WATCH_PAGE = "watch-page";
+
+    @Value("${upstream.circuit.window-size:20}")
+    private int windowSize;
+
+    @Value("${upstream.circuit.minimum-calls:5}")
+    private int minimumCalls;
+
+    @Value("${upstream.circuit.failure-rate-threshold:0.5}")
+    private double failureRateThreshold;
+
+    @Value("${upstream.circuit.open-ms:30000}")
+    private long openMillis;
+
+    @Value("${upstream.circuit.slow-call-ms:5000}")
+    private long slowCallMillis;
+
+    @Value("${upstream.limit.initial:20}")
+    private int initialLimit;
+
+    @Value("${upstream.limit.min:2}")
+    private int minLimit;
+
+    @Value("${upstream.limit.max:200}")
+    private int maxLimit;
+
+    @Value("${upstream.limit.latency-threshold-ms:2000}")
+    private long latencyThresholdMillis;
+
+    @Value("${upstream.limit.backoff-ratio:0.9}")
+    private double backoffRatio;
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Guard> guards = new ConcurrentHashMap<>();
+
+    /**
+     * Runs {@code call} against {@code endpoint} if its circuit is closed and it has
+     * concurrency headroom; otherwise fails fast.
+     */
+    public <T> T execute(String endpoint, Supplier<T> call) {
+        Guard guard = guard(endpoint);
+
+        if (!guard.limiter.tryAcquire()) {
+            guard.rejectedByLimit.increment();
+            throw new UpstreamUnavailableException(
+                    endpoint + " is at its concurrency limit (" + guard.limiter.getLimit() + ")", 1);
+        }
+        if (!guard.breaker.tryAcquirePermission()) {
+            guard.limiter.release();
+            guard.rejectedByCircuit.increment();
+            throw circuitOpen(endpoint, guard);
+        }
+
+        long start = System.nanoTime();
+        boolean recorded = false;
+        try {
+            T result = call.get();
+            recorded = true;
+            long latency = System.nanoTime() - start;
+            if (latency > TimeUnit.MILLISECONDS.toNanos(slowCallMillis)) {
+                log.debug("Slow call to {}: {}ms", endpoint, TimeUnit.NANOSECONDS.toMillis(latency));
+                guard.breaker.onFailure();
+                guard.limiter.onDropped();
+                guard.slow.record(latency, TimeUnit.NANOSECONDS);
+            } else {
+                guard.breaker.onSuccess();
+                guard.limiter.onSuccess(latency);
+                guard.success.record(latency, TimeUnit.NANOSECONDS);
+            }
+            return result;
+        } catch (RuntimeException e) {
+            recorded = true;
+            long latency = System.nanoTime() - start;
+            if (isClientError(e)) {
+                // The upstream answered; a 4xx says nothing about its health
+                guard.breaker.onSuccess();
+                guard.limiter.onSuccess(latency);
+                guard.clientError.record(latency, TimeUnit.NANOSECONDS);
+            } else {
+                guard.breaker.onFailure();
+                guard.limiter.onDropped();
+                guard.failure.record(latency, TimeUnit.NANOSECONDS);
+            }
+            throw e;
+        } finally {
+            if (!recorded) {
+                // An Error escaped the call: count it as a failure so a half-open trial and
+                // its concurrency slot are given back rather than held forever
+                guard.breaker.onFailure();
+                guard.limiter.onDropped();
+            }
+        }
+    }
+
+    /**
+     * Fails fast if the endpoint's circuit is open, without taking a permit. Used before
+     * spending quota or API keys on a call that would be rejected anyway.
+     */
+    public void ensureAvailable(String endpoint) {
+        Guard guard = guard(endpoint);
+        if (!guard.breaker.isCallPermitted()) {
+            throw circuitOpen(endpoint, guard);
+        }
+    }
+
+    public CircuitBreaker.State getState(String endpoint) {
+        return guard(endpoint).breaker.getState();
+    }
+
+    public int getConcurrencyLimit(String endpoint) {
+        return guard(endpoint).limiter.getLimit();
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        guards.forEach((endpoint, guard) -> snapshot.put(endpoint, Map.of(
+                "state", guard.breaker.getState(),
+                "limit", guard.limiter.getLimit(),
+                "inFlight", guard.limiter.getInFlight())));
+        return snapshot;
+    }
+
+    private Guard guard(String endpoint) {
+        Guard guard = guards.get(endpoint);
+        return guard != null ? guard : guards.computeIfAbsent(endpoint, this::createGuard);
+    }
+
+    private Guard createGuard(String endpoint) {
+        CircuitBreaker breaker = new CircuitBreaker(endpoint, windowSize, minimumCalls, failureRateThreshold, openMillis);
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(
+                initialLimit, minLimit, maxLimit, latencyThresholdMillis, backoffRatio);
+
+        Gauge.builder("youtube.upstream.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current adaptive concurrency limit")
+                .tag("endpoint", endpoint)
+                .register(meterRegistry);
+        Gauge.builder("youtube.upstream.in.flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .tag("endpoint", endpoint)
+                .register(meterRegistry);
+        Gauge.builder("youtube.upstream.circuit.open", breaker, b -> b.getState() == CircuitBreaker.State.CLOSED ? 0 : 1)
+                .description("1 while the circuit is open or half-open")
+                .tag("endpoint", endpoint)
+                .register(meterRegistry);
+
+        return new Guard(breaker, limiter,
+                callTimer(endpoint, "success"),
+                callTimer(endpoint, "slow"),
+                callTimer(endpoint, "client_error"),
+                callTimer(endpoint, "error"),
+                rejectedCounter(endpoint, "concurrency_limit"),
+                rejectedCounter(endpoint, "circuit_open"));
+    }
+
+    private Timer callTimer(String endpoint, String outcome) {
+        return Timer.builder("youtube.upstream.calls")
+                .description("Latency of calls to YouTube, by endpoint and outcome")
+                .tag("endpoint", endpoint)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private Counter rejectedCounter(String endpoint, String reason) {
+        return Counter.builder("youtube.upstream.rejected")
+                .description("Calls failed fast without reaching YouTube")
+                .tag("endpoint", endpoint)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    private UpstreamUnavailableException circuitOpen(String endpoint, Guard guard) {
+        long retryAfter = Math.max(1, TimeUnit.MILLISECONDS.toSeconds(guard.breaker.getRemainingOpenMillis()));
+        return new UpstreamUnavailableException(endpoint + " is temporarily unavailable", retryAfter);
+    }
+
+    private boolean isClientError(RuntimeException e) {
+        return e instanceof HttpClientErrorException
+                || (e instanceof WebClientResponseException response && response.getStatusCode().is4xxClientError());
+    }
+
+    private record Guard(CircuitBreaker breaker, AdaptiveConcurrencyLimiter limiter,
+                         Timer success, Timer slow, Timer clientError, Timer failure,
+                         Counter rejectedByLimit, Counter rejectedByCircuit) {
+    }
+}
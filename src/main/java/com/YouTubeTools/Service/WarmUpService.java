@@ -0,0 +1,227 @@
+package com.YouTubeTools.Service;
+
+import com.YouTubeTools.Util.JsonItemStream;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Warms the instance up before it reports ready. Spring Boot only flips readiness to
+ * ACCEPTING_TRAFFIC after every ApplicationRunner has returned, so this runner blocks for
+ * at most {@code warmup.budget-seconds} while it:
+ *
+ * - reloads the hottest cache keys saved by the previous instance at shutdown,
+ * - opens and TLS-handshakes pooled connections to youtube.com and googleapis.com,
+ * - replays bundled fixtures through the json3 transcript parser and the Jackson
+ *   deserializers for the Data API responses, so they are JIT-compiled before real traffic.
+ *
+ * Whatever is unfinished when the budget runs out is cancelled, and the instance goes ready
+ * anyway: a partly warm instance is better than one held out of rotation.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class WarmUpService implements ApplicationRunner {
+
+    private static final TypeReference<Map<String, List<String>>> SNAPSHOT_TYPE = new TypeReference<>() {};
+
+    private final PopularityTracker popularityTracker;
+    private final HotKeyRefresher hotKeyRefresher;
+    private final TranscriptService transcriptService;
+    private final RestTemplate restTemplate;
+    private final WebClient.Builder webClientBuilder;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${warmup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${warmup.budget-seconds:45}")
+    private long budgetSeconds;
+
+    @Value("${warmup.threads:8}")
+    private int threads;
+
+    @Value("${warmup.snapshot-file:${java.io.tmpdir}/youtube-tools/hot-keys.json}")
+    private String snapshotFile;
+
+    @Value("${warmup.snapshot-max-keys:50}")
+    private int snapshotMaxKeys;
+
+    @Value("${warmup.connections-per-host:4}")
+    private int connectionsPerHost;
+
+    @Value("${warmup.parser-iterations:500}")
+    private int parserIterations;
+
+    @Value("${youtube.web.base.url:https://www.youtube.com}")
+    private String webBaseUrl;
+
+    @Value("${youtube.api.base.url:https://www.googleapis.com/youtube/v3}")
+    private String apiBaseUrl;
+
+    @Override
+    public void run(ApplicationArguments args) throws InterruptedException {
+        if (!enabled) {
+            return;
+        }
+        long started = System.nanoTime();
+        List<Callable<String>> tasks = new ArrayList<>();
+        tasks.add(this::primeParsers);
+        for (int i = 0; i < connectionsPerHost; i++) {
+            tasks.add(this::prewarmWebConnection);
+            tasks.add(this::prewarmApiConnection);
+        }
+        // Queued behind the connection tasks so restores find the pools already warm
+        readSnapshot().forEach((cacheName, keys) -> keys.stream()
+                .limit(snapshotMaxKeys)
+                .forEach(key -> tasks.add(() -> restore(cacheName, key))));
+
+        AtomicInteger threadCounter = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "warm-up-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        int completed = 0;
+        try {
+            for (Future<String> future : executor.invokeAll(tasks, budgetSeconds, TimeUnit.SECONDS)) {
+                if (!future.isCancelled()) {
+                    completed++;
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        long elapsed = System.nanoTime() - started;
+        boolean finished = completed == tasks.size();
+        Timer.builder("startup.warmup")
+                .description("Time spent warming up before reporting ready")
+                .tag("outcome", finished ? "completed" : "budget_exceeded")
+                .register(meterRegistry)
+                .record(elapsed, TimeUnit.NANOSECONDS);
+        log.info("Warm-up {} {}/{} tasks in {} ms", finished ? "finished" : "ran out of budget after",
+                completed, tasks.size(), TimeUnit.NANOSECONDS.toMillis(elapsed));
+    }
+
+    /**
+     * Saves the current top keys of each tracked cache for the next instance to restore.
+     * Keys only: values are reloaded from upstream, so nothing stale survives a deploy.
+     */
+    @PreDestroy
+    void saveSnapshot() {
+        if (!enabled) {
+            return;
+        }
+        Map<String, List<String>> snapshot = new LinkedHashMap<>();
+        popularityTracker.snapshot().forEach((cacheName, hotKeys) -> snapshot.put(cacheName,
+                hotKeys.stream().map(hotKey -> String.valueOf(hotKey.key())).limit(snapshotMaxKeys).toList()));
+        try {
+            Path path = Paths.get(snapshotFile);
+            Files.createDirectories(path.toAbsolutePath().getParent());
+            // Write then move, so a crash mid-write never leaves a truncated snapshot
+            Path temp = Files.createTempFile(path.toAbsolutePath().getParent(), "hot-keys", ".tmp");
+            objectMapper.writeValue(temp.toFile(), snapshot);
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.info("Saved {} hot cache keys to {}", snapshot.values().stream().mapToInt(List::size).sum(), path);
+        } catch (IOException e) {
+            log.warn("Could not save hot key snapshot to {}: {}", snapshotFile, e.getMessage());
+        }
+    }
+
+    private Map<String, List<String>> readSnapshot() {
+        Path path = Paths.get(snapshotFile);
+        if (!Files.isRegularFile(path)) {
+            return Map.of();
+        }
+        try {
+            return objectMapper.readValue(path.toFile(), SNAPSHOT_TYPE);
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable hot key snapshot {}: {}", path, e.getMessage());
+            return Map.of();
+        }
+    }
+
+    private String restore(String cacheName, String key) {
+        try {
+            hotKeyRefresher.reload(cacheName, key);
+        } catch (Exception e) {
+            log.debug("Could not restore {} entry {}: {}", cacheName, key, e.getMessage());
+        }
+        return "restore";
+    }
+
+    // Any response, even an error status, leaves a handshaken connection in the pool
+    private String prewarmWebConnection() {
+        try {
+            restTemplate.headForHeaders(webBaseUrl);
+        } catch (Exception e) {
+            log.debug("Connection prewarm to {} failed: {}", webBaseUrl, e.getMessage());
+        }
+        return "web";
+    }
+
+    private String prewarmApiConnection() {
+        try {
+            webClientBuilder.baseUrl(apiBaseUrl).build()
+                    .head()
+                    .retrieve()
+                    .toBodilessEntity()
+                    .block(Duration.ofSeconds(budgetSeconds));
+        } catch (Exception e) {
+            log.debug("Connection prewarm to {} failed: {}", apiBaseUrl, e.getMessage());
+        }
+        return "api";
+    }
+
+    private String primeParsers() throws IOException {
+        String transcriptJson = fixture("warmup/timedtext-json3.json");
+        byte[] videosJson = fixture("warmup/videos-list-response.json").getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; i < parserIterations && !Thread.currentThread().isInterrupted(); i++) {
+            transcriptService.parseJson3Transcript("warmup", transcriptJson, "en");
+            // Same streaming decode the Data API calls go through
+            JsonItemStream.items(Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(videosJson)), "items",
+                    YouTubeService.VideoItem.class, objectMapper, Integer.MAX_VALUE).blockLast();
+        }
+        return "parsers";
+    }
+
+    private static String fixture(String path) throws IOException {
+        try (InputStream in = new ClassPathResource(path).getInputStream()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.YouTubeTools.Service;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * YouTube Data API v3 endpoints we call, with their quota cost in units per request and the
+ * largest response body we accept. The limits fit the field-filtered responses with room to
+ * spare; anything larger is a misbehaving upstream, not data worth buffering.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum YouTubeApiEndpoint {
+    SEARCH("search", 100, 64),
+    VIDEOS("videos", 1, 64),
+    CAPTIONS("captions", 50, 64);
+
+    private final String path;
+    private final int cost;
+    private final int maxResponseKb;
+
+    public int getMaxResponseBytes() {
+        return maxResponseKb * 1024;
+    }
+}
@@ -1,18 +1,35 @@
 package com.YouTubeTools.Service;
 
+import com.YouTubeTools.Config.ApiKeyPool;
+import com.YouTubeTools.Exception.QuotaExceededException;
+import com.YouTubeTools.Exception.UpstreamUnavailableException;
 import com.YouTubeTools.Model.SearchVideo;
 import com.YouTubeTools.Model.Video;
 import com.YouTubeTools.Model.VideoDetails;
+import com.YouTubeTools.Util.ETagUtil;
+import com.YouTubeTools.Util.JsonItemStream;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Function;
 
 @Service
 @RequiredArgsConstructor
@@ -20,9 +37,12 @@ import java.util.List;
 public class YouTubeService {
 
     private final WebClient.Builder webClient;
-
-    @Value("${youtube.api.key}")
-    private String apiKey;
+    private final QuotaGovernor quotaGovernor;
+    private final ApiKeyPool apiKeyPool;
+    private final UpstreamResilienceService resilienceService;
+    private final TagCorpusService tagCorpusService;
+    private final ExecutorService upstreamFanOutExecutor;
+    private final ObjectMapper objectMapper;
 
     @Value("${youtube.api.base.url}")
     private String baseUrl;
@@ -48,14 +68,28 @@ public class YouTubeService {
 
         log.info("Found {} related videos for primary video: {}", relatedVideoIds.size(), primaryVideoId);
 
-        Video primaryVideo = getVideoById(primaryVideoId);
+        // Related videos are nice to have; they are the first to go when quota runs low.
+        // They are fetched concurrently while this thread fetches the primary video.
+        List<Future<Video>> pending = new ArrayList<>(relatedVideoIds.size());
+        for (String id : relatedVideoIds) {
+            pending.add(upstreamFanOutExecutor.submit(() -> getVideoById(id, QuotaPriority.LOW)));
+        }
 
-        List<Video> relatedVideos = new ArrayList<>();
+        Video primaryVideo = getVideoById(primaryVideoId, QuotaPriority.NORMAL);
 
-        for (String id : relatedVideoIds) {
-            Video video = getVideoById(id);
-            if (video != null){
-                relatedVideos.add(video);
+        List<Video> relatedVideos = new ArrayList<>();
+        for (Future<Video> future : pending) {
+            try {
+                Video video = future.get();
+                if (video != null){
+                    relatedVideos.add(video);
+                }
+            } catch (ExecutionException e) {
+                log.error("Error fetching related video", e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                pending.forEach(remaining -> remaining.cancel(true));
+                break;
             }
         }
 
@@ -67,27 +101,33 @@ public class YouTubeService {
                 .build();
     }
 
+    @Cacheable(value = "videoDetails", unless = "#result == null")
     public VideoDetails getVideoDetails(String videoId){
+        return loadVideoDetails(videoId, QuotaPriority.HIGH);
+    }
+
+    /**
+     * Reloads cached details ahead of expiry for {@link HotKeyRefresher}. Readers keep
+     * getting the old entry until this one replaces it. Spends quota at LOW priority, so
+     * refreshes are the first thing shed when the budget runs low.
+     */
+    @CachePut(value = "videoDetails", unless = "#result == null")
+    public VideoDetails refreshVideoDetails(String videoId) {
+        return loadVideoDetails(videoId, QuotaPriority.LOW);
+    }
+
+    private VideoDetails loadVideoDetails(String videoId, QuotaPriority priority) {
         log.info("Fetching video details for ID: {}", videoId);
 
         try {
-            VideoApiResponse response = webClient.baseUrl(baseUrl).build()
-                    .get()
-                    .uri(uriBuilder -> uriBuilder.path("/videos")
-                            .queryParam("part", "snippet")
-                            .queryParam("id", videoId)
-                            .queryParam("key", apiKey)
-                            .build())
-                    .retrieve()
-                    .bodyToMono(VideoApiResponse.class)
-                    .block();
-
-            if (response == null || response.items == null || response.items.isEmpty()){
+            VideoItem item = fetchVideo(videoId, ApiFieldProfile.VIDEO_DETAILS, priority);
+
+            if (item == null || item.snippet == null){
                 log.warn("No video details found for ID: {}", videoId);
                 return null;
             }
 
-            Snippet snippet = response.items.get(0).snippet;
+            Snippet snippet = item.snippet;
             String thumbnailUrl = snippet.thumbnails != null ? snippet.thumbnails.getBestThumbnailUrl() : null;
 
             VideoDetails details = VideoDetails.builder()
@@ -98,39 +138,38 @@ public class YouTubeService {
                     .publishedAt(snippet.getPublishedAt())
                     .tags(snippet.getTags() != null ? snippet.getTags() : Collections.emptyList())
                     .thumbnailUrl(thumbnailUrl)
+                    // Hidden like counts and live streams come without these
+                    .viewCount(item.statistics != null ? item.statistics.viewCount : null)
+                    .likeCount(item.statistics != null ? item.statistics.likeCount : null)
+                    .duration(item.contentDetails != null ? item.contentDetails.duration : null)
                     .build();
+            details.setContentHash(ETagUtil.contentHash(details));
 
+            tagCorpusService.ingest(videoId, details.getTags());
             log.info("Successfully fetched details for video: {}", details.getTitle());
             return details;
 
+        } catch (QuotaExceededException | UpstreamUnavailableException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Error fetching video details for ID: {}", videoId, e);
             return null;
         }
     }
 
-    private Video getVideoById(String videoId) {
+    private Video getVideoById(String videoId, QuotaPriority priority) {
         log.debug("Fetching video by ID: {}", videoId);
 
         try {
-            VideoApiResponse response = webClient.baseUrl(baseUrl)
-                    .build()
-                    .get()
-                    .uri(uriBuilder -> uriBuilder.path("/videos")
-                            .queryParam("part", "snippet")
-                            .queryParam("id", videoId)
-                            .queryParam("key", apiKey)
-                            .build())
-                    .retrieve()
-                    .bodyToMono(VideoApiResponse.class)
-                    .block();
-
-            if (response == null || response.items == null || response.items.isEmpty()) {
+            VideoItem item = fetchVideo(videoId, ApiFieldProfile.VIDEO_TAGS, priority);
+
+            if (item == null || item.snippet == null) {
                 log.warn("No video found with ID: {}", videoId);
                 return null;
             }
 
-            Snippet snippet = response.items.get(0).snippet;
+            Snippet snippet = item.snippet;
+            tagCorpusService.ingest(videoId, snippet.tags);
             return Video.builder()
                     .id(videoId)
                     .channelTitle(snippet.channelTitle)
@@ -138,6 +177,9 @@ public class YouTubeService {
                     .tags(snippet.tags == null ? Collections.emptyList() : snippet.tags)
                     .build();
 
+        } catch (QuotaExceededException | UpstreamUnavailableException e) {
+            log.warn("Skipping video {}: {}", videoId, e.getMessage());
+            return null;
         } catch (Exception e) {
             log.error("Error fetching video by ID: {}", videoId, e);
             return null;
@@ -148,67 +190,137 @@ public class YouTubeService {
         log.debug("Searching for video IDs with title: {}", videoTitle);
 
         try {
-            SearchApiResponse response = webClient.baseUrl(baseUrl).build()
-                    .get()
-                    .uri(uriBuilder -> uriBuilder.path("/search")
-                            .queryParam("part", "snippet")
-                            .queryParam("q", videoTitle)
-                            .queryParam("type", "video")
-                            .queryParam("maxResults", maxRelatedVideos + 1)
-                            .queryParam("key", apiKey)
-                            .build())
-                    .retrieve()
-                    .bodyToMono(SearchApiResponse.class)
-                    .block();
-
-            if (response == null || response.items == null) {
+            List<String> videoIds = callApi(YouTubeApiEndpoint.SEARCH, QuotaPriority.NORMAL, apiKey ->
+                    items(YouTubeApiEndpoint.SEARCH, SearchItem.class, webClient.baseUrl(baseUrl).build()
+                            .get()
+                            .uri(uriBuilder -> uriBuilder.path("/search")
+                                    .queryParam("part", ApiFieldProfile.SEARCH_IDS.getPart())
+                                    .queryParam("fields", ApiFieldProfile.SEARCH_IDS.getFields())
+                                    .queryParam("q", videoTitle)
+                                    .queryParam("type", "video")
+                                    .queryParam("maxResults", maxRelatedVideos + 1)
+                                    .queryParam("key", apiKey)
+                                    .build())
+                            .retrieve()
+                            .bodyToFlux(DataBuffer.class))
+                            .filter(item -> item.id != null && item.id.videoId != null)
+                            .map(item -> item.id.videoId)
+                            .collectList()
+                            .block());
+
+            if (videoIds == null || videoIds.isEmpty()) {
                 log.warn("No search results for title: {}", videoTitle);
                 return Collections.emptyList();
             }
 
-            List<String> videoIds = new ArrayList<>();
-
-            for (SearchItem item : response.items) {
-                if (item.id != null && item.id.videoId != null) {
-                    videoIds.add(item.id.videoId);
-                }
-            }
-
             log.info("Found {} video IDs for search: {}", videoIds.size(), videoTitle);
             return videoIds;
 
+        } catch (QuotaExceededException | UpstreamUnavailableException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Error searching for videos with title: {}", videoTitle, e);
             return Collections.emptyList();
         }
     }
 
-    @Data
-    static class SearchApiResponse {
-        List<SearchItem> items;
+    private VideoItem fetchVideo(String videoId, ApiFieldProfile profile, QuotaPriority priority) {
+        return callApi(YouTubeApiEndpoint.VIDEOS, priority, apiKey ->
+                items(YouTubeApiEndpoint.VIDEOS, VideoItem.class, webClient.baseUrl(baseUrl).build()
+                        .get()
+                        .uri(uriBuilder -> uriBuilder.path("/videos")
+                                .queryParam("part", profile.getPart())
+                                .queryParam("fields", profile.getFields())
+                                .queryParam("id", videoId)
+                                .queryParam("key", apiKey)
+                                .build())
+                        .retrieve()
+                        .bodyToFlux(DataBuffer.class))
+                        .next()
+                        .block());
+    }
+
+    /**
+     * The {@code items} of a list response, decoded one by one as the body streams in rather
+     * than after buffering all of it, and capped at the endpoint's response size limit.
+     */
+    private <T> Flux<T> items(YouTubeApiEndpoint endpoint, Class<T> type, Flux<DataBuffer> body) {
+        return JsonItemStream.items(body, "items", type, objectMapper, endpoint.getMaxResponseBytes());
+    }
+
+    /**
+     * Picks a key from the pool, spends quota for the endpoint and runs the call with the key
+     * behind the Data API circuit breaker. The key comes first so no quota is spent when every
+     * key is quarantined. The outcome is reported back to the pool so failing keys lose weight
+     * or get quarantined.
+     */
+    private <T> T callApi(YouTubeApiEndpoint endpoint, QuotaPriority priority, Function<String, T> call) {
+        resilienceService.ensureAvailable(UpstreamResilienceService.YOUTUBE_DATA_API);
+        String apiKey = apiKeyPool.acquire();
+        quotaGovernor.acquire(endpoint, priority);
+
+        try {
+            T result = resilienceService.execute(UpstreamResilienceService.YOUTUBE_DATA_API, () -> call.apply(apiKey));
+            apiKeyPool.reportSuccess(apiKey);
+            return result;
+        } catch (WebClientResponseException e) {
+            String body = e.getResponseBodyAsString();
+            if (e.getStatusCode().value() == 403 && (body.contains("quotaExceeded") || body.contains("dailyLimitExceeded"))) {
+                apiKeyPool.reportQuotaExceeded(apiKey);
+                quotaGovernor.markExhausted();
+            } else if (e.getStatusCode().value() == 429 || body.contains("rateLimitExceeded")) {
+                apiKeyPool.reportRateLimited(apiKey);
+            } else {
+                apiKeyPool.reportFailure(apiKey);
+            }
+            throw e;
+        } catch (UpstreamUnavailableException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            apiKeyPool.reportFailure(apiKey);
+            throw e;
+        }
     }
 
+    // The fields filter already trims responses; ignoreUnknown keeps parsing robust if it is widened
+
     @Data
+    @JsonIgnoreProperties(ignoreUnknown = true)
     static class SearchItem {
         Id id;
 
         @Data
+        @JsonIgnoreProperties(ignoreUnknown = true)
         static class Id {
             String videoId;
         }
     }
 
     @Data
-    static class VideoApiResponse {
-        List<VideoItem> items;
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    static class VideoItem {
+        Snippet snippet;
+        Statistics statistics;
+        ContentDetails contentDetails;
     }
 
     @Data
-    static class VideoItem {
-        Snippet snippet;
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    static class Statistics {
+        // Sent as strings; Jackson coerces them
+        Long viewCount;
+        Long likeCount;
+    }
+
+    @Data
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    static class ContentDetails {
+        /** ISO-8601, e.g. PT12M14S. */
+        String duration;
     }
 
     @Data
+    @JsonIgnoreProperties(ignoreUnknown = true)
     static class Snippet {
         String title;
         String description;
@@ -219,11 +331,13 @@ public class YouTubeService {
     }
 
     @Data
+    @JsonIgnoreProperties(ignoreUnknown = true)
     static class Thumbnails {
         Thumbnail maxres;
         Thumbnail high;
         Thumbnail medium;
         Thumbnail standard;
+        @JsonProperty("default")
         Thumbnail _default;
 
         String getBestThumbnailUrl() {
@@ -236,6 +350,7 @@ public class YouTubeService {
     }
 
     @Data
+    @JsonIgnoreProperties(ignoreUnknown = true)
     static class Thumbnail {
         String url;
         int width;
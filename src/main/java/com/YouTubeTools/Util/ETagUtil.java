@@ -0,0 +1,63 @@
+package com.YouTubeTools.Util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import lombok.experimental.UtilityClass;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Content hashes and strong ETags for cached API entities. The hash is computed once when
+ * an entity is cached and kept with it, so answering {@code If-None-Match} costs a string
+ * comparison rather than a serialization.
+ */
+@UtilityClass
+public class ETagUtil {
+
+    // Sorted keys so the hash depends only on the content, not on field or map ordering
+    private static final ObjectMapper CANONICAL = JsonMapper.builder()
+            .enable(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY)
+            .enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+            .build();
+
+    /**
+     * 128 bits of the SHA-256 of the entity's canonical JSON, base64url encoded.
+     */
+    public static String contentHash(Object entity) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(CANONICAL.writeValueAsBytes(entity));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, 16));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Cannot hash " + entity.getClass().getSimpleName(), e);
+        }
+    }
+
+    /**
+     * Strong ETag for one representation of the content. Each view and wire format is a
+     * different byte sequence, so each gets its own tag.
+     */
+    public static String strongETag(String contentHash, String... variants) {
+        return "\"" + contentHash + (variants.length > 0 ? "-" + String.join("-", variants) : "") + "\"";
+    }
+
+    /**
+     * The wire format content negotiation will pick for this Accept header: smile, cbor or json.
+     */
+    public static String wireFormat(String accept) {
+        if (accept != null) {
+            if (accept.contains("smile")) {
+                return "smile";
+            }
+            if (accept.contains("cbor")) {
+                return "cbor";
+            }
+        }
+        return "json";
+    }
+}
@@ -0,0 +1,146 @@
+package com.YouTubeTools.Util;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import lombok.experimental.UtilityClass;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Decodes the elements of one top-level array of a JSON response, e.g. the {@code items} of a
+ * Data API list call, while the body is still arriving. Each network buffer is fed to Jackson's
+ * non-blocking parser and released straight away, so memory holds at most one buffer plus the
+ * element being parsed instead of the whole body.
+ *
+ * Everything outside the array (pageInfo, etag, kind) is skipped. A body larger than
+ * {@code maxBytes} fails with {@link DataBufferLimitException}; malformed or truncated JSON
+ * fails with {@link DecodingException}.
+ */
+@UtilityClass
+public class JsonItemStream {
+
+    public static <T> Flux<T> items(Flux<DataBuffer> body, String arrayField, Class<T> type,
+                                    ObjectMapper objectMapper, int maxBytes) {
+        return Flux.defer(() -> {
+            Tokenizer<T> tokenizer = new Tokenizer<>(objectMapper, arrayField, type, maxBytes);
+            return body.concatMapIterable(tokenizer::feed)
+                    .concatWith(Mono.fromCallable(tokenizer::endOfInput).flatMapIterable(items -> items))
+                    .doFinally(signal -> tokenizer.close())
+                    // Buffers still queued when the subscriber cancels or fails must be released too
+                    .doOnDiscard(DataBuffer.class, DataBufferUtils::release);
+        });
+    }
+
+    private static final class Tokenizer<T> {
+
+        private final ObjectMapper objectMapper;
+        private final String arrayField;
+        private final Class<T> type;
+        private final int maxBytes;
+        private final JsonParser parser;
+        private final ByteArrayFeeder feeder;
+
+        private long bytesRead;
+        private int depth;
+        private String rootField;
+        private boolean inArray;
+        private TokenBuffer element;
+
+        Tokenizer(ObjectMapper objectMapper, String arrayField, Class<T> type, int maxBytes) {
+            this.objectMapper = objectMapper;
+            this.arrayField = arrayField;
+            this.type = type;
+            this.maxBytes = maxBytes;
+            try {
+                this.parser = objectMapper.getFactory().createNonBlockingByteArrayParser();
+            } catch (IOException e) {
+                throw new IllegalStateException("Cannot create a non-blocking JSON parser", e);
+            }
+            this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+        }
+
+        List<T> feed(DataBuffer buffer) {
+            try {
+                int length = buffer.readableByteCount();
+                bytesRead += length;
+                if (bytesRead > maxBytes) {
+                    throw new DataBufferLimitException("Response exceeds the limit of " + maxBytes + " bytes");
+                }
+                byte[] chunk = new byte[length];
+                buffer.read(chunk);
+                feeder.feedInput(chunk, 0, length);
+                return drain();
+            } catch (IOException e) {
+                throw new DecodingException("Malformed JSON response: " + e.getMessage(), e);
+            } finally {
+                DataBufferUtils.release(buffer);
+            }
+        }
+
+        List<T> endOfInput() {
+            try {
+                feeder.endOfInput();
+                List<T> items = drain();
+                if (depth != 0) {
+                    throw new DecodingException("Truncated JSON response");
+                }
+                return items;
+            } catch (IOException e) {
+                throw new DecodingException("Malformed JSON response: " + e.getMessage(), e);
+            }
+        }
+
+        void close() {
+            try {
+                parser.close();
+            } catch (IOException ignored) {
+                // Nothing is held besides the parser's own buffers
+            }
+        }
+
+        private List<T> drain() throws IOException {
+            List<T> items = new ArrayList<>();
+            JsonToken token;
+            while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+                if (element == null && inArray && depth == 2 && token != JsonToken.END_ARRAY) {
+                    element = new TokenBuffer(parser, null);
+                }
+                if (element != null) {
+                    element.copyCurrentEvent(parser);
+                }
+
+                if (token.isStructStart()) {
+                    depth++;
+                    if (token == JsonToken.START_ARRAY && depth == 2 && arrayField.equals(rootField)) {
+                        inArray = true;
+                    }
+                } else if (token.isStructEnd()) {
+                    depth--;
+                    if (depth < 2) {
+                        inArray = false;
+                    }
+                } else if (token == JsonToken.FIELD_NAME && depth == 1) {
+                    rootField = parser.currentName();
+                }
+
+                // Back at array level: the element that was being copied is complete
+                if (element != null && depth == 2) {
+                    items.add(objectMapper.readValue(element.asParser(objectMapper), type));
+                    element = null;
+                }
+            }
+            return items;
+        }
+    }
+}
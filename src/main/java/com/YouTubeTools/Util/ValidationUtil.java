@@ -10,6 +10,8 @@ import java.util.regex.Pattern;
 public class ValidationUtil {
 
     private static final Pattern YOUTUBE_VIDEO_ID_PATTERN = Pattern.compile("^[a-zA-Z0-9_-]{11}$");
+    // Caption codes such as "en", "pt-BR", "es-419" or "zh-Hant"
+    private static final Pattern LANGUAGE_CODE_PATTERN = Pattern.compile("^[A-Za-z0-9-]{2,12}$");
     private static final Pattern YOUTUBE_URL_PATTERN = Pattern.compile(
             "^(https?://)?(www\\.)?(youtube\\.com|youtu\\.be)/.+$"
     );
@@ -21,6 +23,10 @@ public class ValidationUtil {
         return YOUTUBE_VIDEO_ID_PATTERN.matcher(videoId.trim()).matches();
     }
 
+    public static boolean isValidLanguageCode(String language) {
+        return language != null && LANGUAGE_CODE_PATTERN.matcher(language).matches();
+    }
+
     public static boolean isValidYouTubeUrl(String url) {
         if (url == null) {
             return false;
@@ -0,0 +1,163 @@
+package com.YouTubeTools.Config;
+
+import com.YouTubeTools.Model.VideoDetails;
+import com.YouTubeTools.Service.ClusterService;
+import com.YouTubeTools.Service.PopularityTracker;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Routing of a clustered cache between its local entries, the hot-key mirror and a stub
+ * owner peer, including what happens when the owner is down.
+ */
+class ClusteredCacheTest {
+
+    private static final String SELF = "http://127.0.0.1:1";
+    private static final String SECRET = "test-secret";
+
+    private HttpServer peer;
+    private final AtomicInteger peerHits = new AtomicInteger();
+    private ClusterService clusterService;
+    private PopularityTracker popularityTracker;
+    private ConcurrentMapCache local;
+    private ClusteredCache cache;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        peer = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        peer.createContext("/internal/cluster/cache/videoDetails", this::respond);
+        peer.start();
+        String peerUrl = "http://127.0.0.1:" + peer.getAddress().getPort();
+
+        clusterService = new ClusterService(new RestTemplateBuilder(), new SimpleMeterRegistry(), 500, 2000);
+        ReflectionTestUtils.setField(clusterService, "enabled", true);
+        ReflectionTestUtils.setField(clusterService, "self", SELF);
+        ReflectionTestUtils.setField(clusterService, "peers", SELF + "," + peerUrl);
+        ReflectionTestUtils.setField(clusterService, "virtualNodes", 160);
+        ReflectionTestUtils.setField(clusterService, "secret", SECRET);
+        ReflectionTestUtils.invokeMethod(clusterService, "init");
+
+        popularityTracker = new PopularityTracker();
+        ReflectionTestUtils.setField(popularityTracker, "topK", 10);
+        ReflectionTestUtils.setField(popularityTracker, "sketchDepth", 4);
+        ReflectionTestUtils.setField(popularityTracker, "sketchWidth", 256);
+        ReflectionTestUtils.setField(popularityTracker, "decaySeconds", 3600L);
+
+        local = new ConcurrentMapCache("videoDetails", false);
+        cache = new ClusteredCache(local, VideoDetails.class, clusterService, popularityTracker, 10, Duration.ofMinutes(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        peer.stop(0);
+    }
+
+    @Test
+    void ownedKeysStayLocal() {
+        String key = keyOwnedBy(SELF);
+        cache.put(key, VideoDetails.builder().id(key).build());
+
+        assertThat(cache.get(key, VideoDetails.class).getId()).isEqualTo(key);
+        assertThat(local.get(key)).isNotNull();
+        assertThat(peerHits.get()).isZero();
+    }
+
+    @Test
+    void remoteKeysComeFromTheOwnerWithTheirContentHash() {
+        String key = remoteKey();
+
+        VideoDetails details = cache.get(key, VideoDetails.class);
+        cache.get(key);
+
+        assertThat(details.getId()).isEqualTo(key);
+        assertThat(details.getContentHash()).isEqualTo("hash-" + key);
+        // Not hot, so nothing was mirrored and both lookups went to the owner
+        assertThat(peerHits.get()).isEqualTo(2);
+        assertThat(local.get(key)).isNull();
+    }
+
+    @Test
+    void hotRemoteKeysAreMirrored() {
+        String key = remoteKey();
+        popularityTracker.record("videoDetails", key);
+
+        cache.get(key);
+        cache.get(key);
+        cache.get(key);
+
+        assertThat(peerHits.get()).isEqualTo(1);
+    }
+
+    @Test
+    void ownerNotFoundIsAnAuthoritativeMiss() {
+        String key = "missing-" + remoteKey();
+        while (clusterService.isLocal(key)) {
+            key = key + "x";
+        }
+
+        Cache.ValueWrapper wrapper = cache.get(key);
+
+        assertThat(wrapper).isNotNull();
+        assertThat(wrapper.get()).isNull();
+    }
+
+    @Test
+    void unreachableOwnerFallsBackToALocalLoadKeptInTheMirror() {
+        String key = remoteKey();
+        peer.stop(0);
+
+        assertThat(cache.get(key)).isNull();
+        cache.put(key, VideoDetails.builder().id(key).build());
+
+        assertThat(cache.get(key, VideoDetails.class).getId()).isEqualTo(key);
+        assertThat(local.get(key)).isNull();
+    }
+
+    private String remoteKey() {
+        String key = keyOwnedBy("http://127.0.0.1:" + peer.getAddress().getPort());
+        assertThat(clusterService.isLocal(key)).isFalse();
+        return key;
+    }
+
+    private String keyOwnedBy(String node) {
+        for (int i = 0; ; i++) {
+            String key = "video" + i;
+            if (clusterService.ownerOf(key).equals(node)) {
+                return key;
+            }
+        }
+    }
+
+    private void respond(HttpExchange exchange) throws IOException {
+        peerHits.incrementAndGet();
+        String key = exchange.getRequestURI().getQuery().replace("key=", "");
+        if (!SECRET.equals(exchange.getRequestHeaders().getFirst(ClusterService.SECRET_HEADER))) {
+            exchange.sendResponseHeaders(403, -1);
+        } else if (key.startsWith("missing-")) {
+            exchange.sendResponseHeaders(404, -1);
+        } else {
+            byte[] body = ("{\"id\":\"" + key + "\",\"title\":\"Video " + key + "\"}").getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.getResponseHeaders().set("ETag", "\"hash-" + key + "\"");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+        }
+        exchange.close();
+    }
+}
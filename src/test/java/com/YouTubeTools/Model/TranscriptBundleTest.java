@@ -0,0 +1,86 @@
+package com.YouTubeTools.Model;
+
+import com.YouTubeTools.Model.TranscriptBundle.Row;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TranscriptBundleTest {
+
+    @Test
+    void placesOtherLanguagesInTheRowShowingAtTheirMidpoint() {
+        VideoTranscript en = transcript("en", 0, 4, "Hello", 4, 4, "world", 8, 4, "bye");
+        // Cut differently: two short lines in the first row, nothing in the second, and a
+        // long line whose midpoint lands exactly where the third row starts
+        VideoTranscript de = transcript("de", 0, 2, "Hallo", 2, 3, "und", 5, 6, "Welt, tschüss");
+
+        TranscriptBundle bundle = TranscriptBundle.align("video", List.of(en, de), List.of("fr"), List.of("en", "de"));
+
+        assertThat(bundle.getLanguages()).containsExactly("en", "de");
+        assertThat(bundle.getMissingLanguages()).containsExactly("fr");
+        assertThat(bundle.getRows()).extracting(Row::getStart).containsExactly(0.0, 4.0, 8.0);
+        assertThat(bundle.getRows()).extracting(Row::getTexts).containsExactly(
+                Map.of("en", "Hello", "de", "Hallo und"),
+                Map.of("en", "world"),
+                Map.of("en", "bye", "de", "Welt, tschüss"));
+    }
+
+    @Test
+    void linesOutsideTheTimelineJoinTheNearestEnd() {
+        VideoTranscript en = transcript("en", 10, 5, "first", 15, 5, "last");
+        VideoTranscript es = transcript("es", 0, 2, "intro", 12, 2, "primero", 40, 3, "outro");
+        VideoTranscript ja = transcript("ja", 16, 2, "最後");
+
+        TranscriptBundle bundle = TranscriptBundle.align("video", List.of(en, es, ja), List.of(), List.of());
+
+        assertThat(bundle.getRows()).extracting(Row::getTexts).containsExactly(
+                Map.of("en", "first", "es", "intro primero"),
+                Map.of("en", "last", "es", "outro", "ja", "最後"));
+        // Languages keep the order they were asked for within each row
+        assertThat(bundle.getRows().get(1).getTexts().keySet()).containsExactly("en", "es", "ja");
+    }
+
+    @Test
+    void theFirstLanguageSetsTheTimeline() {
+        VideoTranscript en = transcript("en", 0, 4, "Hello", 4, 4, "world");
+        VideoTranscript de = transcript("de", 0, 8, "Hallo Welt");
+
+        TranscriptBundle bundle = TranscriptBundle.align("video", List.of(de, en), List.of(), List.of());
+
+        assertThat(bundle.getRows()).hasSize(1);
+        Row row = bundle.getRows().get(0);
+        assertThat(row.getDuration()).isEqualTo(8.0);
+        assertThat(row.getFormattedTime()).isEqualTo("00:00");
+        assertThat(row.getTexts()).containsExactly(Map.entry("de", "Hallo Welt"), Map.entry("en", "Hello world"));
+    }
+
+    @Test
+    void noTranscriptsGiveNoRows() {
+        TranscriptBundle bundle = TranscriptBundle.align("video", List.of(), List.of("en"), List.of());
+
+        assertThat(bundle.getRows()).isEmpty();
+        assertThat(bundle.getLanguages()).isEmpty();
+        assertThat(bundle.getMissingLanguages()).containsExactly("en");
+    }
+
+    // Entries as (start, duration, text) triples
+    private static VideoTranscript transcript(String language, Object... entries) {
+        List<VideoTranscript.TranscriptEntry> list = new ArrayList<>();
+        for (int i = 0; i < entries.length; i += 3) {
+            list.add(VideoTranscript.TranscriptEntry.builder()
+                    .start(((Number) entries[i]).doubleValue())
+                    .duration(((Number) entries[i + 1]).doubleValue())
+                    .text((String) entries[i + 2])
+                    .build());
+        }
+        return VideoTranscript.builder()
+                .videoId("video")
+                .language(language)
+                .transcriptEntries(list)
+                .build();
+    }
+}
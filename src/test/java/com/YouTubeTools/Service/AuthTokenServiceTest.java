@@ -0,0 +1,143 @@
+package com.YouTubeTools.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.security.oauth2.core.user.DefaultOAuth2User;
+import org.springframework.security.oauth2.core.user.OAuth2User;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Base64;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Round trip, tampering, expiry and key rotation of the stateless session tokens.
+ */
+class AuthTokenServiceTest {
+
+    private static final String SECRET = "0123456789abcdef0123456789abcdef-current";
+    private static final String OLD_SECRET = "0123456789abcdef0123456789abcdef-previous";
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void issuedTokenAuthenticatesAsTheSameUser() {
+        AuthTokenService service = service(SECRET, "", 60);
+        String token = issue(service);
+
+        Authentication authentication = service.verify(token);
+
+        assertThat(authentication).isInstanceOf(OAuth2AuthenticationToken.class);
+        assertThat(authentication.getName()).isEqualTo("1234567890");
+        assertThat(((OAuth2AuthenticationToken) authentication).getAuthorizedClientRegistrationId()).isEqualTo("google");
+        OAuth2User user = (OAuth2User) authentication.getPrincipal();
+        assertThat(user.<String>getAttribute("name")).isEqualTo("Test User");
+        assertThat(user.<String>getAttribute("email")).isEqualTo("test@example.com");
+    }
+
+    @Test
+    void repeatVerificationsComeFromTheCache() {
+        AuthTokenService service = service(SECRET, "", 60);
+        String token = issue(service);
+
+        service.verify(token);
+        service.verify(token);
+        service.verify(token);
+
+        assertThat(meterRegistry.get("auth.token.verifications").tag("result", "verified").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("auth.token.verifications").tag("result", "cached").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void rejectsTamperedForeignAndExpiredTokens() {
+        AuthTokenService service = service(SECRET, "", 60);
+        String token = issue(service);
+        String[] parts = token.split("\\.");
+        // Same claims with another user's id, under the original signature
+        String claims = new String(Base64.getUrlDecoder().decode(parts[1]), StandardCharsets.UTF_8);
+        String otherPayload = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(claims.replace("1234567890", "0987654321").getBytes(StandardCharsets.UTF_8));
+
+        assertThat(otherPayload).isNotEqualTo(parts[1]);
+        assertThat(service.verify(parts[0] + "." + otherPayload + "." + parts[2])).isNull();
+        assertThat(service.verify(issue(service(SECRET + "-other", "", 60)))).isNull();
+        assertThat(service.verify(issue(service(SECRET, "", -1)))).isNull();
+        assertThat(service.verify("not-a-token")).isNull();
+    }
+
+    @Test
+    void previousSecretStillVerifiesDuringRotation() {
+        String oldToken = issue(service(OLD_SECRET, "", 60));
+
+        assertThat(service(SECRET, OLD_SECRET, 60).verify(oldToken)).isNotNull();
+        assertThat(service(SECRET, "", 60).verify(oldToken)).isNull();
+    }
+
+    @Test
+    void sealedValuesRoundTripAndDetectTampering() {
+        AuthTokenService service = service(SECRET, "", 60);
+        String sealed = service.seal("state".getBytes());
+
+        assertThat(service.unseal(sealed)).isEqualTo("state".getBytes());
+        assertThat(service.unseal("x" + sealed)).isNull();
+    }
+
+    @Test
+    void sealedValuesSurviveRotationAndUseTheirOwnKey() {
+        String sealed = service(OLD_SECRET, "", 60).seal("state".getBytes());
+
+        assertThat(service(SECRET, OLD_SECRET, 60).unseal(sealed)).isEqualTo("state".getBytes());
+        assertThat(service(SECRET, "", 60).unseal(sealed)).isNull();
+
+        // A MAC made with the raw signing secret is not a valid seal
+        String data = sealed.substring(0, sealed.indexOf('.'));
+        String signedWithSecret = data + "." + Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(hmac(OLD_SECRET, "state".getBytes()));
+        assertThat(service(OLD_SECRET, "", 60).unseal(signedWithSecret)).isNull();
+    }
+
+    private AuthTokenService service(String secret, String previousSecret, long ttlMinutes) {
+        AuthTokenService service = new AuthTokenService(new ObjectMapper(), meterRegistry);
+        ReflectionTestUtils.setField(service, "enabled", true);
+        ReflectionTestUtils.setField(service, "secret", secret);
+        ReflectionTestUtils.setField(service, "previousSecret", previousSecret);
+        ReflectionTestUtils.setField(service, "ttlMinutes", ttlMinutes);
+        ReflectionTestUtils.setField(service, "cookieSecure", true);
+        ReflectionTestUtils.setField(service, "cacheSize", 100L);
+        ReflectionTestUtils.invokeMethod(service, "init");
+        return service;
+    }
+
+    private static byte[] hmac(String secret, byte[] data) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            return mac.doFinal(data);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String issue(AuthTokenService service) {
+        OAuth2User user = new DefaultOAuth2User(null,
+                Map.of("sub", "1234567890", "name", "Test User", "email", "test@example.com"), "sub");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        service.issue(new OAuth2AuthenticationToken(user, user.getAuthorities(), "google"), response);
+        return response.getCookie(AuthTokenService.TOKEN_COOKIE).getValue();
+    }
+}
@@ -0,0 +1,92 @@
+package com.YouTubeTools.Service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ClientRateLimiterTest {
+
+    private ClientRateLimiter limiter;
+
+    @AfterEach
+    void tearDown() {
+        limiter.shutdown();
+    }
+
+    @Test
+    void allowsABurstThenAsksToWaitOneInterval() {
+        limiter = newLimiter(1, 3, 1, 5);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire("10.0.0.1", false)).isZero();
+        }
+        long wait = limiter.tryAcquire("10.0.0.1", false);
+
+        // One request a minute: the next token is a minute after the burst was taken
+        assertThat(wait).isBetween(TimeUnit.SECONDS.toNanos(50), TimeUnit.MINUTES.toNanos(1));
+        assertThat(limiter.tryAcquire("10.0.0.1", false)).isPositive();
+    }
+
+    @Test
+    void clientsAndSignedInUsersHaveTheirOwnBuckets() {
+        limiter = newLimiter(1, 1, 1, 2);
+
+        assertThat(limiter.tryAcquire("alice", false)).isZero();
+        assertThat(limiter.tryAcquire("alice", false)).isPositive();
+
+        assertThat(limiter.tryAcquire("10.0.0.2", false)).isZero();
+        // The same name signed in is a different client with the larger burst
+        assertThat(limiter.tryAcquire("alice", true)).isZero();
+        assertThat(limiter.tryAcquire("alice", true)).isZero();
+        assertThat(limiter.tryAcquire("alice", true)).isPositive();
+        assertThat(limiter.getTrackedClients()).isEqualTo(3);
+    }
+
+    @Test
+    void refillsOneTokenPerInterval() throws InterruptedException {
+        // 120 a minute is one token every 500ms
+        limiter = newLimiter(120, 2, 120, 2);
+        assertThat(limiter.tryAcquire("10.0.0.3", false)).isZero();
+        assertThat(limiter.tryAcquire("10.0.0.3", false)).isZero();
+
+        long wait = limiter.tryAcquire("10.0.0.3", false);
+        assertThat(wait).isPositive().isLessThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(500));
+        TimeUnit.NANOSECONDS.sleep(wait + TimeUnit.MILLISECONDS.toNanos(20));
+
+        // Only the one token has come back, not the whole burst
+        assertThat(limiter.tryAcquire("10.0.0.3", false)).isZero();
+        assertThat(limiter.tryAcquire("10.0.0.3", false)).isPositive();
+    }
+
+    @Test
+    void sweepDropsOnlyBucketsThatHaveRefilled() throws InterruptedException {
+        limiter = newLimiter(120, 2, 1, 1);
+        assertThat(limiter.tryAcquire("10.0.0.4", false)).isZero();
+        assertThat(limiter.tryAcquire("bob", true)).isZero();
+
+        // The anonymous bucket is full again after one 500ms interval; bob's takes a minute
+        TimeUnit.MILLISECONDS.sleep(600);
+        limiter.sweep();
+
+        assertThat(limiter.getTrackedClients()).isEqualTo(1);
+        assertThat(limiter.tryAcquire("bob", true)).isPositive();
+        assertThat(limiter.tryAcquire("10.0.0.4", false)).isZero();
+    }
+
+    private static ClientRateLimiter newLimiter(int anonymousPerMinute, int anonymousBurst,
+                                                int authenticatedPerMinute, int authenticatedBurst) {
+        ClientRateLimiter limiter = new ClientRateLimiter();
+        ReflectionTestUtils.setField(limiter, "anonymousPerMinute", anonymousPerMinute);
+        ReflectionTestUtils.setField(limiter, "anonymousBurst", anonymousBurst);
+        ReflectionTestUtils.setField(limiter, "authenticatedPerMinute", authenticatedPerMinute);
+        ReflectionTestUtils.setField(limiter, "authenticatedBurst", authenticatedBurst);
+        ReflectionTestUtils.setField(limiter, "maxClients", 1_000);
+        ReflectionTestUtils.setField(limiter, "sweepIntervalSeconds", 3_600L);
+        limiter.init();
+        return limiter;
+    }
+}
@@ -0,0 +1,61 @@
+package com.YouTubeTools.Service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Balance of the ring and how many keys move when a node joins.
+ */
+class ConsistentHashRingTest {
+
+    private static final List<String> NODES = List.of(
+            "http://localhost:8081", "http://localhost:8082", "http://localhost:8083");
+
+    @Test
+    void spreadsKeysEvenlyAcrossNodes() {
+        ConsistentHashRing ring = new ConsistentHashRing(NODES, 160);
+        Map<String, Integer> owned = new HashMap<>();
+        for (int i = 0; i < 30_000; i++) {
+            owned.merge(ring.ownerOf("video" + i), 1, Integer::sum);
+        }
+
+        assertThat(owned).hasSize(3);
+        // Within 15% of a perfect 10,000 each
+        assertThat(owned.values()).allSatisfy(count -> assertThat(count).isBetween(8_500, 11_500));
+    }
+
+    @Test
+    void addingANodeOnlyMovesKeysToThatNode() {
+        ConsistentHashRing before = new ConsistentHashRing(NODES, 160);
+        ConsistentHashRing after = new ConsistentHashRing(List.of(
+                "http://localhost:8081", "http://localhost:8082", "http://localhost:8083", "http://localhost:8084"), 160);
+
+        int moved = 0;
+        for (int i = 0; i < 20_000; i++) {
+            String key = "video" + i;
+            String oldOwner = before.ownerOf(key);
+            String newOwner = after.ownerOf(key);
+            if (!oldOwner.equals(newOwner)) {
+                assertThat(newOwner).isEqualTo("http://localhost:8084");
+                moved++;
+            }
+        }
+        // About a quarter of the keys should move to the new node
+        assertThat(moved).isBetween(4_000, 6_000);
+    }
+
+    @Test
+    void everyInstanceAgreesOnTheOwner() {
+        ConsistentHashRing one = new ConsistentHashRing(NODES, 160);
+        ConsistentHashRing other = new ConsistentHashRing(List.of(NODES.get(2), NODES.get(0), NODES.get(1)), 160);
+
+        for (int i = 0; i < 1_000; i++) {
+            assertThat(one.ownerOf("video" + i)).isEqualTo(other.ownerOf("video" + i));
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.YouTubeTools.Service;
+
+import com.YouTubeTools.Exception.DownloadLimitExceededException;
+import com.YouTubeTools.Model.DownloadJob;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs jobs through a stub yt-dlp that reports 50% progress, waits while a hold file for
+ * its video exists, then writes 400 KiB. Holding a video keeps its job running.
+ */
+class DownloadJobServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path scratch;
+    private DownloadStorageService storageService;
+    private ProcessExecutionService processExecutionService;
+    private DownloadJobService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        scratch = tempDir.resolve("scratch");
+        Path tool = Files.createDirectories(tempDir.resolve("bin")).resolve("yt-dlp");
+        Files.copy(Paths.get(getClass().getResource("/stub-file-downloader.sh").toURI()), tool,
+                StandardCopyOption.REPLACE_EXISTING);
+        tool.toFile().setExecutable(true);
+
+        storageService = new DownloadStorageService();
+        ReflectionTestUtils.setField(storageService, "scratchDir", scratch.toString());
+        // Two stub files fit, a third evicts the least recently used
+        ReflectionTestUtils.setField(storageService, "quotaMb", 1L);
+        storageService.init();
+
+        DownloaderCommandFactory commandFactory = new DownloaderCommandFactory();
+        ReflectionTestUtils.setField(commandFactory, "toolPath", tool.toString());
+
+        processExecutionService = new ProcessExecutionService(4, 1000);
+        service = new DownloadJobService(storageService, processExecutionService, commandFactory);
+        ReflectionTestUtils.setField(service, "timeoutMinutes", 1L);
+        ReflectionTestUtils.setField(service, "workers", 4);
+        ReflectionTestUtils.setField(service, "queueCapacity", 8);
+        ReflectionTestUtils.setField(service, "perUserLimit", 2);
+        ReflectionTestUtils.setField(service, "slotRetryMs", 50L);
+        service.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+        processExecutionService.shutdown();
+    }
+
+    @Test
+    void identicalRequestsShareOneJob() throws Exception {
+        hold("aaaaaaaaaaa");
+        DownloadJob first = service.submit("alice", "aaaaaaaaaaa", "720p", "mp4");
+        DownloadJob second = service.submit("bob", "aaaaaaaaaaa", "720P", "MP4");
+        DownloadJob otherQuality = service.submit("bob", "aaaaaaaaaaa", "480p", "mp4");
+
+        assertThat(second).isSameAs(first);
+        assertThat(otherQuality.getId()).isNotEqualTo(first.getId());
+
+        release("aaaaaaaaaaa");
+        awaitStatus(first, DownloadJob.Status.COMPLETED);
+        assertThat(service.submit("carol", "aaaaaaaaaaa", "720p", "mp4")).isSameAs(first);
+        assertThat(service.getCompletedFile(first.getId())).exists();
+    }
+
+    @Test
+    void failedJobsAreNotReused() {
+        DownloadJob failed = service.submit("alice", "failxxxxxxx", "720p", "mp4");
+        awaitStatus(failed, DownloadJob.Status.FAILED);
+
+        assertThat(failed.getError()).contains("exited with code 1");
+        assertThat(service.submit("alice", "failxxxxxxx", "720p", "mp4").getId()).isNotEqualTo(failed.getId());
+    }
+
+    @Test
+    void limitsJobsInFlightPerUser() throws Exception {
+        hold("aaaaaaaaaaa");
+        hold("bbbbbbbbbbb");
+        DownloadJob first = service.submit("alice", "aaaaaaaaaaa", "720p", "mp4");
+        service.submit("alice", "bbbbbbbbbbb", "720p", "mp4");
+
+        assertThatThrownBy(() -> service.submit("alice", "ccccccccccc", "720p", "mp4"))
+                .isInstanceOf(DownloadLimitExceededException.class);
+        // Joining a running job costs nothing, and other users have their own allowance
+        assertThat(service.submit("alice", "aaaaaaaaaaa", "720p", "mp4")).isSameAs(first);
+        assertThat(service.submit("bob", "ccccccccccc", "720p", "mp4")).isNotNull();
+
+        release("aaaaaaaaaaa");
+        awaitStatus(first, DownloadJob.Status.COMPLETED);
+        await(() -> {
+            try {
+                service.submit("alice", "ddddddddddd", "720p", "mp4");
+                return true;
+            } catch (DownloadLimitExceededException e) {
+                return false;
+            }
+        });
+        release("bbbbbbbbbbb");
+    }
+
+    @Test
+    void evictsTheLeastRecentlyServedFileAndForgetsItsJob() {
+        DownloadJob first = completed("aaaaaaaaaaa");
+        DownloadJob second = completed("bbbbbbbbbbb");
+
+        // Serving the first file makes the second the least recently used
+        assertThat(service.getCompletedFile(first.getId())).exists();
+        DownloadJob third = completed("ccccccccccc");
+
+        assertThat(service.getCompletedFile(first.getId())).exists();
+        assertThat(service.getCompletedFile(third.getId())).exists();
+        assertThat(service.getJob(second.getId())).isNull();
+        assertThat(storageService.getUsedBytes()).isEqualTo(2 * 409600);
+
+        DownloadJob again = service.submit("alice", "bbbbbbbbbbb", "720p", "mp4");
+        assertThat(again.getId()).isNotEqualTo(second.getId());
+    }
+
+    @Test
+    void publishesProgressWithBytesToSubscribers() throws Exception {
+        hold("aaaaaaaaaaa");
+        DownloadJob job = service.submit("alice", "aaaaaaaaaaa", "720p", "mp4");
+        RecordingEmitter emitter = new RecordingEmitter();
+        service.subscribe(job.getId(), emitter);
+
+        await(() -> job.getProgress() == 50.0);
+        assertThat(job.getBytesWritten()).isEqualTo(512 * 1024);
+
+        release("aaaaaaaaaaa");
+        await(() -> emitter.completed);
+
+        assertThat(emitter.events).last().isEqualTo("COMPLETED 100.0 409600");
+        assertThat(emitter.events).contains("RUNNING 50.0 524288");
+    }
+
+    @Test
+    void subscribingToAFinishedJobSendsItsStateAndCompletes() {
+        DownloadJob job = completed("aaaaaaaaaaa");
+        RecordingEmitter emitter = new RecordingEmitter();
+
+        service.subscribe(job.getId(), emitter);
+
+        assertThat(emitter.events).containsExactly("COMPLETED 100.0 409600");
+        assertThat(emitter.completed).isTrue();
+        assertThat((Map<?, ?>) ReflectionTestUtils.getField(service, "subscribers")).isEmpty();
+    }
+
+    private DownloadJob completed(String videoId) {
+        DownloadJob job = service.submit("alice", videoId, "720p", "mp4");
+        awaitStatus(job, DownloadJob.Status.COMPLETED);
+        return job;
+    }
+
+    private void hold(String videoId) throws IOException {
+        Files.createFile(scratch.resolve(videoId + ".hold"));
+    }
+
+    private void release(String videoId) throws IOException {
+        Files.delete(scratch.resolve(videoId + ".hold"));
+    }
+
+    private void awaitStatus(DownloadJob job, DownloadJob.Status status) {
+        await(() -> job.getStatus() == status);
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError("Condition not met within 10s");
+            }
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AssertionError(e);
+            }
+        }
+    }
+
+    /**
+     * Records each job state sent as "STATUS progress bytes", taken at the time of sending.
+     */
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final List<String> events = new CopyOnWriteArrayList<>();
+        private volatile boolean completed;
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            builder.build().stream()
+                    .map(DataWithMediaType::getData)
+                    .filter(DownloadJob.class::isInstance)
+                    .map(DownloadJob.class::cast)
+                    .forEach(job -> events.add(job.getStatus() + " " + job.getProgress() + " " + job.getBytesWritten()));
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package com.YouTubeTools.Service;
+
+import com.YouTubeTools.Config.ApiKeyPool;
+import com.YouTubeTools.Model.SearchVideo;
+import com.YouTubeTools.Model.TranscriptBundle;
+import com.YouTubeTools.Model.VideoDetails;
+import com.YouTubeTools.Model.VideoTranscript;
+import com.YouTubeTools.support.FakeYouTubeServer;
+import com.YouTubeTools.support.FakeYouTubeServer.Route;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the real YouTubeService and TranscriptService against {@link FakeYouTubeServer},
+ * wired the same way Spring would, without touching the network.
+ */
+class FakeYouTubeIntegrationTest {
+
+    private FakeYouTubeServer fakeYouTube;
+    private ExecutorService fanOutExecutor;
+    private ApiKeyPool apiKeyPool;
+    private YouTubeService youTubeService;
+    private TranscriptService transcriptService;
+
+    @BeforeEach
+    void setUp() {
+        fakeYouTube = FakeYouTubeServer.start();
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+        apiKeyPool = new ApiKeyPool(meterRegistry);
+        ReflectionTestUtils.setField(apiKeyPool, "apiKeys", "test-key-one,test-key-two");
+        ReflectionTestUtils.setField(apiKeyPool, "apiKey", "");
+        ReflectionTestUtils.setField(apiKeyPool, "quotaQuarantineMinutes", 60L);
+        ReflectionTestUtils.setField(apiKeyPool, "rateLimitQuarantineSeconds", 60L);
+        ReflectionTestUtils.invokeMethod(apiKeyPool, "init");
+
+        QuotaGovernor quotaGovernor = new QuotaGovernor(meterRegistry, apiKeyPool);
+        ReflectionTestUtils.setField(quotaGovernor, "dailyUnits", 10_000L);
+        ReflectionTestUtils.setField(quotaGovernor, "maxWaitMs", 0L);
+        quotaGovernor.init();
+
+        UpstreamResilienceService resilienceService = new UpstreamResilienceService(meterRegistry);
+        ReflectionTestUtils.setField(resilienceService, "windowSize", 20);
+        ReflectionTestUtils.setField(resilienceService, "minimumCalls", 5);
+        ReflectionTestUtils.setField(resilienceService, "failureRateThreshold", 0.5);
+        ReflectionTestUtils.setField(resilienceService, "openMillis", 30_000L);
+        ReflectionTestUtils.setField(resilienceService, "slowCallMillis", 5_000L);
+        ReflectionTestUtils.setField(resilienceService, "initialLimit", 20);
+        ReflectionTestUtils.setField(resilienceService, "minLimit", 2);
+        ReflectionTestUtils.setField(resilienceService, "maxLimit", 200);
+        ReflectionTestUtils.setField(resilienceService, "latencyThresholdMillis", 2_000L);
+        ReflectionTestUtils.setField(resilienceService, "backoffRatio", 0.9);
+
+        TagCorpusService tagCorpusService = new TagCorpusService();
+        ReflectionTestUtils.setField(tagCorpusService, "maxTags", 1_000);
+
+        fanOutExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        youTubeService = new YouTubeService(WebClient.builder(), quotaGovernor, apiKeyPool, resilienceService,
+                tagCorpusService, fanOutExecutor, new ObjectMapper());
+        ReflectionTestUtils.setField(youTubeService, "baseUrl", fakeYouTube.getDataApiBaseUrl());
+        ReflectionTestUtils.setField(youTubeService, "maxRelatedVideos", 5);
+
+        CaptionTrackService captionTrackService = new CaptionTrackService(new RestTemplate(), resilienceService,
+                meterRegistry);
+        ReflectionTestUtils.setField(captionTrackService, "webBaseUrl", fakeYouTube.getWebBaseUrl());
+        ReflectionTestUtils.setField(captionTrackService, "ttlMinutes", 60L);
+        ReflectionTestUtils.setField(captionTrackService, "maxEntries", 1_000L);
+        ReflectionTestUtils.invokeMethod(captionTrackService, "init");
+
+        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager("transcripts");
+        cacheManager.setAllowNullValues(false);
+        transcriptService = new TranscriptService(new RestTemplate(), captionTrackService, resilienceService,
+                fanOutExecutor, cacheManager, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        fanOutExecutor.shutdownNow();
+        fakeYouTube.close();
+    }
+
+    @Test
+    void searchesAndFetchesRelatedVideosFromRecordedResponses() {
+        SearchVideo result = youTubeService.searchVideos("spring boot tutorial");
+
+        assertThat(result.getPrimaryVideo()).isNotNull();
+        assertThat(result.getPrimaryVideo().getTags()).contains("spring boot");
+        assertThat(result.getRelatedVideos()).hasSize(5);
+        assertThat(fakeYouTube.getRequestCount(Route.SEARCH)).isEqualTo(1);
+        assertThat(fakeYouTube.getRequestCount(Route.VIDEOS)).isEqualTo(6);
+    }
+
+    @Test
+    void fetchesTranscriptThroughTimedText() {
+        VideoTranscript transcript = transcriptService.getTranscript("fakeVideo01", "en");
+
+        assertThat(transcript.getTranscriptEntries()).isNotEmpty();
+        assertThat(transcript.getTranscriptEntries().get(0).getText()).isEqualTo("hey everyone welcome back to the channel");
+        assertThat(fakeYouTube.getRequestCount(Route.WATCH_PAGE)).isZero();
+    }
+
+    @Test
+    void fallsBackToWatchPageWhenTimedTextListFails() {
+        fakeYouTube.failures(Route.TIMEDTEXT_LIST, 1.0, 500);
+
+        VideoTranscript transcript = transcriptService.getTranscript("fakeVideo01", "en");
+
+        assertThat(transcript.getTranscriptEntries()).isNotEmpty();
+        assertThat(fakeYouTube.getRequestCount(Route.WATCH_PAGE)).isEqualTo(1);
+        assertThat(fakeYouTube.getRequestCount(Route.TIMEDTEXT)).isEqualTo(1);
+    }
+
+    @Test
+    void switchingLanguageReusesTheDiscoveredTracks() {
+        transcriptService.getTranscript("fakeVideo01", "en");
+        VideoTranscript german = transcriptService.getTranscript("fakeVideo01", "de");
+
+        assertThat(german.getLanguage()).isEqualTo("de");
+        assertThat(german.getAvailableLanguages()).containsExactly("en", "de");
+        assertThat(fakeYouTube.getRequestCount(Route.TIMEDTEXT_LIST)).isEqualTo(1);
+        assertThat(fakeYouTube.getRequestCount(Route.TIMEDTEXT)).isEqualTo(2);
+        assertThat(fakeYouTube.getRequestCount(Route.WATCH_PAGE)).isZero();
+        assertThat(fakeYouTube.getRequestCount(Route.CAPTIONS)).isZero();
+    }
+
+    @Test
+    void bundlesLanguagesFromOneDiscoveryAndParallelDownloads() {
+        TranscriptBundle bundle = transcriptService.getTranscriptBundle("fakeVideo01", List.of("de", "en", "fr"));
+
+        assertThat(bundle.getLanguages()).containsExactly("de", "en");
+        assertThat(bundle.getMissingLanguages()).containsExactly("fr");
+        assertThat(bundle.getAvailableLanguages()).containsExactly("en", "de");
+        assertThat(bundle.getRows()).isNotEmpty();
+        assertThat(bundle.getRows().get(0).getTexts())
+                .containsEntry("de", "hey everyone welcome back to the channel")
+                .containsKey("en");
+        assertThat(fakeYouTube.getRequestCount(Route.TIMEDTEXT_LIST)).isEqualTo(1);
+        assertThat(fakeYouTube.getRequestCount(Route.TIMEDTEXT)).isEqualTo(2);
+        assertThat(fakeYouTube.getRequestCount(Route.WATCH_PAGE)).isZero();
+    }
+
+    @Test
+    void streamsTheSameEntriesAsTheBlockingFetch() {
+        List<String> events = new ArrayList<>();
+        int emitted = transcriptService.streamTranscript("fakeVideo01", "en", new TranscriptService.TranscriptListener() {
+            @Override
+            public void onTrack(String videoId, String language, String source) {
+                events.add("track:" + source);
+            }
+
+            @Override
+            public boolean onEntry(VideoTranscript.TranscriptEntry entry) {
+                events.add(entry.getText());
+                return true;
+            }
+        });
+
+        VideoTranscript transcript = transcriptService.getTranscript("fakeVideo01", "en");
+        assertThat(emitted).isEqualTo(transcript.getTranscriptEntries().size());
+        assertThat(events.get(0)).isEqualTo("track:" + UpstreamResilienceService.TIMEDTEXT);
+        assertThat(events.subList(1, events.size()))
+                .containsExactlyElementsOf(transcript.getTranscriptEntries().stream()
+                        .map(VideoTranscript.TranscriptEntry::getText)
+                        .toList());
+    }
+
+    @Test
+    void stopsReadingWhenTheListenerGivesUp() {
+        int emitted = transcriptService.streamTranscript("fakeVideo01", "en", new TranscriptService.TranscriptListener() {
+            @Override
+            public void onTrack(String videoId, String language, String source) {
+            }
+
+            @Override
+            public boolean onEntry(VideoTranscript.TranscriptEntry entry) {
+                return false;
+            }
+        });
+
+        assertThat(emitted).isEqualTo(1);
+        assertThat(fakeYouTube.getRequestCount(Route.WATCH_PAGE)).isZero();
+        // Abandoned streams are not cached, so the next one reads the captions again
+        assertThat(streamSources()).containsExactly("track:" + UpstreamResilienceService.TIMEDTEXT);
+        assertThat(fakeYouTube.getRequestCount(Route.TIMEDTEXT)).isEqualTo(2);
+    }
+
+    @Test
+    void replaysACompletedStreamFromTheCache() {
+        List<String> first = streamSources();
+        List<String> second = streamSources();
+
+        assertThat(first).containsExactly("track:" + UpstreamResilienceService.TIMEDTEXT);
+        assertThat(second).containsExactly("track:" + TranscriptService.CACHED);
+        assertThat(fakeYouTube.getRequestCount(Route.TIMEDTEXT)).isEqualTo(1);
+    }
+
+    // The sources announced while streaming the English transcript to the end
+    private List<String> streamSources() {
+        List<String> sources = new ArrayList<>();
+        transcriptService.streamTranscript("fakeVideo01", "en", new TranscriptService.TranscriptListener() {
+            @Override
+            public void onTrack(String videoId, String language, String source) {
+                sources.add("track:" + source);
+            }
+
+            @Override
+            public boolean onEntry(VideoTranscript.TranscriptEntry entry) {
+                return true;
+            }
+        });
+        return sources;
+    }
+
+    @Test
+    void videoDetailsIncludeStatisticsFromOneProjectedCall() {
+        VideoDetails details = youTubeService.getVideoDetails("fakeVideo01");
+
+        assertThat(details.getViewCount()).isEqualTo(123456L);
+        assertThat(details.getLikeCount()).isEqualTo(4321L);
+        assertThat(details.getDuration()).isEqualTo("PT12M14S");
+        assertThat(details.getFormattedDuration()).isEqualTo("12:14");
+        assertThat(fakeYouTube.getRequestCount(Route.VIDEOS)).isEqualTo(1);
+        assertThat(fakeYouTube.getLastQuery(Route.VIDEOS))
+                .containsEntry("part", "snippet,statistics,contentDetails")
+                .containsEntry("fields", ApiFieldProfile.VIDEO_DETAILS.getFields());
+    }
+
+    @Test
+    void tagSearchAsksOnlyForIdsAndTags() {
+        youTubeService.searchVideos("spring boot");
+
+        assertThat(fakeYouTube.getLastQuery(Route.SEARCH))
+                .containsEntry("part", "id")
+                .containsEntry("fields", "items(id(videoId))");
+        assertThat(fakeYouTube.getLastQuery(Route.VIDEOS))
+                .containsEntry("part", "snippet")
+                .containsEntry("fields", "items(snippet(title,channelTitle,tags))");
+    }
+
+    @Test
+    void quarantinesKeyThatHitsInjectedQuotaError() {
+        fakeYouTube.failures(Route.VIDEOS, 1.0, 403);
+        assertThat(youTubeService.getVideoDetails("fakeVideo01")).isNull();
+
+        fakeYouTube.reset();
+        VideoDetails details = youTubeService.getVideoDetails("fakeVideo01");
+
+        assertThat(details).isNotNull();
+        assertThat(details.getTitle()).isEqualTo("Recorded video fakeVideo01");
+        assertThat(apiKeyPool.snapshot())
+                .filteredOn(key -> Boolean.TRUE.equals(key.get("quarantined")))
+                .hasSize(1);
+    }
+}
@@ -0,0 +1,79 @@
+package com.YouTubeTools.Service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Top-K admission, ordering and decay of the popularity tracker on a skewed key stream.
+ */
+class PopularityTrackerTest {
+
+    private PopularityTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        tracker = new PopularityTracker();
+        ReflectionTestUtils.setField(tracker, "topK", 3);
+        ReflectionTestUtils.setField(tracker, "sketchDepth", 4);
+        ReflectionTestUtils.setField(tracker, "sketchWidth", 1024);
+        ReflectionTestUtils.setField(tracker, "decaySeconds", 3600L);
+    }
+
+    @Test
+    void keepsTheMostRequestedKeysInOrder() {
+        for (int round = 0; round < 100; round++) {
+            tracker.record("videoDetails", "viral");
+            if (round % 2 == 0) {
+                tracker.record("videoDetails", "trending");
+            }
+            if (round % 5 == 0) {
+                tracker.record("videoDetails", "steady");
+            }
+            // A long tail of keys requested once each
+            tracker.record("videoDetails", "tail-" + round);
+        }
+
+        List<PopularityTracker.HotKey> top = tracker.topK("videoDetails");
+        assertThat(top).extracting(PopularityTracker.HotKey::key).containsExactly("viral", "trending", "steady");
+        assertThat(top.get(0).hits()).isGreaterThanOrEqualTo(100);
+        assertThat(tracker.isHot("videoDetails", "viral")).isTrue();
+        assertThat(tracker.isHot("videoDetails", "tail-7")).isFalse();
+        assertThat(tracker.topK("transcripts")).isEmpty();
+    }
+
+    @Test
+    void decayLetsNewlyPopularKeysDisplaceOldOnes() {
+        for (int i = 0; i < 64; i++) {
+            tracker.record("transcripts", "old-a:en");
+            tracker.record("transcripts", "old-b:en");
+            tracker.record("transcripts", "old-c:en");
+        }
+        for (int i = 0; i < 4; i++) {
+            tracker.decay();
+        }
+        for (int i = 0; i < 10; i++) {
+            tracker.record("transcripts", "new:en");
+        }
+
+        assertThat(tracker.isHot("transcripts", "new:en")).isTrue();
+        assertThat(tracker.topK("transcripts").get(0).key()).isEqualTo("new:en");
+    }
+
+    @Test
+    void sketchNeverUndercounts() {
+        CountMinSketch sketch = new CountMinSketch(4, 64);
+        for (int i = 0; i < 1000; i++) {
+            sketch.add("key-" + (i % 200));
+        }
+        for (int i = 0; i < 200; i++) {
+            assertThat(sketch.estimate("key-" + i)).isGreaterThanOrEqualTo(5);
+        }
+        sketch.halve();
+        assertThat(sketch.estimate("key-0")).isGreaterThanOrEqualTo(2);
+    }
+}
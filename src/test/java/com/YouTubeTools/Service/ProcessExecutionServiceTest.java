@@ -0,0 +1,137 @@
+package com.YouTubeTools.Service;
+
+import com.YouTubeTools.Exception.DownloadLimitExceededException;
+import com.YouTubeTools.Model.ProcessStats;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ProcessExecutionServiceTest {
+
+    private ProcessExecutionService service;
+    private String stub;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        service = new ProcessExecutionService(2, 200);
+        Path script = Paths.get(getClass().getResource("/stub-downloader.sh").toURI());
+        stub = script.toString();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void streamsStdoutAndReportsStats() {
+        ByteArrayOutputStream sink = new ByteArrayOutputStream();
+        List<String> stderr = new CopyOnWriteArrayList<>();
+
+        ProcessStats stats = service.stream(command(4, 1024, "0", 0), Duration.ofSeconds(10), sink, stderr::add);
+
+        assertThat(stats.isSuccessful()).isTrue();
+        assertThat(stats.getBytesStreamed()).isEqualTo(4096);
+        assertThat(sink.size()).isEqualTo(4096);
+        assertThat(stats.getWallTime()).isPositive();
+        assertThat(stats.getCpuTime()).isNotNull();
+        assertThat(service.getActiveProcesses()).isZero();
+    }
+
+    @Test
+    void reportsNonZeroExitCode() {
+        List<String> lines = new CopyOnWriteArrayList<>();
+
+        ProcessStats stats = service.run(command(1, 16, "0", 3), Duration.ofSeconds(10), lines::add);
+
+        assertThat(stats.getExitCode()).isEqualTo(3);
+        assertThat(stats.isSuccessful()).isFalse();
+        assertThat(lines).anyMatch(line -> line.contains("[download] 100.0%"));
+    }
+
+    @Test
+    void killsProcessOnTimeout() {
+        ProcessStats stats = service.stream(command(100, 16, "1", 0), Duration.ofMillis(500),
+                new ByteArrayOutputStream(), null);
+
+        assertThat(stats.isTimedOut()).isTrue();
+        assertThat(stats.isSuccessful()).isFalse();
+        assertThat(stats.getWallTime()).isLessThan(Duration.ofSeconds(5));
+        assertThat(ProcessHandle.of(stats.getPid()).map(ProcessHandle::isAlive).orElse(false)).isFalse();
+    }
+
+    @Test
+    void killsProcessWhenConsumerDisconnects() {
+        OutputStream disconnectingClient = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+
+        ProcessStats stats = service.stream(command(100, 1024, "1", 0), Duration.ofSeconds(30),
+                disconnectingClient, null);
+
+        assertThat(stats.isAborted()).isTrue();
+        assertThat(stats.getWallTime()).isLessThan(Duration.ofSeconds(5));
+        assertThat(ProcessHandle.of(stats.getPid()).map(ProcessHandle::isAlive).orElse(false)).isFalse();
+        assertThat(service.getActiveProcesses()).isZero();
+    }
+
+    @Test
+    void rejectsWhenAllSlotsAreBusy() throws Exception {
+        CompletableFuture<ProcessStats> first = CompletableFuture.supplyAsync(() ->
+                service.stream(command(3, 16, "1", 0), Duration.ofSeconds(10), new ByteArrayOutputStream(), null));
+        CompletableFuture<ProcessStats> second = CompletableFuture.supplyAsync(() ->
+                service.stream(command(3, 16, "1", 0), Duration.ofSeconds(10), new ByteArrayOutputStream(), null));
+
+        while (service.getActiveProcesses() < 2) {
+            Thread.sleep(10);
+        }
+
+        assertThatThrownBy(() -> service.run(command(1, 16, "0", 0), Duration.ofSeconds(10), null))
+                .isInstanceOf(DownloadLimitExceededException.class);
+
+        assertThat(first.get().isSuccessful()).isTrue();
+        assertThat(second.get().isSuccessful()).isTrue();
+        assertThat(service.run(command(1, 16, "0", 0), Duration.ofSeconds(10), null).isSuccessful()).isTrue();
+    }
+
+    @Test
+    void reservedSlotIsReleasedOnceAfterTheRun() {
+        ProcessExecutionService.Slot slot = service.reserveSlot(command(1, 16, "0", 0));
+        service.reserveSlot(command(1, 16, "0", 0)).close();
+
+        service.stream(slot, command(1, 16, "0", 0), Duration.ofSeconds(10), new ByteArrayOutputStream(), null);
+        slot.close();
+
+        ProcessExecutionService.Slot first = service.reserveSlot(command(1, 16, "0", 0));
+        ProcessExecutionService.Slot second = service.reserveSlot(command(1, 16, "0", 0));
+        assertThatThrownBy(() -> service.reserveSlot(command(1, 16, "0", 0)))
+                .isInstanceOf(DownloadLimitExceededException.class);
+        first.close();
+        second.close();
+    }
+
+    private List<String> command(int chunks, int chunkBytes, String delay, int exitCode) {
+        return List.of("sh", stub, String.valueOf(chunks), String.valueOf(chunkBytes), delay, String.valueOf(exitCode));
+    }
+}
@@ -0,0 +1,125 @@
+package com.YouTubeTools.Service;
+
+import com.YouTubeTools.Config.ApiKeyPool;
+import com.YouTubeTools.Exception.QuotaExceededException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * One key with a 1000 unit budget, so LOW stops at 500 units left, NORMAL at 100 and HIGH at 0.
+ */
+class QuotaGovernorTest {
+
+    // 10:00 in Los Angeles (PDT); the next reset is 2026-07-16T07:00:00Z
+    private static final Instant MORNING = Instant.parse("2026-07-15T17:00:00Z");
+    private static final Instant RESET = Instant.parse("2026-07-16T07:00:00Z");
+
+    private MeterRegistry meterRegistry;
+    private QuotaGovernor governor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ApiKeyPool apiKeyPool = new ApiKeyPool(meterRegistry);
+        ReflectionTestUtils.setField(apiKeyPool, "apiKeys", "test-key");
+        ReflectionTestUtils.setField(apiKeyPool, "apiKey", "");
+        ReflectionTestUtils.setField(apiKeyPool, "quotaQuarantineMinutes", 60L);
+        ReflectionTestUtils.setField(apiKeyPool, "rateLimitQuarantineSeconds", 60L);
+        ReflectionTestUtils.invokeMethod(apiKeyPool, "init");
+
+        governor = new QuotaGovernor(meterRegistry, apiKeyPool);
+        ReflectionTestUtils.setField(governor, "dailyUnits", 1_000L);
+        ReflectionTestUtils.setField(governor, "maxWaitMs", 0L);
+        at(MORNING);
+        governor.init();
+    }
+
+    @Test
+    void lowerPrioritiesAreShedAtTheirFloors() {
+        for (int i = 0; i < 5; i++) {
+            governor.acquire(YouTubeApiEndpoint.SEARCH, QuotaPriority.LOW);
+        }
+        assertThatThrownBy(() -> governor.acquire(YouTubeApiEndpoint.SEARCH, QuotaPriority.LOW))
+                .isInstanceOf(QuotaExceededException.class);
+        assertThat(governor.getRemainingUnits()).isEqualTo(500);
+
+        for (int i = 0; i < 4; i++) {
+            governor.acquire(YouTubeApiEndpoint.SEARCH, QuotaPriority.NORMAL);
+        }
+        assertThatThrownBy(() -> governor.acquire(YouTubeApiEndpoint.SEARCH, QuotaPriority.NORMAL))
+                .isInstanceOf(QuotaExceededException.class);
+        assertThat(governor.getRemainingUnits()).isEqualTo(100);
+
+        // HIGH may spend the last unit
+        governor.acquire(YouTubeApiEndpoint.CAPTIONS, QuotaPriority.HIGH);
+        governor.acquire(YouTubeApiEndpoint.CAPTIONS, QuotaPriority.HIGH);
+        assertThatThrownBy(() -> governor.acquire(YouTubeApiEndpoint.CAPTIONS, QuotaPriority.HIGH))
+                .isInstanceOf(QuotaExceededException.class);
+
+        assertThat(meterRegistry.get("youtube.quota.shed").tag("endpoint", "search").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("youtube.quota.shed").tag("endpoint", "captions").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("youtube.quota.units").tag("endpoint", "search").counter().count()).isEqualTo(900);
+    }
+
+    @Test
+    void shedCallsAreToldToRetryAtTheReset() {
+        exhaust();
+
+        assertThatThrownBy(() -> governor.acquire(YouTubeApiEndpoint.VIDEOS, QuotaPriority.HIGH))
+                .isInstanceOfSatisfying(QuotaExceededException.class, e ->
+                        assertThat(e.getRetryAfterSeconds()).isEqualTo(Duration.between(MORNING, RESET).toSeconds()));
+    }
+
+    @Test
+    void refillsToCapacityOnlyAtMidnightPacific() {
+        exhaust();
+
+        at(RESET.minusSeconds(1));
+        assertThat(governor.getRemainingUnits()).isZero();
+        assertThat(governor.nextReset()).isEqualTo(RESET);
+
+        at(RESET);
+        assertThat(governor.getRemainingUnits()).isEqualTo(1_000);
+        assertThat(governor.nextReset()).isEqualTo(RESET.plus(Duration.ofDays(1)));
+    }
+
+    @Test
+    void queueingPrioritiesWaitForAnImminentReset() {
+        ReflectionTestUtils.setField(governor, "maxWaitMs", 2_000L);
+        exhaust();
+        // The test clock runs in real time 200ms before the reset
+        ReflectionTestUtils.setField(governor, "clock",
+                Clock.offset(Clock.systemUTC(), Duration.between(Instant.now(), RESET.minusMillis(200))));
+
+        assertThatThrownBy(() -> governor.acquire(YouTubeApiEndpoint.VIDEOS, QuotaPriority.LOW))
+                .isInstanceOf(QuotaExceededException.class);
+
+        long started = System.nanoTime();
+        governor.acquire(YouTubeApiEndpoint.VIDEOS, QuotaPriority.HIGH);
+
+        assertThat(Duration.ofNanos(System.nanoTime() - started)).isGreaterThanOrEqualTo(Duration.ofMillis(100));
+        assertThat(governor.getRemainingUnits()).isEqualTo(999);
+    }
+
+    private void exhaust() {
+        for (int i = 0; i < 10; i++) {
+            governor.acquire(YouTubeApiEndpoint.SEARCH, QuotaPriority.HIGH);
+        }
+        assertThat(governor.getRemainingUnits()).isZero();
+    }
+
+    private void at(Instant instant) {
+        ReflectionTestUtils.setField(governor, "clock", Clock.fixed(instant, ZoneOffset.UTC));
+    }
+}
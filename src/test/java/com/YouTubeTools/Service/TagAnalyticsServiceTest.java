@@ -0,0 +1,109 @@
+package com.YouTubeTools.Service;
+
+import com.YouTubeTools.Model.SearchVideo;
+import com.YouTubeTools.Model.TagAnalytics;
+import com.YouTubeTools.Model.TagAnalytics.RankedTag;
+import com.YouTubeTools.Model.TagAnalytics.TagPair;
+import com.YouTubeTools.Model.Video;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class TagAnalyticsServiceTest {
+
+    private TagAnalyticsService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new TagAnalyticsService();
+        ReflectionTestUtils.setField(service, "maxRankedTags", 60);
+        ReflectionTestUtils.setField(service, "maxPairs", 20);
+        ReflectionTestUtils.setField(service, "maxTagsPerVideoForPairs", 40);
+    }
+
+    @Test
+    void normalizesCaseWhitespaceHashesAndUnicodeForm() {
+        assertThat(TagAnalyticsService.normalize("#Java  Tutorial")).isEqualTo("java tutorial");
+        assertThat(TagAnalyticsService.normalize(" ## java\ttutorial ")).isEqualTo("java tutorial");
+        assertThat(TagAnalyticsService.normalize("ＪＡＶＡ")).isEqualTo("java");
+        assertThat(TagAnalyticsService.normalize("#")).isEmpty();
+        assertThat(TagAnalyticsService.normalize(null)).isEmpty();
+    }
+
+    @Test
+    void weightsDecayWithSearchRank() {
+        assertThat(TagAnalyticsService.rankWeight(0)).isEqualTo(1.0);
+        assertThat(TagAnalyticsService.rankWeight(1)).isCloseTo(0.631, within(0.001));
+        assertThat(TagAnalyticsService.rankWeight(2)).isCloseTo(0.5, within(1e-9));
+    }
+
+    @Test
+    void ranksBySummedRankWeight() {
+        TagAnalytics analytics = service.analyze(result(
+                List.of("java", "spring"),
+                List.of("spring", "kotlin"),
+                List.of("kotlin")));
+
+        // Two lower ranked videos outweigh the top one on its own
+        assertThat(analytics.getRankedTags()).containsExactly(
+                new RankedTag("spring", 2, 1.631),
+                new RankedTag("kotlin", 2, 1.131),
+                new RankedTag("java", 1, 1.0));
+        assertThat(analytics.getVideosAnalyzed()).isEqualTo(3);
+        assertThat(analytics.getDistinctTags()).isEqualTo(3);
+    }
+
+    @Test
+    void spellingsOfOneTagCountOncePerVideo() {
+        TagAnalytics analytics = service.analyze(result(
+                List.of("#Java  Tutorial", "java tutorial", "JAVA TUTORIAL", "#", ""),
+                List.of("java tutorial")));
+
+        assertThat(analytics.getDistinctTags()).isEqualTo(1);
+        assertThat(analytics.getRankedTags()).containsExactly(new RankedTag("java tutorial", 2, 1.631));
+    }
+
+    @Test
+    void tiesKeepTheOrderTagsWereFirstSeenIn() {
+        ReflectionTestUtils.setField(service, "maxRankedTags", 2);
+        TagAnalytics analytics = service.analyze(result(
+                List.of("Zeta", "alpha", "omega"),
+                List.of("#ALPHA", "zeta ")));
+
+        // Same videos, so same score and count: the tag seen first leads
+        assertThat(analytics.getRankedTags()).extracting(RankedTag::getTag).containsExactly("zeta", "alpha");
+        assertThat(analytics.getRankedTags()).extracting(RankedTag::getScore).containsOnly(1.631);
+        assertThat(analytics.getDistinctTags()).isEqualTo(3);
+    }
+
+    @Test
+    void pairsNeedTwoVideosAndRankByCountThenScore() {
+        TagAnalytics analytics = service.analyze(result(
+                List.of("a", "b", "c"),
+                List.of("a", "b"),
+                List.of("b", "c")));
+
+        assertThat(analytics.getCoOccurrences()).containsExactly(
+                new TagPair("a", "b", 2),
+                new TagPair("b", "c", 2));
+    }
+
+    // The first tag list is the primary video, the rest follow in search order
+    @SafeVarargs
+    private static SearchVideo result(List<String>... tagLists) {
+        List<Video> videos = new ArrayList<>();
+        for (List<String> tags : tagLists) {
+            videos.add(Video.builder().id("video-" + videos.size()).tags(tags).build());
+        }
+        return SearchVideo.builder()
+                .primaryVideo(videos.get(0))
+                .relatedVideos(videos.subList(1, videos.size()))
+                .build();
+    }
+}
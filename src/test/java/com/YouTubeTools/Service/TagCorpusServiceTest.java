@@ -0,0 +1,125 @@
+package com.YouTubeTools.Service;
+
+import com.YouTubeTools.Service.TagCorpusService.Suggestion;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TagCorpusServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    private TagCorpusService corpus;
+    private int videos;
+
+    @BeforeEach
+    void setUp() {
+        corpus = newCorpus(1_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        corpus.shutdown();
+    }
+
+    @Test
+    void suggestsTagsUnderThePrefixHeaviestFirst() {
+        ingest(5, "spring boot");
+        ingest(3, "spring security");
+        ingest(8, "springfield");
+        ingest(9, "java");
+
+        assertThat(corpus.suggest("spring", 10)).containsExactly(
+                new Suggestion("springfield", 8),
+                new Suggestion("spring boot", 5),
+                new Suggestion("spring security", 3));
+        assertThat(corpus.suggest("Spring  S", 10)).containsExactly(new Suggestion("spring security", 3));
+        assertThat(corpus.suggest("kotlin", 10)).isEmpty();
+    }
+
+    @Test
+    void topKStopsAtTheLimitAndIncludesThePrefixItself() {
+        ingest(2, "java");
+        ingest(7, "java streams");
+        ingest(4, "javascript");
+        ingest(1, "javafx");
+
+        assertThat(corpus.suggest("java", 2)).containsExactly(
+                new Suggestion("java streams", 7),
+                new Suggestion("javascript", 4));
+        assertThat(corpus.suggest("java", 4)).extracting(Suggestion::tag)
+                .containsExactly("java streams", "javascript", "java", "javafx");
+    }
+
+    @Test
+    void normalizesTagsAndCountsEachVideoOnce() {
+        corpus.ingest("video-1", List.of("#Spring  Boot", "spring boot", " SPRING BOOT "));
+        corpus.ingest("video-1", List.of("spring boot"));
+        corpus.ingest("video-2", List.of("Spring Boot"));
+
+        assertThat(corpus.suggest("#SPR", 5)).containsExactly(new Suggestion("spring boot", 2));
+        assertThat(corpus.size()).isEqualTo(1);
+    }
+
+    @Test
+    void compactsBelowTheCapEvenWhenHalvingKeepsEveryTag() {
+        corpus.shutdown();
+        corpus = newCorpus(10);
+        // Every tag is heavy enough to survive halving, so only dropping the lightest helps
+        for (int i = 0; i < 10; i++) {
+            ingest(4 + 2 * i, "tag" + i);
+        }
+        assertThat(corpus.size()).isEqualTo(10);
+
+        ingest(1, "tag10");
+
+        assertThat(corpus.size()).isEqualTo(9);
+        assertThat(corpus.suggest("tag", 1)).containsExactly(new Suggestion("tag9", 11));
+        assertThat(corpus.suggest("tag", 20)).extracting(Suggestion::tag).doesNotContain("tag0");
+    }
+
+    @Test
+    void snapshotRoundTripsTheCorpus() {
+        ingest(3, "spring boot");
+        ingest(1, "日本語");
+        ingest(2, "tab\tless");
+
+        corpus.snapshot();
+        assertThat(Files.exists(tempDir.resolve("corpus.tsv.gz"))).isTrue();
+
+        TagCorpusService reloaded = newCorpus(1_000);
+        try {
+            assertThat(reloaded.size()).isEqualTo(3);
+            assertThat(reloaded.suggest("spring", 5)).containsExactly(new Suggestion("spring boot", 3));
+            assertThat(reloaded.suggest("日", 5)).containsExactly(new Suggestion("日本語", 1));
+            assertThat(reloaded.suggest("tab", 5)).containsExactly(new Suggestion("tab less", 2));
+        } finally {
+            reloaded.shutdown();
+        }
+    }
+
+    private TagCorpusService newCorpus(int maxTags) {
+        TagCorpusService service = new TagCorpusService();
+        ReflectionTestUtils.setField(service, "snapshotPath", tempDir.resolve("corpus.tsv.gz").toString());
+        ReflectionTestUtils.setField(service, "snapshotIntervalMinutes", 60L);
+        ReflectionTestUtils.setField(service, "maxTags", maxTags);
+        service.init();
+        return service;
+    }
+
+    // Every video is new, so each one counts
+    private void ingest(int count, String tag) {
+        for (int i = 0; i < count; i++) {
+            corpus.ingest("video-" + videos++, List.of(tag));
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package com.YouTubeTools.Service;
+
+import com.YouTubeTools.Exception.UpstreamUnavailableException;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Drives the resilience layer against a local stub server that can answer normally,
+ * fail with 500/404 or stall past the client read timeout.
+ */
+class UpstreamResilienceServiceTest {
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private String baseUrl;
+    private RestTemplate restTemplate;
+    private UpstreamResilienceService service;
+    private final AtomicInteger hits = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/ok", exchange -> respond(exchange, 200, 0));
+        server.createContext("/fail", exchange -> respond(exchange, 500, 0));
+        server.createContext("/missing", exchange -> respond(exchange, 404, 0));
+        server.createContext("/slow", exchange -> respond(exchange, 200, 400));
+        server.createContext("/stall", exchange -> respond(exchange, 200, 2000));
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(500);
+        requestFactory.setReadTimeout(1000);
+        restTemplate = new RestTemplate(requestFactory);
+
+        service = new UpstreamResilienceService(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "windowSize", 10);
+        ReflectionTestUtils.setField(service, "minimumCalls", 4);
+        ReflectionTestUtils.setField(service, "failureRateThreshold", 0.5);
+        ReflectionTestUtils.setField(service, "openMillis", 300L);
+        ReflectionTestUtils.setField(service, "slowCallMillis", 250L);
+        ReflectionTestUtils.setField(service, "initialLimit", 4);
+        ReflectionTestUtils.setField(service, "minLimit", 1);
+        ReflectionTestUtils.setField(service, "maxLimit", 50);
+        ReflectionTestUtils.setField(service, "latencyThresholdMillis", 100L);
+        ReflectionTestUtils.setField(service, "backoffRatio", 0.5);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    void opensCircuitAfterFailuresAndFailsFastWithoutCallingUpstream() {
+        for (int i = 0; i < 4; i++) {
+            assertThatThrownBy(() -> call("stub", "/fail")).isInstanceOf(RestClientException.class);
+        }
+        assertThat(service.getState("stub")).isEqualTo(CircuitBreaker.State.OPEN);
+
+        int hitsBefore = hits.get();
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> call("stub", "/ok")).isInstanceOf(UpstreamUnavailableException.class);
+        assertThatThrownBy(() -> service.ensureAvailable("stub")).isInstanceOf(UpstreamUnavailableException.class);
+
+        assertThat(hits.get()).isEqualTo(hitsBefore);
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(100);
+    }
+
+    @Test
+    void closesAgainAfterSuccessfulTrialCall() throws Exception {
+        for (int i = 0; i < 4; i++) {
+            assertThatThrownBy(() -> call("stub", "/fail")).isInstanceOf(RestClientException.class);
+        }
+        assertThat(service.getState("stub")).isEqualTo(CircuitBreaker.State.OPEN);
+
+        Thread.sleep(350);
+
+        assertThat(call("stub", "/ok")).isEqualTo("ok");
+        assertThat(service.getState("stub")).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void failedTrialCallReopensCircuit() throws Exception {
+        for (int i = 0; i < 4; i++) {
+            assertThatThrownBy(() -> call("stub", "/fail")).isInstanceOf(RestClientException.class);
+        }
+        Thread.sleep(350);
+
+        assertThatThrownBy(() -> call("stub", "/fail")).isInstanceOf(RestClientException.class);
+        assertThat(service.getState("stub")).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void errorInTrialCallReleasesTheTrialAndItsSlot() throws Exception {
+        for (int i = 0; i < 4; i++) {
+            assertThatThrownBy(() -> call("stub", "/fail")).isInstanceOf(RestClientException.class);
+        }
+        Thread.sleep(350);
+
+        assertThatThrownBy(() -> service.execute("stub", () -> {
+            throw new StackOverflowError();
+        })).isInstanceOf(StackOverflowError.class);
+        assertThat(service.getState("stub")).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(service.snapshot()).extractingByKey("stub").asString().contains("inFlight=0");
+
+        // The next trial is not blocked by one that never reported back
+        Thread.sleep(350);
+        assertThat(call("stub", "/ok")).isEqualTo("ok");
+        assertThat(service.getState("stub")).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void timeoutsAndSlowResponsesTripTheBreaker() {
+        assertThatThrownBy(() -> call("stub", "/stall")).isInstanceOf(ResourceAccessException.class);
+        assertThatThrownBy(() -> call("stub", "/stall")).isInstanceOf(ResourceAccessException.class);
+        assertThat(call("stub", "/slow")).isEqualTo("ok");
+        assertThat(call("stub", "/slow")).isEqualTo("ok");
+
+        assertThat(service.getState("stub")).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void clientErrorsDoNotCountAsUpstreamFailures() {
+        for (int i = 0; i < 6; i++) {
+            assertThatThrownBy(() -> call("stub", "/missing")).isInstanceOf(HttpClientErrorException.class);
+        }
+        assertThat(service.getState("stub")).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void concurrencyLimitShrinksUnderLatencyAndRejectsExcessCalls() throws Exception {
+        ReflectionTestUtils.setField(service, "minimumCalls", 100);
+        ExecutorService clients = Executors.newFixedThreadPool(12);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 12; i++) {
+                results.add(clients.submit(() -> call("slow", "/slow")));
+            }
+
+            int rejected = 0;
+            for (Future<String> result : results) {
+                try {
+                    result.get();
+                } catch (ExecutionException e) {
+                    assertThat(e.getCause()).isInstanceOf(UpstreamUnavailableException.class);
+                    rejected++;
+                }
+            }
+
+            assertThat(rejected).isPositive();
+            assertThat(service.getConcurrencyLimit("slow")).isLessThan(4);
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+
+    @Test
+    void concurrencyLimitGrowsWhileUpstreamIsFast() {
+        for (int i = 0; i < 40; i++) {
+            call("fast", "/ok");
+        }
+        // Sequential calls never use half the limit, so it must not drift upwards either
+        assertThat(service.getConcurrencyLimit("fast")).isEqualTo(4);
+
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, 100, 0.5);
+        for (int i = 0; i < 20; i++) {
+            assertThat(limiter.tryAcquire()).isTrue();
+            assertThat(limiter.tryAcquire()).isTrue();
+            limiter.onSuccess(TimeUnit.MILLISECONDS.toNanos(5));
+            limiter.onSuccess(TimeUnit.MILLISECONDS.toNanos(5));
+        }
+        assertThat(limiter.getLimit()).isGreaterThan(2);
+    }
+
+    @Test
+    void concurrentAdjustmentsAreNotLost() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(65536, 1, 65536, 100, 0.5);
+        ExecutorService workers = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> done = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                done.add(workers.submit(() -> {
+                    // A halving overwritten by a concurrent one would leave the limit at 2 or more
+                    for (int j = 0; j < 2; j++) {
+                        assertThat(limiter.tryAcquire()).isTrue();
+                        limiter.onDropped();
+                    }
+                }));
+            }
+            for (Future<?> future : done) {
+                future.get();
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+        // 2^16 halved 16 times
+        assertThat(limiter.getLimit()).isEqualTo(1);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    private String call(String endpoint, String path) {
+        return service.execute(endpoint, () -> restTemplate.getForObject(baseUrl + path, String.class));
+    }
+
+    private void respond(HttpExchange exchange, int status, long delayMillis) {
+        hits.incrementAndGet();
+        try (exchange) {
+            if (delayMillis > 0) {
+                Thread.sleep(delayMillis);
+            }
+            byte[] body = "ok".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(status, body.length);
+            exchange.getResponseBody().write(body);
+        } catch (Exception e) {
+            // Client gave up; nothing to clean up
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.YouTubeTools.Util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.NettyDataBuffer;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Incremental decoding of list responses split into small pooled buffers, checking after
+ * each case that every buffer handed to the decoder was released, also on errors and on
+ * early cancellation.
+ */
+class JsonItemStreamTest {
+
+    private static final String RESPONSE = """
+            {"kind":"youtube#videoListResponse","etag":"x","items":[
+              {"id":"a","snippet":{"title":"First","tags":["one","two"]}},
+              {"id":"b","snippet":{"title":"Second","tags":[]},"nested":{"items":[1,2]}},
+              {"id":"c","snippet":{"title":"Third"}}
+            ],"pageInfo":{"totalResults":3}}
+            """;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final NettyDataBufferFactory bufferFactory = new NettyDataBufferFactory(PooledByteBufAllocator.DEFAULT);
+    private final List<NettyDataBuffer> allocated = new ArrayList<>();
+
+    @Test
+    void decodesItemsSplitAcrossBuffers() {
+        List<JsonNode> items = JsonItemStream.items(chunks(RESPONSE, 7), "items", JsonNode.class, objectMapper, 64 * 1024)
+                .collectList()
+                .block();
+
+        assertThat(items).extracting(item -> item.path("id").asText()).containsExactly("a", "b", "c");
+        assertThat(items.get(0).path("snippet").path("tags")).hasSize(2);
+        assertAllReleased();
+    }
+
+    @Test
+    void emptyResponseHasNoItems() {
+        assertThat(JsonItemStream.items(chunks("{\"kind\":\"youtube#searchListResponse\"}", 5), "items",
+                JsonNode.class, objectMapper, 1024).collectList().block()).isEmpty();
+        assertAllReleased();
+    }
+
+    @Test
+    void failsOnceTheBodyExceedsTheLimit() {
+        assertThatThrownBy(() -> JsonItemStream.items(chunks(RESPONSE, 16), "items", JsonNode.class, objectMapper, 100)
+                .collectList()
+                .block())
+                .isInstanceOf(DataBufferLimitException.class);
+        assertAllReleased();
+    }
+
+    @Test
+    void failsOnTruncatedJson() {
+        String truncated = RESPONSE.substring(0, RESPONSE.indexOf("Third"));
+
+        assertThatThrownBy(() -> JsonItemStream.items(chunks(truncated, 16), "items", JsonNode.class, objectMapper, 64 * 1024)
+                .collectList()
+                .block())
+                .isInstanceOf(DecodingException.class);
+        assertAllReleased();
+    }
+
+    @Test
+    void releasesBuffersWhenCancelledAfterTheFirstItem() {
+        JsonNode first = JsonItemStream.items(chunks(RESPONSE, 7), "items", JsonNode.class, objectMapper, 64 * 1024)
+                .next()
+                .block();
+
+        assertThat(first.path("id").asText()).isEqualTo("a");
+        assertAllReleased();
+    }
+
+    // Buffers are allocated on demand, like a connection would, so the list holds exactly the ones emitted
+    private Flux<DataBuffer> chunks(String json, int size) {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        List<byte[]> chunks = new ArrayList<>();
+        for (int offset = 0; offset < bytes.length; offset += size) {
+            chunks.add(Arrays.copyOfRange(bytes, offset, Math.min(bytes.length, offset + size)));
+        }
+        return Flux.fromIterable(chunks).map(chunk -> {
+            NettyDataBuffer buffer = bufferFactory.allocateBuffer(chunk.length);
+            buffer.write(chunk);
+            allocated.add(buffer);
+            return buffer;
+        });
+    }
+
+    private void assertAllReleased() {
+        assertThat(allocated).isNotEmpty();
+        assertThat(allocated).allSatisfy(buffer -> assertThat(buffer.getNativeBuffer().refCnt()).isZero());
+    }
+}
@@ -0,0 +1,309 @@
+package com.YouTubeTools.support;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stand-in for the YouTube Data API and youtube.com that serves recorded responses from
+ * {@code src/test/resources/fake-youtube}, so integration and load tests run offline.
+ *
+ * Point the app at it with
+ * {@code youtube.api.base.url = getDataApiBaseUrl()} and
+ * {@code youtube.web.base.url = getWebBaseUrl()}.
+ *
+ * Every route can be given a latency distribution and an error rate:
+ * <pre>
+ * FakeYouTubeServer server = FakeYouTubeServer.start()
+ *         .latency(Route.VIDEOS, LatencyDistribution.logNormal(80, 0.5))
+ *         .failures(Route.TIMEDTEXT, 0.1, 503);
+ * </pre>
+ * Requests are handled on virtual threads, so injected latency costs no platform threads.
+ * {@code GET /__stats} reports how many requests are in flight and the peak since the last
+ * {@code GET /__stats?reset=true}, which is how the load test measures the concurrency the
+ * app manages to push upstream.
+ */
+public class FakeYouTubeServer implements AutoCloseable {
+
+    public enum Route { SEARCH, VIDEOS, CAPTIONS, TIMEDTEXT_LIST, TIMEDTEXT, WATCH_PAGE }
+
+    private static final String QUOTA_EXCEEDED_BODY = """
+            {"error":{"code":403,"message":"The request cannot be completed because you have exceeded your quota.",\
+            "errors":[{"message":"The request cannot be completed because you have exceeded your quota.",\
+            "domain":"youtube.quota","reason":"quotaExceeded"}]}}""";
+
+    private static final String RATE_LIMITED_BODY = """
+            {"error":{"code":429,"message":"Too many requests.",\
+            "errors":[{"domain":"usageLimits","reason":"rateLimitExceeded"}]}}""";
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Map<Route, LatencyDistribution> latencies = new EnumMap<>(Route.class);
+    private final Map<Route, Failure> failures = new EnumMap<>(Route.class);
+    private final Map<Route, AtomicLong> requestCounts = new EnumMap<>(Route.class);
+    private final Map<Route, Map<String, String>> lastQueries = new ConcurrentHashMap<>();
+    private final Map<String, String> fixtures = new HashMap<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+
+    private FakeYouTubeServer(int port) throws IOException {
+        for (Route route : Route.values()) {
+            requestCounts.put(route, new AtomicLong());
+        }
+        for (String name : new String[]{"search.json", "videos.json", "captions.json", "timedtext-list.xml",
+                "watch.html"}) {
+            fixtures.put(name, loadFixture("fake-youtube/" + name));
+        }
+        // Same captured transcript the warm-up primes the parser with
+        fixtures.put("timedtext-json3.json", loadFixture("warmup/timedtext-json3.json"));
+
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 1024);
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext("/youtube/v3/search", exchange -> handle(exchange, Route.SEARCH));
+        server.createContext("/youtube/v3/videos", exchange -> handle(exchange, Route.VIDEOS));
+        server.createContext("/youtube/v3/captions", exchange -> handle(exchange, Route.CAPTIONS));
+        server.createContext("/api/timedtext", exchange -> handle(exchange,
+                query(exchange).containsKey("type") ? Route.TIMEDTEXT_LIST : Route.TIMEDTEXT));
+        server.createContext("/watch", exchange -> handle(exchange, Route.WATCH_PAGE));
+        server.createContext("/__stats", this::stats);
+    }
+
+    public static FakeYouTubeServer start() {
+        return start(0);
+    }
+
+    /**
+     * Starts on a fixed port, for running the stand-in as a separate process (see the
+     * loadtest profile in the pom).
+     */
+    public static FakeYouTubeServer start(int port) {
+        try {
+            FakeYouTubeServer fake = new FakeYouTubeServer(port);
+            fake.server.start();
+            return fake;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public String getWebBaseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public String getDataApiBaseUrl() {
+        return getWebBaseUrl() + "/youtube/v3";
+    }
+
+    /** Applies the same latency distribution to every route. */
+    public FakeYouTubeServer latency(LatencyDistribution distribution) {
+        for (Route route : Route.values()) {
+            latency(route, distribution);
+        }
+        return this;
+    }
+
+    public synchronized FakeYouTubeServer latency(Route route, LatencyDistribution distribution) {
+        latencies.put(route, distribution);
+        return this;
+    }
+
+    /**
+     * Fails the given fraction of requests on the route with {@code status}. 403 and 429
+     * use the Data API's quotaExceeded / rateLimitExceeded error bodies.
+     */
+    public synchronized FakeYouTubeServer failures(Route route, double rate, int status) {
+        String body = switch (status) {
+            case 403 -> QUOTA_EXCEEDED_BODY;
+            case 429 -> RATE_LIMITED_BODY;
+            default -> "{\"error\":{\"code\":" + status + ",\"message\":\"Injected failure\"}}";
+        };
+        failures.put(route, new Failure(rate, status, body));
+        return this;
+    }
+
+    /** Removes all injected latency and failures and zeroes the request counters. */
+    public synchronized void reset() {
+        latencies.clear();
+        failures.clear();
+        requestCounts.values().forEach(count -> count.set(0));
+        lastQueries.clear();
+        resetPeakInFlight();
+    }
+
+    public long getRequestCount(Route route) {
+        return requestCounts.get(route).get();
+    }
+
+    /** Decoded query parameters of the latest request on the route, empty if there was none. */
+    public Map<String, String> getLastQuery(Route route) {
+        return lastQueries.getOrDefault(route, Map.of());
+    }
+
+    /** Most requests handled at the same time since start or the last {@link #resetPeakInFlight()}. */
+    public int getPeakInFlight() {
+        return peakInFlight.get();
+    }
+
+    public void resetPeakInFlight() {
+        peakInFlight.set(inFlight.get());
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange, Route route) throws IOException {
+        requestCounts.get(route).incrementAndGet();
+        LatencyDistribution latency;
+        Failure failure;
+        synchronized (this) {
+            latency = latencies.getOrDefault(route, LatencyDistribution.none());
+            failure = failures.get(route);
+        }
+
+        peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        try (exchange) {
+            long delay = latency.sampleMillis();
+            if (delay > 0) {
+                Thread.sleep(delay);
+            }
+            if (failure != null && ThreadLocalRandom.current().nextDouble() < failure.rate()) {
+                respond(exchange, failure.status(), "application/json", failure.body());
+                return;
+            }
+
+            Map<String, String> query = query(exchange);
+            lastQueries.put(route, query);
+            switch (route) {
+                case SEARCH -> respond(exchange, 200, "application/json", searchResponse(query));
+                case VIDEOS -> respond(exchange, 200, "application/json", render("videos.json", query.get("id")));
+                case CAPTIONS -> respond(exchange, 200, "application/json", render("captions.json", query.get("videoId")));
+                case TIMEDTEXT_LIST -> respond(exchange, 200, "text/xml", fixtures.get("timedtext-list.xml"));
+                case TIMEDTEXT -> respond(exchange, 200, "application/json", fixtures.get("timedtext-json3.json"));
+                case WATCH_PAGE -> respond(exchange, 200, "text/html", render("watch.html", query.get("v")));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            // The client hung up, e.g. after its read timeout
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private void stats(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if ("true".equals(query(exchange).get("reset"))) {
+                resetPeakInFlight();
+            }
+            long requests = requestCounts.values().stream().mapToLong(AtomicLong::get).sum();
+            respond(exchange, 200, "application/json", "{\"inFlight\":" + inFlight.get()
+                    + ",\"peakInFlight\":" + peakInFlight.get() + ",\"requests\":" + requests + "}");
+        }
+    }
+
+    private String searchResponse(Map<String, String> query) {
+        String q = query.getOrDefault("q", "");
+        String body = fixtures.get("search.json").replace("{{query}}", q.replace("\"", ""));
+        for (int i = 0; i < 10; i++) {
+            body = body.replace("{{id" + i + "}}", videoIdFor(q, i));
+        }
+        return body;
+    }
+
+    private String render(String fixture, String videoId) {
+        return fixtures.get(fixture)
+                .replace("{{id}}", videoId != null ? videoId : "")
+                .replace("{{baseUrl}}", getWebBaseUrl());
+    }
+
+    /** Stable, valid-looking 11 character ids so repeated searches hit the same videos. */
+    static String videoIdFor(String query, int position) {
+        String hash = Integer.toString(Math.floorMod((query + "#" + position).hashCode(), 1 << 30), 36);
+        return ("fake" + hash + "0000000").substring(0, 11);
+    }
+
+    private static void respond(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType + "; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+
+    private static Map<String, String> query(HttpExchange exchange) {
+        Map<String, String> params = new HashMap<>();
+        String raw = exchange.getRequestURI().getRawQuery();
+        if (raw == null) {
+            return params;
+        }
+        for (String pair : raw.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                params.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return params;
+    }
+
+    private static String loadFixture(String path) {
+        try (InputStream in = FakeYouTubeServer.class.getResourceAsStream("/" + path)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing fixture " + path);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private record Failure(double rate, int status, String body) {
+    }
+
+    /**
+     * Per-request latency in milliseconds.
+     */
+    @FunctionalInterface
+    public interface LatencyDistribution {
+
+        long sampleMillis();
+
+        static LatencyDistribution none() {
+            return () -> 0;
+        }
+
+        static LatencyDistribution fixed(long millis) {
+            return () -> millis;
+        }
+
+        static LatencyDistribution uniform(long minMillis, long maxMillis) {
+            return () -> ThreadLocalRandom.current().nextLong(minMillis, maxMillis + 1);
+        }
+
+        /**
+         * Long-tailed latency like real network calls: most requests near the median, a few
+         * much slower. {@code sigma} around 0.5 gives a p99 of roughly 3x the median.
+         */
+        static LatencyDistribution logNormal(long medianMillis, double sigma) {
+            return () -> Math.round(medianMillis * Math.exp(sigma * ThreadLocalRandom.current().nextGaussian()));
+        }
+    }
+}
@@ -0,0 +1,23 @@
+#!/bin/sh
+# Stand-in for yt-dlp used by ProcessExecutionServiceTest.
+# Writes <chunks> blocks of <chunk-bytes> zero bytes to stdout, reports progress
+# on stderr, sleeps <delay> seconds between blocks and exits with <exit-code>.
+#
+# Usage: stub-downloader.sh <chunks> <chunk-bytes> <delay> <exit-code>
+
+chunks=${1:-4}
+size=${2:-1024}
+delay=${3:-0}
+code=${4:-0}
+
+i=0
+while [ "$i" -lt "$chunks" ]; do
+    head -c "$size" /dev/zero
+    i=$((i + 1))
+    echo "[download] $((i * 100 / chunks)).0% of stub" >&2
+    if [ "$delay" != "0" ]; then
+        sleep "$delay"
+    fi
+done
+
+exit "$code"
@@ -0,0 +1,34 @@
+#!/bin/sh
+# Stand-in for yt-dlp used by DownloadJobServiceTest, called with fileDownload's arguments.
+# Prints a progress line at 50%, waits while "<videoId>.hold" exists next to the output,
+# then writes 400 KiB of zero bytes to the output template with %(ext)s as the merge format.
+# Video IDs starting with "fail" exit with code 1 instead.
+
+out=""
+ext="mp4"
+url=""
+while [ "$#" -gt 0 ]; do
+    case "$1" in
+        -o) out="$2"; shift ;;
+        --merge-output-format) ext="$2"; shift ;;
+        *) url="$1" ;;
+    esac
+    shift
+done
+
+id=${url##*v=}
+out=$(echo "$out" | sed "s/%(ext)s/$ext/")
+hold="$(dirname "$out")/$id.hold"
+
+case "$id" in
+    fail*) echo "ERROR: stub failure for $id"; exit 1 ;;
+esac
+
+echo "[download]  50.0% of ~  1.00MiB at  1.00MiB/s ETA 00:01"
+while [ -e "$hold" ]; do
+    sleep 0.05
+done
+
+head -c 409600 /dev/zero > "$out"
+echo "[download] 100% of  400.00KiB in 00:00:01 at 400.00KiB/s"
+exit 0